@@ -0,0 +1,53 @@
+package com.example.task.controller.api;
+
+import com.example.task.model.dto.ExportJobDto;
+import com.example.task.model.dto.ExportJobRequestDto;
+import com.example.task.service.ExportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@Tag(name = "Eksporty", description = "Eksport zadań w tle z pobraniem gotowego pliku")
+public class ExportApiController {
+
+    private final ExportJobService exportJobService;
+
+    @Operation(summary = "Zleć eksport zadań",
+            description = "Przyjmuje format (csv, ndjson), tryb dla CSV (stream, copy, parallel) i filtry listy zadań. "
+                    + "Tryb parallel wykonywany jest w tle jako stream (jedno połączenie z bazą na eksport). "
+                    + "Zwraca identyfikator zadania eksportu; przy zbyt wielu eksportach w toku 429.")
+    @PostMapping
+    public ResponseEntity<ExportJobDto> createExport(@RequestBody(required = false) ExportJobRequestDto request) {
+        ExportJobRequestDto body = request != null ? request : new ExportJobRequestDto();
+        ExportJobDto job = exportJobService.submit(body.getFormat(), body.getMode(), body.getFilter());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/exports/" + job.getId()))
+                .body(job);
+    }
+
+    @Operation(summary = "Stan eksportu")
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobDto> getExport(@PathVariable String id) {
+        return ResponseEntity.ok(exportJobService.getJob(id));
+    }
+
+    @Operation(summary = "Pobierz plik eksportu",
+            description = "Dostępny po zakończeniu eksportu (status COMPLETED), do czasu wygaśnięcia. "
+                    + "Obsługuje Range (wznawianie pobierania, 206), ETag z If-None-Match (304) oraz "
+                    + "wariant skompresowany przy Accept-Encoding: gzip.")
+    @GetMapping("/{id}/file")
+    public void downloadExport(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ExportFileResponder.send(exportJobService.getFile(id), request, response);
+    }
+}
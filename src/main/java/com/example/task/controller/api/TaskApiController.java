@@ -1,28 +1,52 @@
 package com.example.task.controller.api;
 
+import com.example.task.exception.BadRequestException;
+import com.example.task.model.dto.CursorPageDto;
+import com.example.task.model.dto.StatisticsDto;
+import com.example.task.model.dto.TaskBatchResultDto;
+import com.example.task.model.dto.TaskBulkResultDto;
+import com.example.task.model.dto.TaskBulkUpdateDto;
 import com.example.task.model.dto.TaskCreateDto;
 import com.example.task.model.dto.TaskDto;
-import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskImportResultDto;
+import com.example.task.model.dto.TaskOperationsResultDto;
+import com.example.task.model.dto.TaskSyncDto;
+import com.example.task.model.dto.TaskSyncResultDto;
+import com.example.task.model.BatchMode;
+import com.example.task.model.CountMode;
+import com.example.task.model.ExportMode;
+import com.example.task.model.TaskFilter;
+import com.example.task.service.TaskBatchService;
+import com.example.task.service.TaskImportService;
+import com.example.task.service.TaskParallelExporter;
 import com.example.task.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
@@ -30,49 +54,75 @@ import java.util.List;
 @Tag(name = "Zadania", description = "CRUD dla zadań")
 public class TaskApiController {
 
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final TaskBatchService taskBatchService;
 
-    @Operation(summary = "Pobierz listę zadań z filtrami i paginacją")
+    @Operation(summary = "Pobierz listę zadań z filtrami i paginacją",
+            description = "Parametr count: exact (COUNT(*)), estimate (szacunek planera bazy), none (tylko hasNext, bez sumy). "
+                    + "Parametr q: wyszukiwanie pełnotekstowe w tytule i opisie, wyniki wg trafności z podświetlonym fragmentem. "
+                    + "Parametry status i categoryId przyjmują wiele wartości (status=TODO,IN_PROGRESS), categoryName dopasowuje nazwę kategorii.")
     @GetMapping
-    public ResponseEntity<Page<TaskDto>> getTasks(
-            @RequestParam(required = false) TaskStatus status,
-            @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) LocalDate dueDateBefore,
-            @RequestParam(required = false) LocalDate dueDateAfter,
-            @RequestParam(required = false) String title,
+    public ResponseEntity<Slice<TaskDto>> getTasks(
+            TaskFilter filter,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "9") int size,
-            @RequestParam(defaultValue = "createdAt,desc") String sort) {
+            @RequestParam(defaultValue = "createdAt,desc") String sort,
+            @RequestParam(defaultValue = "exact") String count) {
 
-        Page<TaskDto> result = taskService.getTasksWithFilters(status, categoryId, dueDateBefore, dueDateAfter, title, page, size, sort);
+        Slice<TaskDto> result = taskService.getTasksWithFilters(filter, page, size, sort, CountMode.from(count));
         return ResponseEntity.ok(result);
     }
 
-    @Operation(summary = "Eksport wszystkich zadań do CSV")
-    @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportTasksToCsv() throws IOException {
+    @Operation(summary = "Pobierz listę zadań z paginacją kursorową (keyset)",
+            description = "Pusty parametr after zwraca pierwszą stronę; kolejne strony pobiera się tokenem nextCursor.")
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPageDto<TaskDto>> getTasksAfter(
+            TaskFilter filter,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "9") int size,
+            @RequestParam(defaultValue = "createdAt,desc") String sort) {
 
-        List<TaskDto> allTasks = taskService.getAllTasksJdbc();
+        return ResponseEntity.ok(taskService.getTasksAfter(filter, after, size, sort));
+    }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (CSVPrinter printer = new CSVPrinter(
-                new OutputStreamWriter(out, StandardCharsets.UTF_8),
-                CSVFormat.DEFAULT.withHeader(
-                        "ID", "Tytuł", "Opis", "Status", "Termin",
-                        "Kategoria", "Utworzono", "Zaktualizowano"))) {
-
-            for (TaskDto t : allTasks) {
-                printer.printRecord(
-                        t.getId(),
-                        t.getTitle(),
-                        t.getDescription() != null ? t.getDescription() : "",
-                        t.getStatus() != null ? t.getStatus().name() : "",
-                        t.getDueDate() != null ? t.getDueDate() : "",
-                        t.getCategoryName() != null ? t.getCategoryName() : "Brak",
-                        t.getCreatedAt(),
-                        t.getUpdatedAt()
-                );
-            }
+    @Operation(summary = "Statystyki zadań",
+            description = "Bez filtrów liczniki z pamięci aplikacji (bez zapytania do bazy, odświeżane okresowo); "
+                    + "z filtrami listy zadań liczone w bazie.")
+    @GetMapping("/statistics")
+    public ResponseEntity<StatisticsDto> getStatistics(TaskFilter filter) {
+        return ResponseEntity.ok(taskService.getTaskStatistics(filter));
+    }
+
+    @Operation(summary = "Eksport zadań do CSV",
+            description = "Przyjmuje te same filtry co lista zadań. Wiersze są wysyłane na bieżąco z kursora bazy danych. "
+                    + "Parametr mode=copy: CSV generuje PostgreSQL (COPY TO STDOUT), daty w formacie bazy; "
+                    + "na innych bazach zwykły eksport strumieniowy. Parametr mode=parallel: fragmenty zakresu id czytane "
+                    + "równolegle w jednej migawce bazy, wiersze rosnąco po id; przy zbyt wielu takich eksportach w toku 429.")
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportTasksToCsv(
+            TaskFilter filter,
+            @RequestParam(defaultValue = "stream") String mode,
+            NativeWebRequest request) {
+
+        ExportMode exportMode = ExportMode.from(mode);
+        filter.validate();
+        StreamingResponseBody body;
+        if (exportMode == ExportMode.PARALLEL) {
+            // Rezerwacja jeszcze w wątku żądania: przy limicie odpowiedź 429 zamiast przerwanego pliku
+            TaskParallelExporter.Reservation reservation = taskService.reserveParallelExport();
+            // Zwolnienie także wtedy, gdy treść nie ruszy (timeout, błąd, zerwane połączenie); close() jest idempotentne
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(reservation, new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest completed, Callable<T> task) {
+                    reservation.close();
+                }
+            });
+            body = out -> taskService.exportTasksCsvParallel(filter, reservation, out);
+        } else {
+            body = out -> taskService.exportTasksCsv(filter, exportMode, out);
         }
 
         HttpHeaders headers = new HttpHeaders();
@@ -82,14 +132,85 @@ public class TaskApiController {
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(out.toByteArray());
+                .body(body);
+    }
+
+    @Operation(summary = "Strumień zadań w formacie NDJSON",
+            description = "Przyjmuje te same filtry co lista zadań. Jeden obiekt JSON zadania w linii (application/x-ndjson), "
+                    + "wysyłany na bieżąco z kursora bazy danych; klient może przetwarzać wiersze w trakcie pobierania.")
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamTasks(TaskFilter filter) {
+        filter.validate();
+        StreamingResponseBody body = out -> taskService.streamTasksNdjson(filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Import zadań z CSV",
+            description = "Plik CSV w układzie eksportu (nagłówek ID,Tytuł,Opis,Status,Termin,Kategoria,Utworzono,Zaktualizowano; "
+                    + "wymagane kolumny Tytuł i Status), przesłany jako treść żądania text/csv. Kolumny ID i daty utworzenia są pomijane, "
+                    + "kategoria wskazywana nazwą. Wiersze z błędami są pomijane i zwracane w raporcie z numerem wiersza.")
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<TaskImportResultDto> importTasks(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importCsv(body));
+    }
+
+    @Operation(summary = "Utwórz wiele zadań",
+            description = "Tablica JSON obiektów jak przy tworzeniu pojedynczego zadania, czytana strumieniowo i zapisywana "
+                    + "paczkami. Zwraca id utworzonych zadań w kolejności elementów. Tryb atomic (domyślny): jeden błędny "
+                    + "element odrzuca całe żądanie (400 z listą błędów); best-effort: błędne elementy są pomijane "
+                    + "i zwracane w raporcie z pozycją w tablicy.")
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TaskBatchResultDto> createTasks(InputStream body,
+                                                          @RequestParam(required = false) String mode) throws IOException {
+        TaskBatchResultDto result = taskBatchService.createTasks(body, BatchMode.from(mode));
+        return ResponseEntity.status(result.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.OK).body(result);
+    }
+
+    @Operation(summary = "Wykonaj listę operacji na zadaniach",
+            description = "Tablica operacji wykonywanych po kolei w jednej transakcji: {\"op\":\"create\",\"task\":{...}}, "
+                    + "{\"op\":\"update\",\"id\":1,\"task\":{...}} (pełna zamiana jak PUT), {\"op\":\"delete\",\"id\":1}. "
+                    + "Zwraca wynik każdej operacji (status 201, 200, 204, 400 lub 404, id zadania). Tryb atomic (domyślny): "
+                    + "jedna nieudana operacja wycofuje wszystkie (400 z listą błędów); best-effort: pozostałe są zapisywane.")
+    @PostMapping(value = "/_batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TaskOperationsResultDto> executeOperations(InputStream body,
+                                                                     @RequestParam(required = false) String mode) throws IOException {
+        return ResponseEntity.ok(taskBatchService.executeOperations(body, BatchMode.from(mode)));
+    }
+
+    @Operation(summary = "Synchronizuj zadania po identyfikatorze zewnętrznym",
+            description = "Tablica zadań z polem externalId. Nowe zadania są wstawiane, istniejące nadpisywane, a zadania "
+                    + "o niezmienionej treści pomijane (bez zapisu i bez zmiany updatedAt), więc ponowienie żądania "
+                    + "jest bezpieczne. Zwraca liczby wstawionych, zmienionych i niezmienionych zadań; błędny element "
+                    + "odrzuca całe żądanie (400 z listą błędów).")
+    @PutMapping(value = "/sync", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TaskSyncResultDto> syncTasks(@RequestBody List<TaskSyncDto> tasks) {
+        return ResponseEntity.ok(taskBatchService.syncTasks(tasks));
     }
 
+    @Operation(summary = "Zmień zadania pasujące do filtra",
+            description = "Przyjmuje te same filtry co lista zadań (wymagany co najmniej jeden). Treść: status, categoryId, "
+                    + "dueDate do ustawienia oraz clearCategory, clearDueDate do wyczyszczenia. Zmiany są zapisywane "
+                    + "fragmentami w osobnych transakcjach; zwraca liczbę zmienionych zadań.")
+    @PatchMapping
+    public ResponseEntity<TaskBulkResultDto> updateTasks(TaskFilter filter, @RequestBody TaskBulkUpdateDto update) {
+        return ResponseEntity.ok(taskBatchService.updateTasks(filter, update));
+    }
+
+    @Operation(summary = "Usuń zadania pasujące do filtra",
+            description = "Przyjmuje te same filtry co lista zadań (wymagany co najmniej jeden). Zadania są usuwane "
+                    + "fragmentami w osobnych transakcjach; zwraca liczbę usuniętych zadań.")
+    @DeleteMapping
+    public ResponseEntity<TaskBulkResultDto> deleteTasks(TaskFilter filter) {
+        return ResponseEntity.ok(taskBatchService.deleteTasks(filter));
+    }
 
-    @Operation(summary = "Pobierz zadanie po ID")
+    @Operation(summary = "Pobierz zadanie po ID", description = "Nagłówek ETag to wersja zadania do If-Match w PATCH.")
     @GetMapping("/{id}")
     public ResponseEntity<TaskDto> getTask(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+        TaskDto task = taskService.getTaskById(id);
+        return ResponseEntity.ok().eTag(etag(task)).body(task);
     }
 
     @Operation(summary = "Utwórz nowe zadanie")
@@ -101,7 +222,66 @@ public class TaskApiController {
     @Operation(summary = "Zaktualizuj zadanie")
     @PutMapping("/{id}")
     public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, @Valid @RequestBody TaskCreateDto dto) {
-        return ResponseEntity.ok(taskService.updateTask(id, dto));
+        TaskDto task = taskService.updateTask(id, dto);
+        return ResponseEntity.ok().eTag(etag(task)).body(task);
+    }
+
+    @Operation(summary = "Zmień wybrane pola zadania",
+            description = "JSON Merge Patch (RFC 7396): zmieniane są tylko pola obecne w treści (title, description, status, "
+                    + "dueDate, categoryId), null czyści pole. Z nagłówkiem If-Match (ETag z GET, także lista ETagów) zmiana "
+                    + "zachodzi tylko przy jednej z tych wersji zadania, inaczej 412 Precondition Failed. Odpowiedź zawiera nowy ETag.")
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<TaskDto> patchTask(@PathVariable Long id, @RequestBody JsonNode patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDto task = taskService.patchTask(id, patch, expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(etag(task)).body(task);
+    }
+
+    private static String etag(TaskDto task) {
+        return task.getVersion() != null ? "\"" + task.getVersion() + "\"" : null;
+    }
+
+    /**
+     * If-Match (RFC 9110 13.1.1): * (dowolna wersja) albo lista ETagów, z których pasować musi którykolwiek.
+     * Zwraca wersje z mocnych ETagów; słaby ETag albo ETag bez liczby nie pasuje do żadnej wersji (porównanie
+     * mocne), więc pusty zbiór oznacza 412. Null: bez warunku. Błędna składnia nagłówka to 400.
+     */
+    private static Set<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        boolean separated = true;
+        int i = 0;
+        while (i < ifMatch.length()) {
+            char c = ifMatch.charAt(i);
+            if (c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            if (c == ',') {
+                separated = true;
+                i++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            int close = open < ifMatch.length() && ifMatch.charAt(open) == '"' ? ifMatch.indexOf('"', open + 1) : -1;
+            if (!separated || close < 0) {
+                throw new BadRequestException("Niepoprawny nagłówek If-Match: " + ifMatch);
+            }
+            String opaque = ifMatch.substring(open + 1, close);
+            if (!weak && !opaque.isEmpty() && opaque.chars().allMatch(Character::isDigit)) {
+                try {
+                    versions.add(Long.parseLong(opaque));
+                } catch (NumberFormatException ex) {
+                    // poza zakresem long: żadna wersja
+                }
+            }
+            separated = false;
+            i = close + 1;
+        }
+        return versions;
     }
 
     @Operation(summary = "Usuń zadanie")
@@ -110,11 +290,12 @@ public class TaskApiController {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
-    @Operation(summary = "Eksport statystyk zadań do CSV")
+    @Operation(summary = "Eksport statystyk zadań do CSV",
+            description = "Przyjmuje te same filtry co lista zadań; statystyki obejmują tylko pasujące zadania.")
     @GetMapping("/export/statistics/csv")
-    public ResponseEntity<byte[]> exportStatisticsCsv() throws IOException {
+    public ResponseEntity<byte[]> exportStatisticsCsv(TaskFilter filter) throws IOException {
 
-        List<String[]> rows = taskService.getStatisticsForCsv();
+        List<String[]> rows = taskService.getStatisticsForCsv(filter);
 
         ByteArrayOutputStream out = new ByteArrayOutputStream();
 
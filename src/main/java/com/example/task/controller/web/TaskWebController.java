@@ -2,14 +2,18 @@ package com.example.task.controller.web;
 
 import com.example.task.model.dto.TaskCreateDto;
 import com.example.task.model.dto.TaskDto;
+import com.example.task.model.CountMode;
+import com.example.task.model.TaskFilter;
 import com.example.task.model.TaskStatus;
 import com.example.task.service.CategoryService;
 import com.example.task.service.TaskService;
+import com.example.task.service.csv.TaskCsvLayout;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -47,31 +51,36 @@ public class TaskWebController {
             @RequestParam(defaultValue = "9") int size,
             @RequestParam(defaultValue = "createdAt") String sortProperty,
             @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "exact") String count,
             Model model) {
 
-        log.info("Wywołanie listTasks z filtrami: status={}, categoryId={}, dueDateBefore={}, dueDateAfter={}, title={}, page={}, size={}, sortProperty={}, sortDirection={}",
-                status, categoryId, dueDateBefore, dueDateAfter, title, page, size, sortProperty, sortDirection);
+        log.info("Wywołanie listTasks z filtrami: status={}, categoryId={}, dueDateBefore={}, dueDateAfter={}, title={}, page={}, size={}, sortProperty={}, sortDirection={}, count={}",
+                status, categoryId, dueDateBefore, dueDateAfter, title, page, size, sortProperty, sortDirection, count);
 
         String sort = sortProperty + "," + sortDirection;
+        CountMode countMode = CountMode.from(count);
 
-        Page<TaskDto> tasks = taskService.getTasksWithFilters(
-                status, categoryId, dueDateBefore, dueDateAfter, title, page, size, sort
+        Slice<TaskDto> tasks = taskService.getTasksWithFilters(
+                status, categoryId, dueDateBefore, dueDateAfter, title, page, size, sort, countMode
         );
 
         model.addAttribute("size", size);
         model.addAttribute("title", title);
         model.addAttribute("tasks", tasks);
         model.addAttribute("categories", categoryService.getAllCategories());
-        model.addAttribute("currentParams", buildQueryParams(status, categoryId, dueDateBefore, dueDateAfter, title, size, sortProperty, sortDirection));
+        model.addAttribute("currentParams", buildQueryParams(status, categoryId, dueDateBefore, dueDateAfter, title, size, sortProperty, sortDirection, countMode));
         model.addAttribute("sortProperty", sortProperty);
         model.addAttribute("sortDirection", sortDirection);
+        model.addAttribute("count", countMode.name().toLowerCase());
+        model.addAttribute("totalKnown", tasks instanceof Page<?>);
 
-        log.debug("Zwracana liczba zadań: {}", tasks.getTotalElements());
+        log.debug("Zwracana liczba zadań: {}", tasks.getNumberOfElements());
         return "tasks/list";
     }
 
     private String buildQueryParams(TaskStatus status, Long categoryId, LocalDate before, LocalDate after,
-                                    String title, int size, String sortProperty, String sortDirection) {
+                                    String title, int size, String sortProperty, String sortDirection,
+                                    CountMode countMode) {
         StringJoiner joiner = new StringJoiner("&");
         if (status != null) joiner.add("status=" + status);
         if (categoryId != null) joiner.add("categoryId=" + categoryId);
@@ -81,6 +90,7 @@ public class TaskWebController {
         joiner.add("size=" + size);
         joiner.add("sortProperty=" + (sortProperty != null ? sortProperty : "createdAt"));
         joiner.add("sortDirection=" + (sortDirection != null ? sortDirection : "desc"));
+        if (countMode != CountMode.EXACT) joiner.add("count=" + countMode.name().toLowerCase());
         String params = joiner.toString();
         return params.isEmpty() ? "" : "&" + params;
     }
@@ -151,31 +161,17 @@ public class TaskWebController {
         response.setContentType("text/csv; charset=UTF-8");
         response.setHeader("Content-Disposition", "attachment; filename=zadania.csv");
 
-        List<TaskDto> tasks = taskService.getAllTasksJdbc();
-
-        try (PrintWriter writer = response.getWriter()) {
-            writer.println("ID;Tytuł;Opis;Status;Kategoria;Termin");
-            for (TaskDto t : tasks) {
-                writer.printf("%d;%s;%s;%s;%s;%s%n",
-                        t.getId(),
-                        escapeCsv(t.getTitle()),
-                        escapeCsv(t.getDescription()),
-                        t.getStatus(),
-                        escapeCsv(t.getCategoryName()),
-                        t.getDueDate() != null ? t.getDueDate() : ""
-                );
-            }
-        }
-        log.info("Eksport CSV zakończony, liczba zadań: {}", tasks.size());
+        long count = taskService.exportTasksCsv(new TaskFilter(), TaskCsvLayout.WEB, response.getOutputStream());
+        log.info("Eksport CSV zakończony, liczba zadań: {}", count);
     }
 
     @GetMapping("/tasks/statistics/download")
-    public void downloadStatisticsCsv(HttpServletResponse response) throws IOException {
+    public void downloadStatisticsCsv(TaskFilter filter, HttpServletResponse response) throws IOException {
         log.info("Rozpoczęcie eksportu statystyk zadań do CSV");
         response.setContentType("text/csv; charset=UTF-8");
         response.setHeader("Content-Disposition", "attachment; filename=statystyki.csv");
 
-        List<String[]> rows = taskService.getStatisticsForCsv();
+        List<String[]> rows = taskService.getStatisticsForCsv(filter);
 
         try (PrintWriter writer = response.getWriter()) {
             for (String[] row : rows) {
@@ -184,9 +180,4 @@ public class TaskWebController {
         }
         log.info("Eksport statystyk CSV zakończony, liczba wierszy: {}", rows.size());
     }
-
-    private String escapeCsv(String value) {
-        if (value == null) return "";
-        return "\"" + value.replace("\"", "\"\"") + "\"";
-    }
 }
@@ -0,0 +1,22 @@
+package com.example.task.exception;
+
+import com.example.task.model.dto.TaskBatchResultDto;
+
+import java.util.List;
+
+/**
+ * Operacja masowa w trybie atomic odrzucona z powodu błędnych elementów; nic nie zostało zapisane.
+ */
+public class BatchValidationException extends BadRequestException {
+
+    private final List<TaskBatchResultDto.ItemError> errors;
+
+    public BatchValidationException(String message, List<TaskBatchResultDto.ItemError> errors) {
+        super(message);
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<TaskBatchResultDto.ItemError> getErrors() {
+        return errors;
+    }
+}
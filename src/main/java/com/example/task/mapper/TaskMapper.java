@@ -1,6 +1,5 @@
 package com.example.task.mapper;
 
-import com.example.task.model.dto.TaskCreateDto;
 import com.example.task.model.dto.TaskDto;
 import com.example.task.model.entity.Task;
 import com.example.task.model.entity.Category;
@@ -29,22 +28,4 @@ public class TaskMapper {
 
         return dto;
     }
-
-    public Task toEntity(TaskCreateDto dto, Category category) {
-        Task task = new Task();
-        task.setTitle(dto.getTitle());
-        task.setDescription(dto.getDescription());
-        task.setStatus(dto.getStatus());
-        task.setDueDate(dto.getDueDate());
-        task.setCategory(category);
-        return task;
-    }
-
-    public void updateEntityFromDto(TaskCreateDto dto, Task task, Category category) {
-        task.setTitle(dto.getTitle());
-        task.setDescription(dto.getDescription());
-        task.setStatus(dto.getStatus());
-        task.setDueDate(dto.getDueDate());
-        task.setCategory(category);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.example.task.model;
+
+import com.example.task.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Tryb operacji masowej na zadaniach.
+ * ATOMIC - jeden błędny element odrzuca całe żądanie, BEST_EFFORT - błędne elementy są pomijane i raportowane.
+ */
+public enum BatchMode {
+    ATOMIC,
+    BEST_EFFORT;
+
+    public static BatchMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return ATOMIC;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Nieznany tryb: " + value + " (dozwolone: atomic, best-effort)");
+        }
+    }
+}
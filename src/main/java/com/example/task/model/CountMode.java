@@ -0,0 +1,26 @@
+package com.example.task.model;
+
+import com.example.task.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Sposób liczenia wyników przy paginacji offsetowej.
+ * EXACT - SELECT COUNT(*), ESTIMATE - szacunek planera, NONE - tylko informacja o kolejnej stronie.
+ */
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Nieznany tryb liczenia: " + value + " (dozwolone: exact, estimate, none)");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.task.model;
+
+import java.nio.file.Path;
+
+/**
+ * Gotowy plik eksportu na dysku. Wariant gzip jest opcjonalny (null, gdy nie powstał albo nie był mniejszy).
+ */
+public record ExportFile(String fileName, String contentType, Variant identity, Variant gzip) {
+
+    // ETag w cudzysłowie, wyliczony z treści danego wariantu
+    public record Variant(Path path, long length, String etag) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.task.model;
+
+import com.example.task.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Format pliku eksportu zleconego w tle: rozszerzenie pliku na dysku i typ treści przy pobieraniu.
+ */
+public enum ExportFormat {
+    CSV("csv", "text/csv; charset=UTF-8"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static ExportFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Nieznany format eksportu: " + value + " (dozwolone: csv, ndjson)");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.task.model;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,27 @@
+package com.example.task.model;
+
+import com.example.task.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Sposób eksportu zadań do CSV.
+ * STREAM - kursor JDBC i koder CSV w aplikacji, COPY - CSV generowany przez PostgreSQL (COPY TO STDOUT),
+ * PARALLEL - zakresy id czytane równolegle osobnymi połączeniami i składane w kolejności.
+ */
+public enum ExportMode {
+    STREAM,
+    COPY,
+    PARALLEL;
+
+    public static ExportMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return STREAM;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Nieznany tryb eksportu: " + value + " (dozwolone: stream, copy, parallel)");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.task.model;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.model.dto.TaskDto;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Pozycja w paginacji kursorowej: wartość klucza sortowania ostatniego wiersza strony oraz jego id.
+ * Na zewnątrz przekazywana jako nieprzezroczysty token Base64.
+ */
+public record TaskCursor(String property, Sort.Direction direction, Object value, long id) {
+
+    private static final String NULL_VALUE = "~";
+    private static final String VALUE_PREFIX = "=";
+
+    public static TaskCursor from(TaskDto last, Sort.Order order) {
+        Object value = switch (order.getProperty()) {
+            case "createdAt" -> last.getCreatedAt();
+            case "updatedAt" -> last.getUpdatedAt();
+            case "dueDate" -> last.getDueDate();
+            case "title" -> last.getTitle();
+            case "status" -> last.getStatus();
+            default -> last.getId();
+        };
+        return new TaskCursor(order.getProperty(), order.getDirection(), value, last.getId());
+    }
+
+    public boolean matches(Sort.Order order) {
+        return property.equals(order.getProperty()) && direction == order.getDirection();
+    }
+
+    public String encode() {
+        String raw = property + "\n" + direction.name() + "\n" + id + "\n"
+                + (value == null ? NULL_VALUE : VALUE_PREFIX + format(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Niepoprawna liczba pól");
+            }
+            String property = parts[0];
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            long id = Long.parseLong(parts[2]);
+            Object value = parts[3].equals(NULL_VALUE) ? null : parse(property, parts[3].substring(VALUE_PREFIX.length()));
+            return new TaskCursor(property, direction, value, id);
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Niepoprawny kursor: " + token);
+        }
+    }
+
+    private static String format(Object value) {
+        return value instanceof TaskStatus status ? status.name() : value.toString();
+    }
+
+    private static Object parse(String property, String text) {
+        return switch (property) {
+            case "createdAt", "updatedAt" -> LocalDateTime.parse(text);
+            case "dueDate" -> LocalDate.parse(text);
+            case "title" -> text;
+            case "status" -> TaskStatus.valueOf(text);
+            case "id" -> Long.parseLong(text);
+            default -> throw new IllegalArgumentException("Nieobsługiwane pole sortowania: " + property);
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.task.model;
+
+import com.example.task.exception.BadRequestException;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filtry listy zadań. Parametry status i categoryId przyjmują wiele wartości
+ * (status=TODO,IN_PROGRESS lub powtórzony parametr).
+ */
+@Data
+public class TaskFilter {
+
+    private List<TaskStatus> statuses;
+
+    private List<Long> categoryIds;
+
+    // Dopasowanie nazwy kategorii, zamieniane w serwisie na zbiór categoryIds przed zapytaniem o zadania
+    private String categoryName;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueDateBefore;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueDateAfter;
+
+    private String title;
+
+    // Wyszukiwanie pełnotekstowe po tytule i opisie (składnia websearch_to_tsquery)
+    private String q;
+
+    // Nazwy parametrów żądania pozostają w liczbie pojedynczej (?status=...&categoryId=...)
+    public void setStatus(List<TaskStatus> status) {
+        this.statuses = status;
+    }
+
+    public void setCategoryId(List<Long> categoryId) {
+        this.categoryIds = categoryId;
+    }
+
+    public boolean hasCriteria() {
+        return statuses != null && !statuses.isEmpty()
+                || categoryIds != null && !categoryIds.isEmpty()
+                || categoryName != null && !categoryName.isBlank()
+                || dueDateBefore != null
+                || dueDateAfter != null
+                || title != null && !title.isBlank()
+                || q != null && !q.isBlank();
+    }
+
+    /**
+     * Odrzuca znak NUL w filtrach tekstowych (400): PostgreSQL nie przyjmuje go w tekście, a eksport COPY
+     * wstawia wartości jako literały. Wołane przed rozpoczęciem odpowiedzi strumieniowej, bo potem
+     * błąd mógłby już tylko przerwać plik.
+     */
+    public void validate() {
+        for (String text : new String[]{categoryName, title, q}) {
+            if (text != null && text.indexOf('\0') >= 0) {
+                throw new BadRequestException("Niedozwolony znak NUL w filtrze");
+            }
+        }
+    }
+
+    public TaskFilter copy() {
+        TaskFilter copy = new TaskFilter();
+        copy.setStatuses(statuses);
+        copy.setCategoryIds(categoryIds);
+        copy.setCategoryName(categoryName);
+        copy.setDueDateBefore(dueDateBefore);
+        copy.setDueDateAfter(dueDateAfter);
+        copy.setTitle(title);
+        copy.setQ(q);
+        return copy;
+    }
+}
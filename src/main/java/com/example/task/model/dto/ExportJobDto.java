@@ -0,0 +1,40 @@
+package com.example.task.model.dto;
+
+import com.example.task.model.ExportJobStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ExportJobDto {
+
+    private String id;
+    private ExportJobStatus status;
+    private String format;
+    private String mode;
+
+    // Liczba wierszy znana po zakończeniu; w trakcie postęp widać w bajtach zapisanych do pliku
+    private Long rowsWritten;
+    private long bytesWritten;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    // Po tym czasie zadanie i plik są usuwane
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String fileUrl;
+}
@@ -0,0 +1,15 @@
+package com.example.task.model.dto;
+
+import com.example.task.model.TaskFilter;
+import lombok.Data;
+
+@Data
+public class ExportJobRequestDto {
+
+    private String format = "csv";
+
+    // stream, copy lub parallel, jak w GET /api/v1/tasks/export/csv
+    private String mode = "stream";
+
+    private TaskFilter filter;
+}
@@ -11,4 +11,6 @@ public class StatisticsDto {
     private long totalTasks;
     private Map<String, Long> tasksByStatus;
     private Map<String, Long> tasksByCategory;
+    // status -> kategoria -> liczba zadań
+    private Map<String, Map<String, Long>> tasksByStatusAndCategory;
 }
@@ -0,0 +1,29 @@
+package com.example.task.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TaskBatchResultDto {
+
+    private int received;
+    private int created;
+    private int rejected;
+
+    // Id utworzonych zadań w kolejności elementów żądania; null dla elementów odrzuconych
+    private List<Long> ids = new ArrayList<>();
+    private List<ItemError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemError {
+        // Pozycja elementu w tablicy żądania, od 0
+        private int index;
+        private String message;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.task.model.dto;
+
+import lombok.Data;
+
+@Data
+public class TaskBulkResultDto {
+
+    private long affected;
+    // Liczba fragmentów, każdy zapisany w osobnej transakcji
+    private int chunks;
+}
@@ -0,0 +1,24 @@
+package com.example.task.model.dto;
+
+import com.example.task.model.TaskStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Zmiany dla wszystkich zadań pasujących do filtra. Pola null nie są zmieniane;
+ * kategorię i termin usuwa się flagami clearCategory i clearDueDate.
+ */
+@Data
+public class TaskBulkUpdateDto {
+
+    private TaskStatus status;
+
+    private Long categoryId;
+
+    private boolean clearCategory;
+
+    private LocalDate dueDate;
+
+    private boolean clearDueDate;
+}
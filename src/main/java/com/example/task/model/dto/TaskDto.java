@@ -2,13 +2,16 @@ package com.example.task.model.dto;
 
 import com.example.task.model.TaskStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class TaskDto {
 
     private Long id;
@@ -27,4 +30,32 @@ public class TaskDto {
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
+
+    // Fragment z podświetlonymi trafieniami (HTML: treść escapowana, trafienia w <mark>), tylko w wynikach wyszukiwania q=
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String highlight;
+
+    // Wersja zadania (ETag), tylko w odpowiedziach o pojedyncze zadanie
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    // Projekcja w zapytaniach odczytu (TaskRepositoryCustomImpl), bez pośredniej encji Task
+    public TaskDto(Long id, String title, String description, TaskStatus status, LocalDate dueDate,
+                   Long categoryId, String categoryName, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.dueDate = dueDate;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public TaskDto(Long id, String title, String description, TaskStatus status, LocalDate dueDate,
+                   Long categoryId, String categoryName, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, title, description, status, dueDate, categoryId, categoryName, createdAt, updatedAt);
+        this.version = version;
+    }
 }
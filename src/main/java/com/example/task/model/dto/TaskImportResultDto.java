@@ -0,0 +1,32 @@
+package com.example.task.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TaskImportResultDto {
+
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private int batches;
+    private long durationMs;
+    private long rowsPerSecond;
+
+    // Najwyżej tasks.import.max-errors pierwszych błędów; rejected podaje pełną liczbę
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // Numer rekordu danych w pliku, od 1 (bez wiersza nagłówka)
+        private long row;
+        private String message;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.task.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TaskOperationsResultDto {
+
+    private int received;
+    private int succeeded;
+    private int failed;
+
+    // Wynik każdej operacji, w kolejności żądania
+    private List<OperationResult> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class OperationResult {
+        private int index;
+        private String op;
+        // Kod jak dla pojedynczego żądania: 201, 200, 204, 400 albo 404
+        private int status;
+        private Long id;
+        private String error;
+    }
+}
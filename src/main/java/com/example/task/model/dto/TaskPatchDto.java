@@ -0,0 +1,39 @@
+package com.example.task.model.dto;
+
+import com.example.task.model.TaskStatus;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Zmiany zadania z dokumentu JSON Merge Patch (RFC 7396): zmieniane są tylko pola z present,
+ * null w polu obecnym w dokumencie czyści wartość.
+ */
+@Data
+public class TaskPatchDto {
+
+    public static final String TITLE = "title";
+    public static final String DESCRIPTION = "description";
+    public static final String STATUS = "status";
+    public static final String DUE_DATE = "dueDate";
+    public static final String CATEGORY_ID = "categoryId";
+
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private LocalDate dueDate;
+    private Long categoryId;
+
+    // Nazwy pól obecnych w dokumencie
+    private final Set<String> present = new LinkedHashSet<>();
+
+    public boolean has(String field) {
+        return present.contains(field);
+    }
+
+    public boolean isEmpty() {
+        return present.isEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.task.model.dto;
+
+import com.example.task.model.TaskStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class TaskSyncDto {
+
+    @NotBlank(message = "Identyfikator zewnętrzny jest wymagany")
+    @Size(max = 100, message = "Identyfikator zewnętrzny nie może przekraczać 100 znaków")
+    private String externalId;
+
+    @NotBlank(message = "Tytuł jest wymagany")
+    @Size(max = 100, message = "Tytuł nie może przekraczać 100 znaków")
+    private String title;
+
+    @Size(max = 1000, message = "Opis nie może przekraczać 1000 znaków")
+    private String description;
+
+    @NotNull(message = "Status jest wymagany")
+    private TaskStatus status;
+
+    private LocalDate dueDate;
+
+    private Long categoryId;
+}
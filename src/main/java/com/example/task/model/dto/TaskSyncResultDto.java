@@ -0,0 +1,13 @@
+package com.example.task.model.dto;
+
+import lombok.Data;
+
+@Data
+public class TaskSyncResultDto {
+
+    private int received;
+    private int inserted;
+    private int updated;
+    // Zadania bez zmian treści: bez zapisu i bez zmiany updated_at
+    private int unchanged;
+}
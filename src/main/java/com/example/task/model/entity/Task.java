@@ -37,6 +37,15 @@ public class Task {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    // Id w systemie zewnętrznym dla synchronizacji; null dla zadań utworzonych w aplikacji
+    @Column(name = "external_id", length = 100, unique = true)
+    private String externalId;
+
+    // Zwiększana przy każdej zmianie zadania, także w zapisach JDBC; ETag w API
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
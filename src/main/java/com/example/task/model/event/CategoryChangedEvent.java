@@ -0,0 +1,19 @@
+package com.example.task.model.event;
+
+/**
+ * Zmiana nazwy kategorii albo jej usunięcie (name == null), publikowana przez CategoryService.
+ */
+public record CategoryChangedEvent(Long id, String name) {
+
+    public static CategoryChangedEvent renamed(Long id, String name) {
+        return new CategoryChangedEvent(id, name);
+    }
+
+    public static CategoryChangedEvent deleted(Long id) {
+        return new CategoryChangedEvent(id, null);
+    }
+
+    public boolean isDeleted() {
+        return name == null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.task.model.event;
+
+import com.example.task.model.TaskStatus;
+
+/**
+ * Zmiana kubełka (status, kategoria) zadania, publikowana przez TaskService.
+ * Utworzenie nie ma starego kubełka, usunięcie nie ma nowego (status null).
+ */
+public record TaskChangedEvent(TaskStatus oldStatus, Long oldCategoryId,
+                               TaskStatus newStatus, Long newCategoryId, String newCategoryName) {
+
+    public static TaskChangedEvent created(TaskStatus status, Long categoryId, String categoryName) {
+        return new TaskChangedEvent(null, null, status, categoryId, categoryName);
+    }
+
+    public static TaskChangedEvent updated(TaskStatus oldStatus, Long oldCategoryId,
+                                           TaskStatus newStatus, Long newCategoryId, String newCategoryName) {
+        return new TaskChangedEvent(oldStatus, oldCategoryId, newStatus, newCategoryId, newCategoryName);
+    }
+
+    public static TaskChangedEvent deleted(TaskStatus status, Long categoryId) {
+        return new TaskChangedEvent(status, categoryId, null, null, null);
+    }
+}
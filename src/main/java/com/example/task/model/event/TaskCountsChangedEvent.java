@@ -0,0 +1,15 @@
+package com.example.task.model.event;
+
+import com.example.task.model.TaskStatus;
+
+import java.util.List;
+
+/**
+ * Zbiorcza zmiana liczby zadań w kubełkach (status, kategoria) po operacjach masowych,
+ * zamiast osobnego TaskChangedEvent na każde zadanie.
+ */
+public record TaskCountsChangedEvent(List<Delta> deltas) {
+
+    public record Delta(TaskStatus status, Long categoryId, String categoryName, long delta) {
+    }
+}
@@ -2,8 +2,16 @@ package com.example.task.repository;
 
 import com.example.task.model.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-}
\ No newline at end of file
+
+    // Wzorzec z TaskSpecifications.containsPattern: małe litery, znaki %, _ i \ escapowane
+    @Query("SELECT c.id FROM Category c WHERE LOWER(c.name) LIKE :pattern ESCAPE '\\'")
+    List<Long> findIdsByNameLike(@Param("pattern") String pattern);
+}
@@ -13,7 +13,7 @@ import java.time.LocalDate;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
     Page<Task> findByStatus(TaskStatus status, Pageable pageable);
     
@@ -28,23 +28,6 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     Page<Task> findByDueDateBefore(LocalDate date, Pageable pageable);
     Page<Task> findByDueDateAfter(LocalDate date, Pageable pageable);
 
-    @Query("""
-    SELECT t FROM Task t
-    WHERE (:status IS NULL OR t.status = :status)
-      AND (:categoryId IS NULL OR t.category.id = :categoryId)
-      AND (:dueDateBefore IS NULL OR t.dueDate < :dueDateBefore)
-      AND (:dueDateAfter IS NULL OR t.dueDate > :dueDateAfter)
-      AND (COALESCE(:title, '') = '' OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%')))
-    """)
-    Page<Task> searchTasks(
-            @Param("status") TaskStatus status,
-            @Param("categoryId") Long categoryId,
-            @Param("dueDateBefore") LocalDate dueDateBefore,
-            @Param("dueDateAfter") LocalDate dueDateAfter,
-            @Param("title") String title,
-            Pageable pageable
-    );
-
     Optional<Task> findByIdAndCategoryId(Long id, Long categoryId);
 
     @Query("""
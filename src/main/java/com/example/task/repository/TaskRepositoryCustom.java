@@ -0,0 +1,23 @@
+package com.example.task.repository;
+
+import com.example.task.model.TaskCursor;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.dto.TaskDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepositoryCustom {
+
+    Optional<TaskDto> findDtoById(Long id);
+
+    List<TaskDto> findAfter(TaskFilter filter, TaskCursor cursor, Sort.Order order, int limit);
+
+    Slice<TaskDto> findSlice(TaskFilter filter, Pageable pageable);
+
+    Page<TaskDto> findPage(TaskFilter filter, Pageable pageable);
+}
@@ -0,0 +1,187 @@
+package com.example.task.repository;
+
+import com.example.task.model.TaskCursor;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.model.entity.Category;
+import com.example.task.model.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<TaskDto> findDtoById(Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDto> query = cb.createQuery(TaskDto.class);
+        Root<Task> root = query.from(Task.class);
+        Join<Task, Category> category = root.join("category", JoinType.LEFT);
+        // Pojedyncze zadanie razem z wersją (ETag)
+        query.select(cb.construct(TaskDto.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("status"),
+                root.get("dueDate"),
+                category.get("id"),
+                category.get("name"),
+                root.get("createdAt"),
+                root.get("updatedAt"),
+                root.get("version")));
+        query.where(cb.equal(root.get("id"), id));
+
+        return entityManager.createQuery(query).getResultStream().findFirst();
+    }
+
+    @Override
+    public List<TaskDto> findAfter(TaskFilter filter, TaskCursor cursor, Sort.Order order, int limit) {
+        Specification<Task> spec = TaskSpecifications.matches(filter);
+        if (cursor != null) {
+            spec = spec.and(TaskSpecifications.seekAfter(cursor));
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDto> query = cb.createQuery(TaskDto.class);
+        Root<Task> root = selectDto(cb, query);
+        where(query, spec.toPredicate(root, query, cb));
+        query.orderBy(keysetOrder(cb, root, order));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Strona bez zapytania COUNT: pobieramy jeden wiersz więcej, żeby ustalić hasNext
+    @Override
+    public Slice<TaskDto> findSlice(TaskFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDto> query = cb.createQuery(TaskDto.class);
+        Root<Task> root = selectDto(cb, query);
+        where(query, TaskSpecifications.matches(filter).toPredicate(root, query, cb));
+        query.orderBy(toOrders(cb, root, filter, pageable.getSort()));
+
+        List<TaskDto> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public Page<TaskDto> findPage(TaskFilter filter, Pageable pageable) {
+        Slice<TaskDto> slice = findSlice(filter, pageable);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        // COUNT bez złączenia z kategorią: filtr category_id jest kolumną tasks
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Task> root = countQuery.from(Task.class);
+        countQuery.select(cb.count(root));
+        where(countQuery, TaskSpecifications.matches(filter).toPredicate(root, countQuery, cb));
+
+        // COUNT tylko gdy liczby wyników nie da się wyznaczyć z samej strony
+        long total = slice.hasNext() || pageable.getOffset() > 0 && !slice.hasContent()
+                ? entityManager.createQuery(countQuery).getSingleResult()
+                : pageable.getOffset() + slice.getNumberOfElements();
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    /**
+     * Odczyt list i pojedynczego zadania: TaskDto budowane wprost w zapytaniu (wyrażenie konstruktora),
+     * kategoria przez LEFT JOIN w tym samym SELECT. Encje Task nie trafiają do kontekstu utrwalania,
+     * więc nie ma snapshotów do dirty checkingu ani kopiowania w TaskMapper.
+     */
+    private static Root<Task> selectDto(CriteriaBuilder cb, CriteriaQuery<TaskDto> query) {
+        Root<Task> root = query.from(Task.class);
+        Join<Task, Category> category = root.join("category", JoinType.LEFT);
+        query.select(cb.construct(TaskDto.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("status"),
+                root.get("dueDate"),
+                category.get("id"),
+                category.get("name"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+        return root;
+    }
+
+    private static void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private List<Order> toOrders(CriteriaBuilder cb, Root<Task> root, TaskFilter filter, Sort sort) {
+        Sort.Order relevance = sort.getOrderFor(TaskSpecifications.RELEVANCE);
+        if (relevance == null) {
+            return QueryUtils.toOrders(sort, root, cb);
+        }
+        if (!StringUtils.hasText(filter.getTitle())) {
+            return List.of(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+        }
+        return List.of(relevanceOrder(cb, root, filter.getTitle()), cb.desc(root.get("id")));
+    }
+
+    /**
+     * PostgreSQL: podobieństwo trigramowe (pg_trgm), najbardziej podobne tytuły pierwsze.
+     * Inne bazy (H2 w testach): im wcześniej w tytule występuje szukany tekst, tym wyżej.
+     */
+    private Order relevanceOrder(CriteriaBuilder cb, Root<Task> root, String title) {
+        Expression<String> lowerTitle = cb.lower(root.get("title"));
+        String text = title.toLowerCase(Locale.ROOT);
+        if (isPostgres()) {
+            return cb.desc(cb.function("similarity", Double.class, lowerTitle, cb.literal(text)));
+        }
+        return cb.asc(cb.locate(lowerTitle, text));
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    // Kolejność musi odpowiadać predykatowi seekAfter: klucz sortowania (NULL jako największy) + id
+    private List<Order> keysetOrder(CriteriaBuilder cb, Root<Task> root, Sort.Order order) {
+        List<Order> orders = new ArrayList<>();
+        boolean ascending = order.isAscending();
+        if (!order.getProperty().equals("id")) {
+            Expression<?> key = root.get(order.getProperty());
+            JpaOrder keyOrder = (JpaOrder) (ascending ? cb.asc(key) : cb.desc(key));
+            orders.add(keyOrder.nullPrecedence(ascending ? NullPrecedence.LAST : NullPrecedence.FIRST));
+        }
+        orders.add(ascending ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+        return orders;
+    }
+}
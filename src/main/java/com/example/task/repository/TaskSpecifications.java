@@ -0,0 +1,90 @@
+package com.example.task.repository;
+
+import com.example.task.model.TaskCursor;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.entity.Task;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+public final class TaskSpecifications {
+
+    /** Pseudo-pole sortowania: trafność dopasowania tytułu do filtra title. */
+    public static final String RELEVANCE = "relevance";
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> matches(TaskFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!CollectionUtils.isEmpty(filter.getStatuses())) {
+                predicates.add(equalOrIn(cb, root.get("status"), filter.getStatuses()));
+            }
+            if (!CollectionUtils.isEmpty(filter.getCategoryIds())) {
+                predicates.add(equalOrIn(cb, root.get("category").get("id"), filter.getCategoryIds()));
+            }
+            if (filter.getDueDateBefore() != null) {
+                predicates.add(cb.lessThan(root.get("dueDate"), filter.getDueDateBefore()));
+            }
+            if (filter.getDueDateAfter() != null) {
+                predicates.add(cb.greaterThan(root.get("dueDate"), filter.getDueDateAfter()));
+            }
+            if (StringUtils.hasText(filter.getTitle())) {
+                predicates.add(cb.like(cb.lower(root.get("title")), containsPattern(filter.getTitle()), '\\'));
+            }
+            // Bez filtrów brak klauzuli WHERE (zamiast "where 1=1")
+            return predicates.isEmpty() ? null : cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Predykat "seek" dla paginacji kursorowej. NULL traktowany jest jak wartość największa
+     * (tak jak domyślnie w PostgreSQL), dlatego rosnąco NULL-e są na końcu, a malejąco na początku.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Task> seekAfter(TaskCursor cursor) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            boolean ascending = cursor.direction().isAscending();
+            Predicate idAfter = ascending ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+
+            if (cursor.property().equals("id")) {
+                return idAfter;
+            }
+
+            Expression<Comparable> key = root.get(cursor.property());
+            Comparable value = (Comparable) cursor.value();
+
+            if (value == null) {
+                Predicate sameNull = cb.and(cb.isNull(key), idAfter);
+                return ascending ? sameNull : cb.or(sameNull, cb.isNotNull(key));
+            }
+
+            Predicate beyond = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            Predicate tie = cb.and(cb.equal(key, value), idAfter);
+            return ascending ? cb.or(beyond, tie, cb.isNull(key)) : cb.or(beyond, tie);
+        };
+    }
+
+    private static Predicate equalOrIn(CriteriaBuilder cb, Path<?> path, Collection<?> values) {
+        return values.size() == 1 ? cb.equal(path, values.iterator().next()) : path.in(values);
+    }
+
+    public static String containsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
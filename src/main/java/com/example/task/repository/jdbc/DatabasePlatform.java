@@ -0,0 +1,30 @@
+package com.example.task.repository.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Informacja o silniku bazy danych. Pozwala włączać ścieżki specyficzne dla PostgreSQL
+ * i wracać do zwykłego SQL na H2 (profil testowy).
+ */
+@Component
+public class DatabasePlatform {
+
+    private final JdbcTemplate jdbc;
+    private volatile Boolean postgres;
+
+    public DatabasePlatform(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbc.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equalsIgnoreCase(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
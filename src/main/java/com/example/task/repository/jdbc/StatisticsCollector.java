@@ -0,0 +1,39 @@
+package com.example.task.repository.jdbc;
+
+import com.example.task.model.dto.StatisticsDto;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Składa StatisticsDto z wierszy (status, category_name, task_count) bez trzymania samych zadań w pamięci.
+ */
+final class StatisticsCollector implements RowCallbackHandler {
+
+    static final String UNCATEGORIZED = "Uncategorized";
+
+    private final Map<String, Long> byStatus = new LinkedHashMap<>();
+    private final Map<String, Long> byCategory = new LinkedHashMap<>();
+    private final Map<String, Map<String, Long>> matrix = new LinkedHashMap<>();
+    private long total;
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        String category = rs.getString("category_name");
+        if (category == null) category = UNCATEGORIZED;
+        long count = rs.getLong("task_count");
+
+        total += count;
+        byStatus.merge(status, count, Long::sum);
+        byCategory.merge(category, count, Long::sum);
+        matrix.computeIfAbsent(status, k -> new LinkedHashMap<>()).merge(category, count, Long::sum);
+    }
+
+    StatisticsDto toDto() {
+        return new StatisticsDto(total, byStatus, byCategory, matrix);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.task.repository.jdbc;
+
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.StatisticsDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tabela task_counters: liczba zadań na (status, kategoria). Zmiany muszą iść w transakcji
+ * zapisu zadania; category_id = 0 oznacza brak kategorii.
+ */
+@Repository
+public class TaskCounterDao {
+
+    private static final long NO_CATEGORY = 0L;
+    // Klucz blokady doradczej naprawy liczników, wspólny dla wszystkich węzłów
+    private static final long RECONCILE_LOCK = 0x7461736b636e74L;
+
+    private final JdbcTemplate jdbc;
+    private final DatabasePlatform platform;
+
+    public TaskCounterDao(JdbcTemplate jdbc, DatabasePlatform platform) {
+        this.jdbc = jdbc;
+        this.platform = platform;
+    }
+
+    public void increment(TaskStatus status, Long categoryId) {
+        adjust(status, categoryId, 1);
+    }
+
+    public void decrement(TaskStatus status, Long categoryId) {
+        adjust(status, categoryId, -1);
+    }
+
+    // Przeniesienie zadania między kubełkami (zmiana statusu lub kategorii)
+    public void move(TaskStatus oldStatus, Long oldCategoryId, TaskStatus newStatus, Long newCategoryId) {
+        if (oldStatus == newStatus && Objects.equals(oldCategoryId, newCategoryId)) {
+            return;
+        }
+        decrement(oldStatus, oldCategoryId);
+        increment(newStatus, newCategoryId);
+    }
+
+    public void adjust(TaskStatus status, Long categoryId, long delta) {
+        if (status == null || delta == 0) {
+            return;
+        }
+        long category = categoryId != null ? categoryId : NO_CATEGORY;
+        if (platform.isPostgres()) {
+            jdbc.update("INSERT INTO task_counters (status, category_id, task_count) VALUES (?, ?, ?) " +
+                            "ON CONFLICT (status, category_id) DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count",
+                    status.name(), category, delta);
+            return;
+        }
+        int updated = jdbc.update("UPDATE task_counters SET task_count = task_count + ? WHERE status = ? AND category_id = ?",
+                delta, status.name(), category);
+        if (updated == 0) {
+            jdbc.update("INSERT INTO task_counters (status, category_id, task_count) VALUES (?, ?, ?)",
+                    status.name(), category, delta);
+        }
+    }
+
+    /**
+     * Usunięcie kategorii: ON DELETE SET NULL przenosi jej zadania do "bez kategorii",
+     * więc to samo trzeba zrobić z licznikami. Wołane w transakcji usuwającej kategorię.
+     */
+    public void moveToUncategorized(Long categoryId) {
+        List<Map<String, Object>> rows = jdbc.queryForList(
+                "SELECT status, task_count FROM task_counters WHERE category_id = ?", categoryId);
+        for (Map<String, Object> row : rows) {
+            long count = ((Number) row.get("task_count")).longValue();
+            adjust(TaskStatus.valueOf((String) row.get("status")), null, count);
+        }
+        jdbc.update("DELETE FROM task_counters WHERE category_id = ?", categoryId);
+    }
+
+    public StatisticsDto statistics() {
+        StatisticsCollector collector = new StatisticsCollector();
+        jdbc.query("SELECT tc.status, c.name AS category_name, tc.task_count " +
+                "FROM task_counters tc LEFT JOIN categories c ON tc.category_id = c.id " +
+                "WHERE tc.task_count <> 0 ORDER BY tc.status, c.name", collector);
+        return collector.toDto();
+    }
+
+    /**
+     * Niezerowe liczniki z nazwami kategorii, jednym zapytaniem (stan początkowy agregatora statystyk).
+     */
+    public List<Bucket> buckets() {
+        return jdbc.query("SELECT tc.status, tc.category_id, c.name AS category_name, tc.task_count " +
+                        "FROM task_counters tc LEFT JOIN categories c ON tc.category_id = c.id " +
+                        "WHERE tc.task_count <> 0",
+                (rs, rowNum) -> {
+                    long categoryId = rs.getLong("category_id");
+                    return new Bucket(TaskStatus.valueOf(rs.getString("status")),
+                            categoryId != NO_CATEGORY ? categoryId : null,
+                            rs.getString("category_name"),
+                            rs.getLong("task_count"));
+                });
+    }
+
+    /**
+     * Porównuje liczniki z GROUP BY na tasks i poprawia rozbieżne wiersze.
+     *
+     * @return liczba naprawionych wierszy (status, kategoria)
+     */
+    public int reconcile() {
+        Map<CounterKey, Long> drift = drift();
+        applyDrift(drift);
+        return drift.size();
+    }
+
+    /**
+     * Różnica między GROUP BY na tasks a task_counters, bez blokad. Jedno zapytanie, więc oba odczyty widzą
+     * tę samą migawkę także w READ COMMITTED: aplikacja zmienia zadanie i licznik w jednej transakcji,
+     * więc różnica to wyłącznie rozjazd, który nie zmienia się od zwykłych zapisów po migawce.
+     */
+    public Map<CounterKey, Long> drift() {
+        Map<CounterKey, Long> drift = new HashMap<>();
+        jdbc.query("SELECT status, category_id, SUM(delta) AS delta FROM (" +
+                        "SELECT status, COALESCE(category_id, 0) AS category_id, COUNT(*) AS delta " +
+                        "FROM tasks WHERE status IS NOT NULL GROUP BY status, COALESCE(category_id, 0) " +
+                        "UNION ALL SELECT status, category_id, -task_count AS delta FROM task_counters" +
+                        ") d GROUP BY status, category_id HAVING SUM(delta) <> 0",
+                rs -> {
+                    drift.put(new CounterKey(rs.getString("status"), rs.getLong("category_id")), rs.getLong("delta"));
+                });
+        return drift;
+    }
+
+    /**
+     * Blokada naprawy liczników do końca bieżącej transakcji (pg_try_advisory_xact_lock), bez czekania.
+     * Dwa węzły nie mogą dodać tej samej różnicy dwa razy: kto nie dostał blokady, pomija naprawę,
+     * a kto dostał, liczy różnicę od nowa po zatwierdzeniu poprzedniej naprawy. Na innych bazach
+     * (H2, jeden proces) zawsze true.
+     */
+    public boolean tryLockReconcile() {
+        if (!platform.isPostgres()) {
+            return true;
+        }
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RECONCILE_LOCK));
+    }
+
+    /**
+     * Dodaje różnice z {@link #drift()} do liczników. Zmiana względna, więc zapisy zatwierdzone po migawce
+     * nie są nadpisywane; blokowane są tylko naprawiane wiersze i tylko na czas UPDATE.
+     */
+    public void applyDrift(Map<CounterKey, Long> drift) {
+        drift.forEach((key, delta) -> {
+            Long categoryId = key.categoryId() != NO_CATEGORY ? key.categoryId() : null;
+            adjust(TaskStatus.valueOf(key.status()), categoryId, delta);
+        });
+    }
+
+    public record Bucket(TaskStatus status, Long categoryId, String categoryName, long count) {
+    }
+
+    public record CounterKey(String status, long categoryId) {
+    }
+}
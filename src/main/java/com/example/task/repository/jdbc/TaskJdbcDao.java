@@ -1,29 +1,90 @@
 package com.example.task.repository.jdbc;
 
+import com.example.task.model.dto.StatisticsDto;
+import com.example.task.model.dto.TaskBulkUpdateDto;
 import com.example.task.model.dto.TaskDto;
+import com.example.task.model.dto.TaskPatchDto;
+import com.example.task.model.dto.TaskSyncDto;
+import com.example.task.model.TaskFilter;
 import com.example.task.model.TaskStatus;
+import com.example.task.repository.TaskSpecifications;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Repository
 public class TaskJdbcDao {
 
+    public static final String UNCATEGORIZED = StatisticsCollector.UNCATEGORIZED;
+
+    // Generator bez ObjectMappera: pola zapisywane ręcznie, tylko kodowanie JSON
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+    // Jak @JsonFormat w TaskDto
+    private static final DateTimeFormatter JSON_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final char HIGHLIGHT_START = '\u0002';
+    private static final char HIGHLIGHT_STOP = '\u0003';
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (title, description, status, due_date, category_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, NOW(), NOW())";
+
+    // Klucz blokady doradczej serializującej synchronizacje po external_id
+    private static final long SYNC_LOCK_KEY = 0x7461736b73796e63L;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*([0-9.eE+]+)");
+
     private final JdbcTemplate jdbc;
+    private final DatabasePlatform platform;
+    private final TaskCounterDao counters;
+    private final int exportFetchSize;
 
-    public TaskJdbcDao(JdbcTemplate jdbc) {
+    public TaskJdbcDao(JdbcTemplate jdbc, DatabasePlatform platform, TaskCounterDao counters,
+                       @Value("${tasks.export.fetch-size:1000}") int exportFetchSize) {
         this.jdbc = jdbc;
+        this.platform = platform;
+        this.counters = counters;
+        this.exportFetchSize = exportFetchSize;
     }
 
-    private final RowMapper<TaskDto> rowMapper = new RowMapper<>() {
+    static final RowMapper<TaskDto> ROW_MAPPER = new RowMapper<>() {
         @Override
         public TaskDto mapRow(ResultSet rs, int rowNum) throws SQLException {
             TaskDto dto = new TaskDto();
@@ -52,56 +113,863 @@ public class TaskJdbcDao {
         String sql = "SELECT t.id, t.title, t.description, t.status, t.due_date, t.category_id, " +
                 "c.name as category_name, t.created_at, t.updated_at " +
                 "FROM tasks t LEFT JOIN categories c ON t.category_id = c.id ORDER BY t.created_at DESC";
-        return jdbc.query(sql, rowMapper);
+        return jdbc.query(sql, ROW_MAPPER);
+    }
+
+    /**
+     * Eksport: wiersze pasujące do filtra czytane kursorem tylko-do-przodu, po exportFetchSize naraz.
+     * Każdy wiersz trafia do handlera i nie jest nigdzie zbierany. PostgreSQL używa kursora
+     * tylko wewnątrz transakcji (autocommit wyłączony), bez niej pobiera cały wynik naraz.
+     */
+    public void streamTasks(TaskFilter filter, TaskRowHandler handler) {
+        queryForward(filter, rs -> {
+            try {
+                handler.handle(ROW_MAPPER.mapRow(rs, 0));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * NDJSON: każdy wiersz kursora zapisywany polami wprost do JsonGenerator (bez TaskDto), jeden obiekt
+     * w linii, z opróżnieniem strumienia po każdej paczce exportFetchSize wierszy. Błąd zapisu (np. klient
+     * rozłączył się) przerywa odczyt: kursor i połączenie są zwalniane od razu, a IOException wraca
+     * do wywołującego jako UncheckedIOException. Pola i formaty jak w JSON-ie TaskDto. Strumienia nie zamyka.
+     *
+     * @return liczba zapisanych zadań
+     */
+    public long writeNdjson(TaskFilter filter, OutputStream out) {
+        long[] count = {0};
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            queryForward(filter, rs -> {
+                try {
+                    writeJson(rs, json);
+                    if (++count[0] % exportFetchSize == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count[0];
+    }
+
+    private static void writeJson(ResultSet rs, JsonGenerator json) throws SQLException, IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong("id"));
+        json.writeStringField("title", rs.getString("title"));
+        json.writeStringField("description", rs.getString("description"));
+        String status = rs.getString("status");
+        json.writeStringField("status", status != null && !status.isBlank() ? status : null);
+        Date due = rs.getDate("due_date");
+        json.writeStringField("dueDate", due != null ? due.toLocalDate().toString() : null);
+        long categoryId = rs.getLong("category_id");
+        json.writeFieldName("categoryId");
+        if (rs.wasNull()) {
+            json.writeNull();
+        } else {
+            json.writeNumber(categoryId);
+        }
+        json.writeStringField("categoryName", rs.getString("category_name"));
+        writeTimestamp(json, "createdAt", rs.getTimestamp("created_at"));
+        writeTimestamp(json, "updatedAt", rs.getTimestamp("updated_at"));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeTimestamp(JsonGenerator json, String field, Timestamp value) throws IOException {
+        json.writeStringField(field, value != null ? JSON_DATE_TIME.format(value.toLocalDateTime()) : null);
+    }
+
+    /**
+     * Zapytanie eksportu czytane kursorem tylko-do-przodu, po exportFetchSize wierszy naraz,
+     * od najnowszych zadań.
+     */
+    private void queryForward(TaskFilter filter, RowCallbackHandler handler) {
+        TaskSqlFilter where = TaskSqlFilter.of(filter, platform.isPostgres());
+        String sql = "SELECT t.id, t.title, t.description, t.status, t.due_date, t.category_id, " +
+                "c.name as category_name, t.created_at, t.updated_at " +
+                "FROM tasks t LEFT JOIN categories c ON t.category_id = c.id" + where.where() +
+                " ORDER BY t.created_at DESC, t.id DESC";
+        Object[] args = where.args();
+
+        jdbc.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, handler);
+    }
+
+    public boolean supportsCopy() {
+        return platform.isPostgres();
+    }
+
+    /**
+     * Eksport przez COPY (SELECT ...) TO STDOUT WITH CSV HEADER: CSV składa PostgreSQL, a sterownik
+     * przepisuje bajty wprost do strumienia, bez obiektów Javy na wiersz. COPY nie przyjmuje parametrów,
+     * więc wartości filtra są wpisane jako literały; ich escapowanie zakłada standard_conforming_strings = on,
+     * dlatego ustawienie jest wymuszane na czas transakcji, niezależnie od konfiguracji serwera.
+     * Wymaga transakcji (SET LOCAL). Tylko PostgreSQL (supportsCopy).
+     *
+     * @return liczba wyeksportowanych wierszy
+     */
+    public long copyCsv(TaskFilter filter, OutputStream out) {
+        String where = TaskSqlFilter.of(filter, true).inlinedWhere();
+        String sql = "COPY (SELECT t.id AS \"ID\", t.title AS \"Tytuł\", COALESCE(t.description, '') AS \"Opis\", " +
+                "COALESCE(t.status, '') AS \"Status\", t.due_date AS \"Termin\", COALESCE(c.name, 'Brak') AS \"Kategoria\", " +
+                "t.created_at AS \"Utworzono\", t.updated_at AS \"Zaktualizowano\" " +
+                "FROM tasks t LEFT JOIN categories c ON t.category_id = c.id" + where +
+                " ORDER BY t.created_at DESC, t.id DESC) TO STDOUT WITH (FORMAT csv, HEADER)";
+
+        Long rows = jdbc.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL standard_conforming_strings = on");
+            }
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                return copy.copyOut(sql, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows != null ? rows : 0L;
     }
 
     public TaskDto findById(Long id) {
         String sql = "SELECT t.id, t.title, t.description, t.status, t.due_date, t.category_id, " +
                 "c.name as category_name, t.created_at, t.updated_at " +
                 "FROM tasks t LEFT JOIN categories c ON t.category_id = c.id WHERE t.id = ?";
-        return jdbc.queryForObject(sql, rowMapper, id);
+        return jdbc.queryForObject(sql, ROW_MAPPER, id);
+    }
+
+    /**
+     * Wyszukiwanie pełnotekstowe (filtr q) razem z pozostałymi filtrami w jednym zapytaniu.
+     * Wyniki uporządkowane wg ts_rank, a przy remisie wg podanego sortowania.
+     * Na bazach innych niż PostgreSQL: LIKE po tytule i opisie, trafienia w tytule wyżej, bez podświetleń.
+     */
+    public List<TaskDto> searchFullText(TaskFilter filter, Sort.Order order, long offset, int limit) {
+        boolean postgres = platform.isPostgres();
+        TaskSqlFilter where = TaskSqlFilter.of(filter, postgres);
+        List<Object> args = new ArrayList<>();
+
+        String rank;
+        String highlight;
+        if (postgres) {
+            rank = "ts_rank(t.search_vector, " + TaskSqlFilter.TS_QUERY + ")";
+            // Znaczniki spoza HTML (chr(2)/chr(3), usunięte z treści); znaczniki <mark> dopiero po escapowaniu w Javie
+            highlight = "ts_headline('simple', translate(t.title || ' ' || coalesce(t.description, ''), chr(2) || chr(3), ''), "
+                    + TaskSqlFilter.TS_QUERY + ", 'StartSel=\"' || chr(2) || '\", StopSel=\"' || chr(3) || '\", MaxFragments=2')";
+            args.add(filter.getQ());
+            args.add(filter.getQ());
+        } else {
+            rank = "CASE WHEN LOWER(t.title) LIKE ? ESCAPE '\\' THEN 2 ELSE 1 END";
+            highlight = "CAST(NULL AS VARCHAR)";
+            args.add(TaskSpecifications.containsPattern(filter.getQ()));
+        }
+        args.addAll(List.of(where.args()));
+        args.add(limit);
+        args.add(offset);
+
+        String sql = "SELECT t.id, t.title, t.description, t.status, t.due_date, t.category_id, " +
+                "c.name as category_name, t.created_at, t.updated_at, " + rank + " AS search_rank, " + highlight + " AS highlight " +
+                "FROM tasks t LEFT JOIN categories c ON t.category_id = c.id" + where.where() +
+                " ORDER BY search_rank DESC" + tieBreaker(order) + " LIMIT ? OFFSET ?";
+
+        return jdbc.query(sql, (rs, rowNum) -> {
+            TaskDto dto = ROW_MAPPER.mapRow(rs, rowNum);
+            dto.setHighlight(highlightMarkup(rs.getString("highlight")));
+            return dto;
+        }, args.toArray());
+    }
+
+    /**
+     * Fragment z ts_headline jako HTML: treść zadania escapowana, trafienia w {@code <mark>}.
+     */
+    static String highlightMarkup(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder(headline.length() + 32);
+        for (int i = 0; i < headline.length(); i++) {
+            char c = headline.charAt(i);
+            switch (c) {
+                case HIGHLIGHT_START -> html.append("<mark>");
+                case HIGHLIGHT_STOP -> html.append("</mark>");
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+        return html.toString();
+    }
+
+    private static String tieBreaker(Sort.Order order) {
+        String column = switch (order.getProperty()) {
+            case "createdAt" -> "t.created_at";
+            case "updatedAt" -> "t.updated_at";
+            case "dueDate" -> "t.due_date";
+            case "title" -> "t.title";
+            case "status" -> "t.status";
+            default -> null;
+        };
+        String direction = order.isAscending() ? " ASC" : " DESC";
+        return (column != null ? ", " + column + direction : "") + ", t.id" + direction;
+    }
+
+    // --- COUNT ---
+    public long count(TaskFilter filter) {
+        TaskSqlFilter where = TaskSqlFilter.of(filter, platform.isPostgres());
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM tasks t" + where.where(), Long.class, where.args());
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Szacunkowa liczba wierszy według planera PostgreSQL (EXPLAIN bez wykonania zapytania).
+     * Na innych bazach wraca do dokładnego COUNT(*).
+     */
+    public long estimateCount(TaskFilter filter) {
+        if (!platform.isPostgres()) {
+            return count(filter);
+        }
+        TaskSqlFilter where = TaskSqlFilter.of(filter, platform.isPostgres());
+        String plan = jdbc.queryForObject("EXPLAIN (FORMAT JSON) SELECT 1 FROM tasks t" + where.where(),
+                String.class, where.args());
+        Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+        return matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : count(filter);
+    }
+
+    // --- STATISTICS ---
+
+    /**
+     * Liczby zadań z jednego zapytania GROUP BY status, kategoria. Wynik ma najwyżej
+     * (liczba statusów x liczba kategorii) wierszy niezależnie od liczby zadań; sumy po statusie,
+     * kategorii i łączna liczba wyliczane są z tych samych wierszy.
+     */
+    public StatisticsDto statistics(TaskFilter filter) {
+        TaskSqlFilter where = TaskSqlFilter.of(filter, platform.isPostgres());
+        String sql = "SELECT t.status, c.name AS category_name, COUNT(*) AS task_count " +
+                "FROM tasks t LEFT JOIN categories c ON t.category_id = c.id" + where.where() +
+                " GROUP BY t.status, c.name ORDER BY t.status, c.name";
+
+        StatisticsCollector collector = new StatisticsCollector();
+        jdbc.query(sql, collector, where.args());
+        return collector.toDto();
     }
 
     // --- CREATE ---
     public TaskDto insert(TaskDto dto) {
-        String sql = "INSERT INTO tasks (title, description, status, due_date, category_id, created_at, updated_at) " +
-                "VALUES (?, ?, ?, ?, ?, NOW(), NOW())";
-
         KeyHolder keyHolder = new GeneratedKeyHolder();
         jdbc.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
-            ps.setString(1, dto.getTitle());
-            ps.setString(2, dto.getDescription());
-            ps.setString(3, dto.getStatus() != null ? dto.getStatus().name() : null);
-            ps.setDate(4, dto.getDueDate() != null ? Date.valueOf(dto.getDueDate()) : null);
-            if (dto.getCategoryId() != null) {
-                ps.setLong(5, dto.getCategoryId());
-            } else {
-                ps.setNull(5, java.sql.Types.BIGINT);
-            }
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[]{"id"});
+            bindFields(ps, dto);
             return ps;
         }, keyHolder);
 
         dto.setId(keyHolder.getKey().longValue());
+        counters.increment(dto.getStatus(), dto.getCategoryId());
         return dto;
     }
 
+    /**
+     * Wstawia zadania paczkami JDBC po batchSize wierszy (bez odczytu wygenerowanych id) i dopisuje
+     * liczniki jednym zapisem na kubełek (status, kategoria). Wołane w transakcji zapisu.
+     */
+    public void insertAll(List<TaskDto> tasks, int batchSize) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT_SQL, tasks, batchSize, TaskJdbcDao::bindFields);
+        adjustCounters(tasks);
+    }
+
+    /**
+     * Wstawia zadania jedną paczką JDBC i wpisuje wygenerowane id do DTO w kolejności listy.
+     * Z reWriteBatchedInserts sterownik PostgreSQL składa paczkę w wielowierszowe INSERT ... RETURNING id.
+     * Liczniki jak w insertAll; wołane w transakcji zapisu.
+     */
+    public void insertBatch(List<TaskDto> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbc.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindFields(ps, tasks.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return tasks.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != tasks.size()) {
+            throw new IllegalStateException("Sterownik zwrócił " + keys.size() + " wygenerowanych id dla "
+                    + tasks.size() + " wstawionych zadań");
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+        adjustCounters(tasks);
+    }
+
+    private static void bindFields(PreparedStatement ps, TaskDto dto) throws SQLException {
+        ps.setString(1, dto.getTitle());
+        ps.setString(2, dto.getDescription());
+        ps.setString(3, dto.getStatus() != null ? dto.getStatus().name() : null);
+        ps.setDate(4, dto.getDueDate() != null ? Date.valueOf(dto.getDueDate()) : null);
+        if (dto.getCategoryId() != null) {
+            ps.setLong(5, dto.getCategoryId());
+        } else {
+            ps.setNull(5, Types.BIGINT);
+        }
+    }
+
+    private void adjustCounters(List<TaskDto> tasks) {
+        Map<CounterBucket, Long> deltas = new HashMap<>();
+        for (TaskDto dto : tasks) {
+            deltas.merge(new CounterBucket(dto.getStatus(), dto.getCategoryId()), 1L, Long::sum);
+        }
+        deltas.forEach((bucket, delta) -> counters.adjust(bucket.status(), bucket.categoryId(), delta));
+    }
+
     // --- UPDATE ---
     public int update(TaskDto dto) {
-        String sql = "UPDATE tasks SET title = ?, description = ?, status = ?, due_date = ?, category_id = ?, updated_at = NOW() " +
+        CounterBucket old = lockBucket(dto.getId());
+        if (old == null) {
+            return 0;
+        }
+        String sql = "UPDATE tasks SET title = ?, description = ?, status = ?, due_date = ?, category_id = ?, updated_at = NOW(), version = version + 1 " +
                 "WHERE id = ?";
-        return jdbc.update(sql,
+        int rows = jdbc.update(sql,
                 dto.getTitle(),
                 dto.getDescription(),
                 dto.getStatus() != null ? dto.getStatus().name() : null,
                 dto.getDueDate() != null ? Date.valueOf(dto.getDueDate()) : null,
                 dto.getCategoryId(),
                 dto.getId());
+        counters.move(old.status(), old.categoryId(), dto.getStatus(), dto.getCategoryId());
+        return rows;
     }
 
     // --- DELETE ---
     public int delete(Long id) {
+        CounterBucket old = lockBucket(id);
+        if (old == null) {
+            return 0;
+        }
         String sql = "DELETE FROM tasks WHERE id = ?";
-        return jdbc.update(sql, id);
+        int rows = jdbc.update(sql, id);
+        counters.decrement(old.status(), old.categoryId());
+        return rows;
+    }
+
+    // --- ZAPIS JEDNĄ INSTRUKCJĄ ---
+    // Jedna instrukcja na zmianę: nowy wiersz razem z nazwą kategorii i wersją (i stary kubełek przy zmianie
+    // i usuwaniu) wraca z INSERT/UPDATE/DELETE ... RETURNING, a na H2 z tabeli FINAL TABLE / OLD TABLE.
+    // Liczniki zmienia wołający. Nieistniejąca kategoria kończy się naruszeniem klucza obcego.
+
+    private static final String RETURNED_COLUMNS =
+            "id, title, description, status, due_date, category_id, created_at, updated_at, version";
+
+    private static final RowMapper<TaskDto> VERSIONED_ROW_MAPPER = (rs, rowNum) -> {
+        TaskDto dto = ROW_MAPPER.mapRow(rs, rowNum);
+        dto.setVersion(rs.getLong("version"));
+        return dto;
+    };
+
+    /**
+     * Wstawia zadanie i zwraca zapisany wiersz (id, daty, wersja, nazwa kategorii).
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException gdy kategoria nie istnieje
+     */
+    public TaskDto insertReturning(TaskDto dto) {
+        String categoryName = "(SELECT c.name FROM categories c WHERE c.id = %s.category_id) AS category_name";
+        String sql = platform.isPostgres()
+                ? INSERT_SQL + " RETURNING " + RETURNED_COLUMNS + ", " + categoryName.formatted("tasks")
+                : "SELECT " + RETURNED_COLUMNS + ", " + categoryName.formatted("f") + " FROM FINAL TABLE (" + INSERT_SQL + ") f";
+        return jdbc.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            bindFields(ps, dto);
+            return ps;
+        }, VERSIONED_ROW_MAPPER).get(0);
+    }
+
+    /**
+     * Nadpisuje wszystkie pola zadania o id z DTO; wynik jak w patchReturning bez warunku wersji.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException gdy kategoria nie istnieje
+     */
+    public Optional<UpdatedTask> updateReturning(TaskDto dto) {
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setTitle(dto.getTitle());
+        patch.setDescription(dto.getDescription());
+        patch.setStatus(dto.getStatus());
+        patch.setDueDate(dto.getDueDate());
+        patch.setCategoryId(dto.getCategoryId());
+        patch.getPresent().addAll(List.of(TaskPatchDto.TITLE, TaskPatchDto.DESCRIPTION, TaskPatchDto.STATUS,
+                TaskPatchDto.DUE_DATE, TaskPatchDto.CATEGORY_ID));
+        return patchReturning(dto.getId(), patch, null);
+    }
+
+    /**
+     * Zmienia tylko kolumny pól obecnych w patch (plus updated_at i wersję), jednym UPDATE. Z expectedVersions
+     * (niepusty zbiór) zmiana zachodzi tylko przy jednej z tych wersji zadania. Zwraca nowy wiersz ze statusem i kategorią sprzed zmiany;
+     * pusty wynik, gdy zadania nie ma albo ma inną wersję (rozróżnia findVersion).
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException gdy kategoria nie istnieje
+     */
+    public Optional<UpdatedTask> patchReturning(Long id, TaskPatchDto patch, Collection<Long> expectedVersions) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (patch.has(TaskPatchDto.TITLE)) {
+            assignments.add("title = ?");
+            args.add(new SqlParameterValue(Types.VARCHAR, patch.getTitle()));
+        }
+        if (patch.has(TaskPatchDto.DESCRIPTION)) {
+            assignments.add("description = ?");
+            args.add(new SqlParameterValue(Types.VARCHAR, patch.getDescription()));
+        }
+        if (patch.has(TaskPatchDto.STATUS)) {
+            assignments.add("status = ?");
+            args.add(new SqlParameterValue(Types.VARCHAR, patch.getStatus() != null ? patch.getStatus().name() : null));
+        }
+        if (patch.has(TaskPatchDto.DUE_DATE)) {
+            assignments.add("due_date = ?");
+            args.add(new SqlParameterValue(Types.DATE, patch.getDueDate() != null ? Date.valueOf(patch.getDueDate()) : null));
+        }
+        if (patch.has(TaskPatchDto.CATEGORY_ID)) {
+            assignments.add("category_id = ?");
+            args.add(new SqlParameterValue(Types.BIGINT, patch.getCategoryId()));
+        }
+
+        if (platform.isPostgres()) {
+            // FOR UPDATE w podzapytaniu: stary kubełek czytany z zablokowanej, najnowszej wersji wiersza
+            assignments.add("updated_at = CURRENT_TIMESTAMP");
+            assignments.add("version = t.version + 1");
+            String sql = "UPDATE tasks t SET " + String.join(", ", assignments) +
+                    " FROM (SELECT id, status, category_id FROM tasks WHERE id = ? FOR UPDATE) old WHERE t.id = old.id" +
+                    (expectedVersions != null ? " AND " + TaskSqlFilter.equalOrIn("t.version", expectedVersions.size()) : "") +
+                    " RETURNING t.id, t.title, t.description, t.status, t.due_date, t.category_id, " +
+                    "(SELECT c.name FROM categories c WHERE c.id = t.category_id) AS category_name, " +
+                    "t.created_at, t.updated_at, t.version, old.status AS old_status, old.category_id AS old_category_id";
+            args.add(id);
+            if (expectedVersions != null) {
+                args.addAll(expectedVersions);
+            }
+            return jdbc.query(sql, (rs, rowNum) -> new UpdatedTask(VERSIONED_ROW_MAPPER.mapRow(rs, rowNum),
+                    status(rs, "old_status"), categoryId(rs, "old_category_id")), args.toArray()).stream().findFirst();
+        }
+
+        // OLD TABLE zwraca wiersz sprzed zmiany; nowe wartości to ten wiersz z polami z patch.
+        // CURRENT_TIMESTAMP ma jedną wartość w obrębie polecenia, więc SELECT widzi czas zapisany przez UPDATE
+        assignments.add("updated_at = CURRENT_TIMESTAMP");
+        assignments.add("version = version + 1");
+        args.add(id);
+        if (expectedVersions != null) {
+            args.addAll(expectedVersions);
+        }
+        String categoryName;
+        if (patch.has(TaskPatchDto.CATEGORY_ID)) {
+            categoryName = "(SELECT c.name FROM categories c WHERE c.id = ?)";
+            args.add(0, new SqlParameterValue(Types.BIGINT, patch.getCategoryId()));
+        } else {
+            categoryName = "(SELECT c.name FROM categories c WHERE c.id = o.category_id)";
+        }
+        String sql = "SELECT " + categoryName + " AS category_name, CAST(CURRENT_TIMESTAMP AS TIMESTAMP) AS new_updated_at, " +
+                "o.* FROM OLD TABLE (UPDATE tasks SET " +
+                String.join(", ", assignments) + " WHERE id = ?" +
+                (expectedVersions != null ? " AND " + TaskSqlFilter.equalOrIn("version", expectedVersions.size()) : "") + ") o";
+        return jdbc.query(sql, (rs, rowNum) -> {
+            TaskDto task = ROW_MAPPER.mapRow(rs, rowNum);
+            TaskStatus oldStatus = task.getStatus();
+            Long oldCategoryId = task.getCategoryId();
+            if (patch.has(TaskPatchDto.TITLE)) task.setTitle(patch.getTitle());
+            if (patch.has(TaskPatchDto.DESCRIPTION)) task.setDescription(patch.getDescription());
+            if (patch.has(TaskPatchDto.STATUS)) task.setStatus(patch.getStatus());
+            if (patch.has(TaskPatchDto.DUE_DATE)) task.setDueDate(patch.getDueDate());
+            if (patch.has(TaskPatchDto.CATEGORY_ID)) task.setCategoryId(patch.getCategoryId());
+            task.setUpdatedAt(rs.getTimestamp("new_updated_at").toLocalDateTime());
+            task.setVersion(rs.getLong("version") + 1);
+            return new UpdatedTask(task, oldStatus, oldCategoryId);
+        }, args.toArray()).stream().findFirst();
+    }
+
+    // Bieżąca wersja zadania, gdy warunkowa zmiana nic nie zmieniła: brak zadania albo inna wersja
+    public Optional<Long> findVersion(Long id) {
+        return jdbc.queryForList("SELECT version FROM tasks WHERE id = ?", Long.class, id).stream().findFirst();
+    }
+
+    /**
+     * Usuwa zadanie i zwraca usunięty wiersz (bez nazwy kategorii), albo pusty wynik, gdy zadania nie ma.
+     */
+    public Optional<TaskDto> deleteReturning(Long id) {
+        String sql = platform.isPostgres()
+                ? "DELETE FROM tasks WHERE id = ? RETURNING " + RETURNED_COLUMNS + ", CAST(NULL AS VARCHAR) AS category_name"
+                : "SELECT " + RETURNED_COLUMNS + ", CAST(NULL AS VARCHAR) AS category_name FROM OLD TABLE (DELETE FROM tasks WHERE id = ?)";
+        return jdbc.query(sql, ROW_MAPPER, id).stream().findFirst();
+    }
+
+    private static TaskStatus status(ResultSet rs, String column) throws SQLException {
+        String status = rs.getString(column);
+        return status != null ? TaskStatus.valueOf(status) : null;
+    }
+
+    private static Long categoryId(ResultSet rs, String column) throws SQLException {
+        long categoryId = rs.getLong(column);
+        return rs.wasNull() ? null : categoryId;
+    }
+
+    /**
+     * Zadanie po zmianie razem ze statusem i kategorią sprzed zmiany (dla liczników i zdarzeń).
+     */
+    public record UpdatedTask(TaskDto task, TaskStatus oldStatus, Long oldCategoryId) {
+    }
+
+    // --- OPERACJE MASOWE ---
+
+    /**
+     * Zmienia jeden fragment zadań pasujących do filtra: najwyżej limit wierszy o id > afterId, rosnąco po id.
+     * Wiersze są blokowane odczytem, a potem zmieniane jednym UPDATE po id, razem z licznikami.
+     * Kolejny fragment zaczyna się od lastId wyniku, więc zmienione wiersze nie wracają, nawet gdy
+     * zmiana wyprowadza je z filtra. Wołane w transakcji zapisu fragmentu.
+     */
+    public ChunkResult updateChunk(TaskFilter filter, TaskBulkUpdateDto update, long afterId, int limit) {
+        List<LockedRow> rows = lockChunk(filter, afterId, limit);
+        if (rows.isEmpty()) {
+            return new ChunkResult(0, afterId, List.of());
+        }
+        List<String> assignments = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (update.getStatus() != null) {
+            assignments.add("status = ?");
+            args.add(update.getStatus().name());
+        }
+        if (update.isClearCategory() || update.getCategoryId() != null) {
+            assignments.add("category_id = ?");
+            args.add(update.isClearCategory() ? null : update.getCategoryId());
+        }
+        if (update.isClearDueDate() || update.getDueDate() != null) {
+            assignments.add("due_date = ?");
+            args.add(update.isClearDueDate() ? null : Date.valueOf(update.getDueDate()));
+        }
+        assignments.add("updated_at = NOW()");
+        assignments.add("version = version + 1");
+        rows.forEach(row -> args.add(row.id()));
+        jdbc.update("UPDATE tasks SET " + String.join(", ", assignments) +
+                " WHERE " + TaskSqlFilter.equalOrIn("id", rows.size()), args.toArray());
+
+        Map<CounterBucket, Long> deltas = new HashMap<>();
+        for (LockedRow row : rows) {
+            TaskStatus status = update.getStatus() != null ? update.getStatus() : row.bucket().status();
+            Long categoryId = update.isClearCategory() ? null
+                    : update.getCategoryId() != null ? update.getCategoryId() : row.bucket().categoryId();
+            deltas.merge(row.bucket(), -1L, Long::sum);
+            deltas.merge(new CounterBucket(status, categoryId), 1L, Long::sum);
+        }
+        return new ChunkResult(rows.size(), rows.get(rows.size() - 1).id(), applyDeltas(deltas));
+    }
+
+    /**
+     * Usuwa jeden fragment zadań pasujących do filtra (jak updateChunk) jednym DELETE po id.
+     */
+    public ChunkResult deleteChunk(TaskFilter filter, long afterId, int limit) {
+        List<LockedRow> rows = lockChunk(filter, afterId, limit);
+        if (rows.isEmpty()) {
+            return new ChunkResult(0, afterId, List.of());
+        }
+        jdbc.update("DELETE FROM tasks WHERE " + TaskSqlFilter.equalOrIn("id", rows.size()),
+                rows.stream().map(LockedRow::id).toArray());
+
+        Map<CounterBucket, Long> deltas = new HashMap<>();
+        for (LockedRow row : rows) {
+            deltas.merge(row.bucket(), -1L, Long::sum);
+        }
+        return new ChunkResult(rows.size(), rows.get(rows.size() - 1).id(), applyDeltas(deltas));
+    }
+
+    private List<LockedRow> lockChunk(TaskFilter filter, long afterId, int limit) {
+        TaskSqlFilter where = TaskSqlFilter.of(filter, platform.isPostgres());
+        List<Object> args = new ArrayList<>(List.of(where.args()));
+        args.add(afterId);
+        args.add(limit);
+        String sql = "SELECT t.id, t.status, t.category_id FROM tasks t" +
+                (where.where().isEmpty() ? " WHERE " : where.where() + " AND ") + "t.id > ? " +
+                "ORDER BY t.id LIMIT ? FOR UPDATE";
+        return jdbc.query(sql, (rs, rowNum) -> {
+            String status = rs.getString("status");
+            long categoryId = rs.getLong("category_id");
+            return new LockedRow(rs.getLong("id"), new CounterBucket(status != null ? TaskStatus.valueOf(status) : null,
+                    rs.wasNull() ? null : categoryId));
+        }, args.toArray());
+    }
+
+    /**
+     * Zmienia zadania jedną paczką JDBC (wszystkie pola jak w update). Wiersze są najpierw blokowane
+     * jednym zapytaniem po id; zadań, których nie ma, paczka nie obejmuje (applied[i] = false).
+     * Powtórzone id są zmieniane po kolei. Wołane w transakcji zapisu.
+     */
+    public BatchResult updateBatch(List<TaskDto> tasks) {
+        Map<Long, CounterBucket> current = lockBuckets(tasks.stream().map(TaskDto::getId).toList());
+        boolean[] applied = new boolean[tasks.size()];
+        List<TaskDto> found = new ArrayList<>(tasks.size());
+        Map<CounterBucket, Long> deltas = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskDto dto = tasks.get(i);
+            CounterBucket old = current.get(dto.getId());
+            if (old == null) {
+                continue;
+            }
+            CounterBucket bucket = new CounterBucket(dto.getStatus(), dto.getCategoryId());
+            deltas.merge(old, -1L, Long::sum);
+            deltas.merge(bucket, 1L, Long::sum);
+            current.put(dto.getId(), bucket);
+            applied[i] = true;
+            found.add(dto);
+        }
+        if (!found.isEmpty()) {
+            String sql = "UPDATE tasks SET title = ?, description = ?, status = ?, due_date = ?, category_id = ?, updated_at = NOW(), version = version + 1 " +
+                    "WHERE id = ?";
+            jdbc.batchUpdate(sql, found, found.size(), (ps, dto) -> {
+                bindFields(ps, dto);
+                ps.setLong(6, dto.getId());
+            });
+        }
+        return new BatchResult(applied, applyDeltas(deltas));
+    }
+
+    /**
+     * Usuwa zadania jedną paczką JDBC; blokowanie i applied jak w updateBatch.
+     */
+    public BatchResult deleteBatch(List<Long> ids) {
+        Map<Long, CounterBucket> current = lockBuckets(ids);
+        boolean[] applied = new boolean[ids.size()];
+        List<Long> found = new ArrayList<>(ids.size());
+        Map<CounterBucket, Long> deltas = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            CounterBucket old = current.remove(ids.get(i));
+            if (old == null) {
+                continue;
+            }
+            deltas.merge(old, -1L, Long::sum);
+            applied[i] = true;
+            found.add(ids.get(i));
+        }
+        if (!found.isEmpty()) {
+            jdbc.batchUpdate("DELETE FROM tasks WHERE id = ?", found, found.size(), (ps, id) -> ps.setLong(1, id));
+        }
+        return new BatchResult(applied, applyDeltas(deltas));
+    }
+
+    // Blokady w kolejności id, jak przy fragmentach, żeby równoległe paczki nie zakleszczały się nawzajem
+    private Map<Long, CounterBucket> lockBuckets(List<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        Map<Long, CounterBucket> buckets = new HashMap<>();
+        if (distinct.isEmpty()) {
+            return buckets;
+        }
+        jdbc.query("SELECT id, status, category_id FROM tasks WHERE " + TaskSqlFilter.equalOrIn("id", distinct.size()) +
+                " ORDER BY id FOR UPDATE", rs -> {
+            String status = rs.getString("status");
+            long categoryId = rs.getLong("category_id");
+            buckets.put(rs.getLong("id"), new CounterBucket(status != null ? TaskStatus.valueOf(status) : null,
+                    rs.wasNull() ? null : categoryId));
+        }, distinct.toArray());
+        return buckets;
+    }
+
+    private List<CountDelta> applyDeltas(Map<CounterBucket, Long> deltas) {
+        List<CountDelta> changes = new ArrayList<>();
+        deltas.forEach((bucket, delta) -> {
+            if (delta != 0 && bucket.status() != null) {
+                counters.adjust(bucket.status(), bucket.categoryId(), delta);
+                changes.add(new CountDelta(bucket.status(), bucket.categoryId(), delta));
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Wynik fragmentu operacji masowej: liczba zmienionych wierszy, największe id we fragmencie
+     * i zmiany liczników (status, kategoria) już zapisane w task_counters.
+     */
+    public record ChunkResult(int rows, long lastId, List<CountDelta> deltas) {
+    }
+
+    public record CountDelta(TaskStatus status, Long categoryId, long delta) {
+    }
+
+    public record SyncResult(int inserted, int updated, int unchanged, List<CountDelta> deltas) {
+    }
+
+    /**
+     * Wynik paczki zmian po id: applied[i] mówi, czy i-te zadanie istniało i zostało zmienione.
+     */
+    public record BatchResult(boolean[] applied, List<CountDelta> deltas) {
+    }
+
+    private record LockedRow(long id, CounterBucket bucket) {
+    }
+
+    private record SyncedRow(String title, String description, TaskStatus status, LocalDate dueDate, Long categoryId) {
+
+        CounterBucket bucket() {
+            return new CounterBucket(status, categoryId);
+        }
+
+        boolean sameContent(TaskSyncDto task) {
+            return Objects.equals(title, task.getTitle())
+                    && Objects.equals(description, task.getDescription())
+                    && status == task.getStatus()
+                    && Objects.equals(dueDate, task.getDueDate())
+                    && Objects.equals(categoryId, task.getCategoryId());
+        }
+    }
+
+    // --- SYNCHRONIZACJA PO external_id ---
+
+    /**
+     * Wstawia nowe i zmienia istniejące zadania po external_id (paczka bez powtórzonych external_id).
+     * Zadania o niezmienionej treści nie są zapisywane, więc ich updated_at zostaje bez zmian.
+     * Na PostgreSQL jedno INSERT ... ON CONFLICT (external_id) DO UPDATE ... WHERE ... IS DISTINCT FROM,
+     * na innych bazach porównanie w aplikacji i osobne paczki INSERT i UPDATE.
+     * Stare wartości (dla liczników) są czytane z blokadą wierszy, a blokada doradcza szereguje
+     * synchronizacje, żeby inna nie wstawiła tego samego external_id między odczytem a zapisem.
+     * Wołane w transakcji zapisu.
+     */
+    public SyncResult syncChunk(List<TaskSyncDto> tasks) {
+        if (platform.isPostgres()) {
+            jdbc.query("SELECT pg_advisory_xact_lock(?)", rs -> {
+            }, SYNC_LOCK_KEY);
+        }
+        Map<String, SyncedRow> existing = lockByExternalId(tasks);
+        // external_id zapisanych zadań -> czy wstawione (false: zmienione)
+        Map<String, Boolean> written = platform.isPostgres() ? upsert(tasks) : insertOrUpdate(tasks, existing);
+
+        Map<CounterBucket, Long> deltas = new HashMap<>();
+        int inserted = 0;
+        for (TaskSyncDto task : tasks) {
+            Boolean insert = written.get(task.getExternalId());
+            if (insert == null) {
+                continue;
+            }
+            if (insert) {
+                inserted++;
+            } else {
+                deltas.merge(existing.get(task.getExternalId()).bucket(), -1L, Long::sum);
+            }
+            deltas.merge(new CounterBucket(task.getStatus(), task.getCategoryId()), 1L, Long::sum);
+        }
+        return new SyncResult(inserted, written.size() - inserted, tasks.size() - written.size(), applyDeltas(deltas));
+    }
+
+    private Map<String, SyncedRow> lockByExternalId(List<TaskSyncDto> tasks) {
+        Map<String, SyncedRow> rows = new HashMap<>();
+        jdbc.query("SELECT external_id, title, description, status, due_date, category_id FROM tasks WHERE " +
+                TaskSqlFilter.equalOrIn("external_id", tasks.size()) + " ORDER BY id FOR UPDATE", rs -> {
+            String status = rs.getString("status");
+            Date due = rs.getDate("due_date");
+            long categoryId = rs.getLong("category_id");
+            Long category = rs.wasNull() ? null : categoryId;
+            SyncedRow row = new SyncedRow(rs.getString("title"), rs.getString("description"),
+                    status != null ? TaskStatus.valueOf(status) : null,
+                    due != null ? due.toLocalDate() : null,
+                    category);
+            rows.put(rs.getString("external_id"), row);
+        }, tasks.stream().map(TaskSyncDto::getExternalId).toArray());
+        return rows;
+    }
+
+    // xmax = 0 tylko dla wiersza wstawionego w tej instrukcji; wiersze bez zmian nie wracają w RETURNING
+    private Map<String, Boolean> upsert(List<TaskSyncDto> tasks) {
+        String sql = "INSERT INTO tasks (title, description, status, due_date, category_id, external_id, created_at, updated_at) VALUES " +
+                String.join(", ", Collections.nCopies(tasks.size(), "(?, ?, ?, ?, ?, ?, NOW(), NOW())")) +
+                " ON CONFLICT (external_id) DO UPDATE SET title = EXCLUDED.title, description = EXCLUDED.description, " +
+                "status = EXCLUDED.status, due_date = EXCLUDED.due_date, category_id = EXCLUDED.category_id, " +
+                "updated_at = NOW(), version = tasks.version + 1 " +
+                "WHERE (tasks.title, tasks.description, tasks.status, tasks.due_date, tasks.category_id) IS DISTINCT FROM " +
+                "(EXCLUDED.title, EXCLUDED.description, EXCLUDED.status, EXCLUDED.due_date, EXCLUDED.category_id) " +
+                "RETURNING external_id, (xmax = 0) AS inserted";
+        Map<String, Boolean> written = new HashMap<>();
+        jdbc.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int offset = 0;
+            for (TaskSyncDto task : tasks) {
+                bindSyncFields(ps, offset, task);
+                offset += 6;
+            }
+            return ps;
+        }, rs -> {
+            written.put(rs.getString("external_id"), rs.getBoolean("inserted"));
+        });
+        return written;
+    }
+
+    private Map<String, Boolean> insertOrUpdate(List<TaskSyncDto> tasks, Map<String, SyncedRow> existing) {
+        List<TaskSyncDto> inserts = new ArrayList<>();
+        List<TaskSyncDto> updates = new ArrayList<>();
+        Map<String, Boolean> written = new HashMap<>();
+        for (TaskSyncDto task : tasks) {
+            SyncedRow old = existing.get(task.getExternalId());
+            if (old == null) {
+                inserts.add(task);
+                written.put(task.getExternalId(), true);
+            } else if (!old.sameContent(task)) {
+                updates.add(task);
+                written.put(task.getExternalId(), false);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO tasks (title, description, status, due_date, category_id, external_id, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, NOW(), NOW())", inserts, inserts.size(), (ps, task) -> bindSyncFields(ps, 0, task));
+        }
+        if (!updates.isEmpty()) {
+            jdbc.batchUpdate("UPDATE tasks SET title = ?, description = ?, status = ?, due_date = ?, category_id = ?, updated_at = NOW(), version = version + 1 " +
+                    "WHERE external_id = ?", updates, updates.size(), (ps, task) -> bindSyncFields(ps, 0, task));
+        }
+        return written;
+    }
+
+    private static void bindSyncFields(PreparedStatement ps, int offset, TaskSyncDto task) throws SQLException {
+        ps.setString(offset + 1, task.getTitle());
+        ps.setString(offset + 2, task.getDescription());
+        ps.setString(offset + 3, task.getStatus() != null ? task.getStatus().name() : null);
+        ps.setDate(offset + 4, task.getDueDate() != null ? Date.valueOf(task.getDueDate()) : null);
+        if (task.getCategoryId() != null) {
+            ps.setLong(offset + 5, task.getCategoryId());
+        } else {
+            ps.setNull(offset + 5, Types.BIGINT);
+        }
+        ps.setString(offset + 6, task.getExternalId());
+    }
+
+    // Status i kategoria przed zmianą, z blokadą wiersza do końca transakcji (dla task_counters)
+    private CounterBucket lockBucket(Long id) {
+        List<CounterBucket> rows = jdbc.query("SELECT status, category_id FROM tasks WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> {
+                    String status = rs.getString("status");
+                    long categoryId = rs.getLong("category_id");
+                    return new CounterBucket(status != null ? TaskStatus.valueOf(status) : null,
+                            rs.wasNull() ? null : categoryId);
+                }, id);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private record CounterBucket(TaskStatus status, Long categoryId) {
     }
 }
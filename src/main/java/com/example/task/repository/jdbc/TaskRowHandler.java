@@ -0,0 +1,15 @@
+package com.example.task.repository.jdbc;
+
+import com.example.task.model.dto.TaskDto;
+
+import java.io.IOException;
+
+/**
+ * Odbiorca kolejnych wierszy eksportu; wyjątek przerywa odczyt kursora
+ * (IOException wraca do wywołującego jako UncheckedIOException).
+ */
+@FunctionalInterface
+public interface TaskRowHandler {
+
+    void handle(TaskDto task) throws IOException;
+}
@@ -0,0 +1,185 @@
+package com.example.task.repository.jdbc;
+
+import com.example.task.model.TaskFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Odczyt zadań zakresami id na osobnych połączeniach, wszystkie w jednej migawce danych.
+ * Połączenia pobierane są wprost z puli (poza transakcją Springa bieżącego wątku) i zwalniane po każdym zakresie.
+ */
+@Repository
+public class TaskSnapshotReader {
+
+    private final DataSource dataSource;
+    private final DatabasePlatform platform;
+    private final int fetchSize;
+
+    public TaskSnapshotReader(DataSource dataSource, DatabasePlatform platform,
+                              @Value("${tasks.export.fetch-size:1000}") int fetchSize) {
+        this.dataSource = dataSource;
+        this.platform = platform;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Otwiera transakcję REPEATABLE READ, na PostgreSQL eksportuje jej migawkę (pg_export_snapshot)
+     * i wyznacza zakres id pasujących zadań. Migawka jest ważna do zamknięcia zwróconego obiektu.
+     * Na innych bazach zakresy czytane są bez wspólnej migawki.
+     */
+    public Snapshot open(TaskFilter filter) {
+        TaskSqlFilter where = TaskSqlFilter.of(filter, platform.isPostgres());
+        Connection connection = null;
+        try {
+            connection = begin();
+            String snapshotId = null;
+            if (platform.isPostgres()) {
+                try (Statement st = connection.createStatement();
+                     ResultSet rs = st.executeQuery("SELECT pg_export_snapshot()")) {
+                    rs.next();
+                    snapshotId = rs.getString(1);
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement("SELECT MIN(t.id), MAX(t.id) FROM tasks t" + where.where())) {
+                bind(ps, where.args(), 0);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    long min = rs.getLong(1);
+                    boolean empty = rs.wasNull();
+                    return new Snapshot(connection, snapshotId, min, rs.getLong(2), empty);
+                }
+            }
+        } catch (SQLException e) {
+            release(connection);
+            throw new DataAccessResourceFailureException("Nie udało się otworzyć migawki eksportu", e);
+        } catch (RuntimeException e) {
+            release(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Czyta zadania z zakresu id [fromId, toId) pasujące do filtra, rosnąco po id.
+     */
+    public long readRange(Snapshot snapshot, TaskFilter filter, long fromId, long toId, TaskRowHandler handler) {
+        TaskSqlFilter where = TaskSqlFilter.of(filter, platform.isPostgres());
+        String sql = "SELECT t.id, t.title, t.description, t.status, t.due_date, t.category_id, " +
+                "c.name as category_name, t.created_at, t.updated_at " +
+                "FROM tasks t LEFT JOIN categories c ON t.category_id = c.id" +
+                (where.where().isEmpty() ? " WHERE " : where.where() + " AND ") +
+                "t.id >= ? AND t.id < ? ORDER BY t.id";
+
+        Connection connection = null;
+        try {
+            connection = begin();
+            if (snapshot.snapshotId() != null) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("SET TRANSACTION SNAPSHOT '" + snapshot.snapshotId() + "'");
+                }
+            }
+            long rows = 0;
+            try (PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(fetchSize);
+                int index = bind(ps, where.args(), 0);
+                ps.setLong(index + 1, fromId);
+                ps.setLong(index + 2, toId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(TaskJdbcDao.ROW_MAPPER.mapRow(rs, 0));
+                        rows++;
+                    }
+                }
+            }
+            connection.commit();
+            return rows;
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Błąd odczytu zadań o id " + fromId + "-" + (toId - 1), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(connection);
+        }
+    }
+
+    private static int bind(PreparedStatement ps, Object[] args, int offset) throws SQLException {
+        for (int i = 0; i < args.length; i++) {
+            ps.setObject(offset + i + 1, args[i]);
+        }
+        return offset + args.length;
+    }
+
+    private Connection begin() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    // Pula przywraca autocommit i poziom izolacji połączenia przy zwrocie
+    private static void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try (connection) {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // transakcja tylko do odczytu, nie ma czego wycofywać
+        }
+    }
+
+    /**
+     * Otwarta transakcja z migawką i zakresem id [minId, maxId]; zamknięcie kończy transakcję.
+     */
+    public final class Snapshot implements AutoCloseable {
+
+        private final Connection connection;
+        private final String snapshotId;
+        private final long minId;
+        private final long maxId;
+        private final boolean empty;
+
+        private Snapshot(Connection connection, String snapshotId, long minId, long maxId, boolean empty) {
+            this.connection = connection;
+            this.snapshotId = snapshotId;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.empty = empty;
+        }
+
+        public String snapshotId() {
+            return snapshotId;
+        }
+
+        public long minId() {
+            return minId;
+        }
+
+        public long maxId() {
+            return maxId;
+        }
+
+        public boolean isEmpty() {
+            return empty;
+        }
+
+        @Override
+        public void close() {
+            release(connection);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.task.repository.jdbc;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.model.TaskFilter;
+import com.example.task.repository.TaskSpecifications;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Klauzula WHERE dla zapytań SQL na tabeli tasks (alias t) zbudowana z TaskFilter.
+ * Zawiera tylko predykaty dla podanych filtrów.
+ */
+final class TaskSqlFilter {
+
+    private final String where;
+    private final List<Object> args;
+
+    private TaskSqlFilter(String where, List<Object> args) {
+        this.where = where;
+        this.args = args;
+    }
+
+    static final String TS_QUERY = "websearch_to_tsquery('simple', ?)";
+
+    /**
+     * @param postgres czy filtr q ma użyć indeksu pełnotekstowego (search_vector);
+     *                 na innych bazach q to zwykłe LIKE po tytule i opisie
+     */
+    static TaskSqlFilter of(TaskFilter filter, boolean postgres) {
+        List<String> predicates = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (!CollectionUtils.isEmpty(filter.getStatuses())) {
+            predicates.add(equalOrIn("t.status", filter.getStatuses().size()));
+            filter.getStatuses().forEach(status -> args.add(status.name()));
+        }
+        if (!CollectionUtils.isEmpty(filter.getCategoryIds())) {
+            predicates.add(equalOrIn("t.category_id", filter.getCategoryIds().size()));
+            args.addAll(filter.getCategoryIds());
+        }
+        if (filter.getDueDateBefore() != null) {
+            predicates.add("t.due_date < ?");
+            args.add(Date.valueOf(filter.getDueDateBefore()));
+        }
+        if (filter.getDueDateAfter() != null) {
+            predicates.add("t.due_date > ?");
+            args.add(Date.valueOf(filter.getDueDateAfter()));
+        }
+        if (StringUtils.hasText(filter.getTitle())) {
+            predicates.add("LOWER(t.title) LIKE ? ESCAPE '\\'");
+            args.add(TaskSpecifications.containsPattern(filter.getTitle()));
+        }
+        if (StringUtils.hasText(filter.getQ())) {
+            if (postgres) {
+                predicates.add("t.search_vector @@ " + TS_QUERY);
+                args.add(filter.getQ());
+            } else {
+                String pattern = TaskSpecifications.containsPattern(filter.getQ());
+                predicates.add("(LOWER(t.title) LIKE ? ESCAPE '\\' OR LOWER(t.description) LIKE ? ESCAPE '\\')");
+                args.add(pattern);
+                args.add(pattern);
+            }
+        }
+        String where = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        return new TaskSqlFilter(where, args);
+    }
+
+    static String equalOrIn(String column, int count) {
+        return count == 1 ? column + " = ?" : column + " IN (" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    String where() {
+        return where;
+    }
+
+    /**
+     * Klauzula WHERE z wartościami wpisanymi jako literały SQL, dla poleceń bez parametrów (COPY).
+     * Teksty w apostrofach z podwojonym apostrofem wewnątrz; odwrotny ukośnik zostaje zwykłym znakiem tylko
+     * przy standard_conforming_strings = on, więc wywołujący musi to ustawienie zapewnić (SET LOCAL).
+     */
+    String inlinedWhere() {
+        StringBuilder sql = new StringBuilder(where.length() + 16 * args.size());
+        int arg = 0;
+        for (int i = 0; i < where.length(); i++) {
+            char c = where.charAt(i);
+            if (c == '?') {
+                sql.append(literal(args.get(arg++)));
+            } else {
+                sql.append(c);
+            }
+        }
+        return sql.toString();
+    }
+
+    private static String literal(Object value) {
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        if (value instanceof Date date) {
+            return "DATE '" + date.toLocalDate() + "'";
+        }
+        String text = value.toString();
+        if (text.indexOf('\0') >= 0) {
+            throw new BadRequestException("Niedozwolony znak NUL w filtrze");
+        }
+        return "'" + text.replace("'", "''") + "'";
+    }
+
+    Object[] args() {
+        return args.toArray();
+    }
+}
@@ -5,8 +5,11 @@ import com.example.task.exception.ResourceNotFoundException;
 import com.example.task.mapper.TaskMapper;
 import com.example.task.model.dto.CategoryDto;
 import com.example.task.model.entity.Category;
+import com.example.task.model.event.CategoryChangedEvent;
 import com.example.task.repository.CategoryRepository;
+import com.example.task.repository.jdbc.TaskCounterDao;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +22,8 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final TaskCounterDao taskCounterDao;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<CategoryDto> getAllCategories() {
         return categoryRepository.findAll().stream()
@@ -48,6 +53,7 @@ public class CategoryService {
         category.setName(dto.getName());
         category.setColor(dto.getColor());
         category = categoryRepository.save(category);
+        eventPublisher.publishEvent(CategoryChangedEvent.renamed(category.getId(), category.getName()));
         return toDto(category);
     }
 
@@ -56,7 +62,10 @@ public class CategoryService {
         if (!categoryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Kategoria o id " + id + " nie istnieje");
         }
+        // Zadania kategorii trafiają do "bez kategorii" (ON DELETE SET NULL), liczniki razem z nimi
+        taskCounterDao.moveToUncategorized(id);
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(CategoryChangedEvent.deleted(id));
     }
 
     private CategoryDto toDto(Category category) {
@@ -0,0 +1,320 @@
+package com.example.task.service;
+
+import com.example.task.exception.ConflictException;
+import com.example.task.exception.ResourceNotFoundException;
+import com.example.task.exception.TooManyRequestsException;
+import com.example.task.model.ExportFile;
+import com.example.task.model.ExportFormat;
+import com.example.task.model.ExportJobStatus;
+import com.example.task.model.ExportMode;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.dto.ExportJobDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Eksporty zlecane w tle: plik zapisywany na dysk lokalny, stan zadania w pamięci węzła.
+ * Najwyżej max-concurrent eksportów naraz (tyle połączeń z bazą), kolejne czekają w ograniczonej
+ * kolejce, a przy pełnej kolejce zlecenie jest odrzucane. Tryb parallel wykonywany jest jako stream:
+ * zajmowałby parallelism + 1 połączeń i wspólną pulę eksportów równoległych, więc limit zadań
+ * nie ograniczałby obciążenia bazy. Zakończone zadania i ich pliki są usuwane po ttl.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TaskService taskService;
+    private final Path directory;
+    private final Duration ttl;
+    private final boolean precompress;
+    private final ExecutorService executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public ExportJobService(TaskService taskService,
+                            @Value("${tasks.export.jobs.directory:${java.io.tmpdir}/task-exports}") Path directory,
+                            @Value("${tasks.export.jobs.ttl:PT1H}") Duration ttl,
+                            @Value("${tasks.export.jobs.max-concurrent:2}") int maxConcurrent,
+                            @Value("${tasks.export.jobs.queue-capacity:8}") int queueCapacity,
+                            @Value("${tasks.export.jobs.precompress:true}") boolean precompress) {
+        this.taskService = taskService;
+        this.directory = directory;
+        this.ttl = ttl;
+        this.precompress = precompress;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "export-job-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Stan zadań nie przetrwa restartu, więc pliki z poprzedniego uruchomienia są osierocone
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(directory);
+        StringJoiner extensions = new StringJoiner(",", "*.{", "}");
+        for (ExportFormat format : ExportFormat.values()) {
+            extensions.add(format.extension());
+        }
+        extensions.add(GZIP_SUFFIX.substring(1)).add(PART_SUFFIX.substring(1));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, extensions.toString())) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    public ExportJobDto submit(String format, String mode, TaskFilter filter) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        ExportMode exportMode = ExportMode.from(mode);
+        if (exportMode == ExportMode.PARALLEL) {
+            // Jedno połączenie na zadanie; czas eksportu w tle nie jest tu istotny
+            exportMode = ExportMode.STREAM;
+        }
+        if (filter != null) {
+            filter.validate();
+        }
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), exportFormat, exportMode,
+                filter != null ? filter.copy() : new TaskFilter());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            throw new TooManyRequestsException("Zbyt wiele eksportów w toku, spróbuj ponownie później");
+        }
+        return toDto(job);
+    }
+
+    public ExportJobDto getJob(String id) {
+        return toDto(find(id));
+    }
+
+    public ExportFile getFile(String id) {
+        ExportJob job = find(id);
+        if (job.status != ExportJobStatus.COMPLETED) {
+            throw new ConflictException("Eksport " + id + " nie jest gotowy (status: " + job.status + ")");
+        }
+        return new ExportFile("zadania_" + id + "." + job.format.extension(), job.format.contentType(),
+                job.file, job.gzipFile);
+    }
+
+    @Scheduled(initialDelayString = "${tasks.export.jobs.cleanup-interval:PT5M}",
+            fixedDelayString = "${tasks.export.jobs.cleanup-interval:PT5M}")
+    public void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            LocalDateTime expiresAt = expiresAt(job);
+            if (expiresAt == null || expiresAt.isAfter(now)) {
+                return false;
+            }
+            if (job.file != null) {
+                deleteQuietly(job.file.path());
+            }
+            if (job.gzipFile != null) {
+                deleteQuietly(job.gzipFile.path());
+            }
+            return true;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ExportJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.status = ExportJobStatus.RUNNING;
+        Path file = directory.resolve(job.id + "." + job.format.extension());
+        Path part = partOf(file);
+        try {
+            long rows;
+            MessageDigest digest = sha256();
+            try (OutputStream out = new CountingOutputStream(new BufferedOutputStream(
+                    new DigestOutputStream(Files.newOutputStream(part), digest), BUFFER_SIZE), job.bytesWritten)) {
+                rows = switch (job.format) {
+                    case CSV -> taskService.exportTasksCsv(job.filter, job.mode, out);
+                    case NDJSON -> taskService.streamTasksNdjson(job.filter, out);
+                };
+            }
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            String hash = Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+            job.file = new ExportFile.Variant(file, Files.size(file), "\"" + hash + "\"");
+            if (precompress) {
+                job.gzipFile = compress(file, hash);
+            }
+            job.rowsWritten = rows;
+            job.finishedAt = LocalDateTime.now();
+            job.status = ExportJobStatus.COMPLETED;
+        } catch (Exception ex) {
+            log.warn("Eksport {} nie powiódł się", job.id, ex);
+            deleteQuietly(part);
+            deleteQuietly(file);
+            job.error = "Eksport nie powiódł się";
+            job.finishedAt = LocalDateTime.now();
+            job.status = ExportJobStatus.FAILED;
+        }
+    }
+
+    // Wariant gzip dla klientów z Accept-Encoding: gzip; pomijany, gdy nie jest mniejszy od oryginału
+    private ExportFile.Variant compress(Path file, String hash) {
+        Path gzip = file.resolveSibling(file.getFileName() + GZIP_SUFFIX);
+        Path part = partOf(gzip);
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(part), BUFFER_SIZE)) {
+                Files.copy(file, out);
+            }
+            long length = Files.size(part);
+            if (length >= Files.size(file)) {
+                deleteQuietly(part);
+                return null;
+            }
+            Files.move(part, gzip, StandardCopyOption.ATOMIC_MOVE);
+            return new ExportFile.Variant(gzip, length, "\"" + hash + "-gzip\"");
+        } catch (IOException ex) {
+            log.warn("Nie można skompresować pliku eksportu {}", file, ex);
+            deleteQuietly(part);
+            return null;
+        }
+    }
+
+    private static Path partOf(Path file) {
+        return file.resolveSibling(file.getFileName() + PART_SUFFIX);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private ExportJob find(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Eksport o ID " + id + " nie istnieje lub wygasł");
+        }
+        return job;
+    }
+
+    private LocalDateTime expiresAt(ExportJob job) {
+        LocalDateTime finishedAt = job.finishedAt;
+        return finishedAt != null ? finishedAt.plus(ttl) : null;
+    }
+
+    private ExportJobDto toDto(ExportJob job) {
+        ExportJobDto dto = new ExportJobDto();
+        dto.setId(job.id);
+        dto.setStatus(job.status);
+        dto.setFormat(job.format.name().toLowerCase(Locale.ROOT));
+        dto.setMode(job.mode.name().toLowerCase(Locale.ROOT));
+        dto.setRowsWritten(job.rowsWritten);
+        dto.setBytesWritten(job.bytesWritten.get());
+        dto.setCreatedAt(job.createdAt);
+        dto.setStartedAt(job.startedAt);
+        dto.setFinishedAt(job.finishedAt);
+        dto.setExpiresAt(expiresAt(job));
+        dto.setError(job.error);
+        if (job.status == ExportJobStatus.COMPLETED) {
+            dto.setFileUrl("/api/v1/exports/" + job.id + "/file");
+        }
+        return dto;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Nie można usunąć pliku eksportu {}", file, ex);
+        }
+    }
+
+    // Pola zapisuje wątek eksportu, czytają wątki żądań
+    private static final class ExportJob {
+
+        private final String id;
+        private final ExportFormat format;
+        private final ExportMode mode;
+        private final TaskFilter filter;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Long rowsWritten;
+        private volatile ExportFile.Variant file;
+        private volatile ExportFile.Variant gzipFile;
+        private volatile String error;
+
+        private ExportJob(String id, ExportFormat format, ExportMode mode, TaskFilter filter) {
+            this.id = id;
+            this.format = format;
+            this.mode = mode;
+            this.filter = filter;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final AtomicLong count;
+
+        private CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package com.example.task.service;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.exception.BatchValidationException;
+import com.example.task.exception.ResourceNotFoundException;
+import com.example.task.model.BatchMode;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.dto.TaskBatchResultDto;
+import com.example.task.model.dto.TaskBulkResultDto;
+import com.example.task.model.dto.TaskBulkUpdateDto;
+import com.example.task.model.dto.TaskCreateDto;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.model.dto.TaskOperationsResultDto;
+import com.example.task.model.dto.TaskSyncDto;
+import com.example.task.model.dto.TaskSyncResultDto;
+import com.example.task.model.entity.Category;
+import com.example.task.repository.CategoryRepository;
+import com.example.task.repository.jdbc.TaskJdbcDao;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Operacje masowe na zadaniach.
+ * Tworzenie: tablica JSON czytana strumieniowo element po elemencie (w pamięci jest najwyżej jedna
+ * paczka), wstawiana paczkami JDBC po batchSize z odczytem wygenerowanych id. Całe żądanie to jedna
+ * transakcja: w trybie atomic błędny element wycofuje wszystko, w best-effort jest pomijany.
+ * Uszkodzony JSON lub przekroczony limit max-items odrzuca żądanie w obu trybach.
+ * Zmiana i usuwanie po filtrze: fragmenty po chunkSize wierszy, każdy w osobnej transakcji, żeby
+ * blokady i porcje WAL były ograniczone; przerwana operacja zostawia zatwierdzone fragmenty.
+ * Operacje mieszane (create, update, delete): najwyżej max-operations w jednej transakcji, kolejne
+ * operacje tego samego rodzaju wysyłane wspólną paczką JDBC, z zachowaniem kolejności żądania.
+ * Synchronizacja po external_id: upsert paczkami po batchSize, niezmienione zadania nie są zapisywane.
+ */
+@Service
+public class TaskBatchService {
+
+    private final TaskJdbcDao taskJdbcDao;
+    private final CategoryRepository categoryRepository;
+    private final TaskFilterResolver filterResolver;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final int batchSize;
+    private final int maxItems;
+    private final int maxOperations;
+    private final int chunkSize;
+
+    public TaskBatchService(TaskJdbcDao taskJdbcDao,
+                            CategoryRepository categoryRepository,
+                            TaskFilterResolver filterResolver,
+                            Validator validator,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${tasks.batch.batch-size:500}") int batchSize,
+                            @Value("${tasks.batch.max-items:10000}") int maxItems,
+                            @Value("${tasks.batch.max-operations:1000}") int maxOperations,
+                            @Value("${tasks.batch.chunk-size:1000}") int chunkSize) {
+        this.taskJdbcDao = taskJdbcDao;
+        this.categoryRepository = categoryRepository;
+        this.filterResolver = filterResolver;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+        this.maxOperations = maxOperations;
+        this.chunkSize = chunkSize;
+    }
+
+    @Transactional
+    public TaskBatchResultDto createTasks(InputStream in, BatchMode mode) throws IOException {
+        Map<Long, String> categoryNames = categoryNames();
+        TaskCountDeltas deltas = new TaskCountDeltas();
+        TaskBatchResultDto result = new TaskBatchResultDto();
+        List<TaskDto> batch = new ArrayList<>(batchSize);
+        // Pozycje elementów paczki w żądaniu, pod które trafią wygenerowane id
+        List<Integer> positions = new ArrayList<>(batchSize);
+
+        readArray(in, maxItems, (node, index) -> {
+            result.setReceived(index + 1);
+            result.getIds().add(null);
+            TaskDto task;
+            try {
+                task = toTask(node, categoryNames);
+            } catch (InvalidItemException ex) {
+                reject(result, index, ex.getMessage());
+                return;
+            }
+            // W trybie atomic po pierwszym błędzie nic już nie jest wstawiane, tylko walidowane
+            if (mode == BatchMode.ATOMIC && !result.getErrors().isEmpty()) {
+                return;
+            }
+            batch.add(task);
+            positions.add(index);
+            deltas.add(task.getStatus(), task.getCategoryId(), 1);
+            if (batch.size() == batchSize) {
+                flush(batch, positions, result);
+            }
+        });
+
+        if (mode == BatchMode.ATOMIC && !result.getErrors().isEmpty()) {
+            throw new BatchValidationException("Odrzucono " + result.getRejected() + " z " + result.getReceived()
+                    + " zadań; żadne zadanie nie zostało utworzone", result.getErrors());
+        }
+        flush(batch, positions, result);
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(deltas.toEvent(categoryNames));
+        }
+        return result;
+    }
+
+    /**
+     * Wykonuje operacje po kolei w jednej transakcji. Błędne operacje (składnia, walidacja, brak zadania)
+     * w trybie atomic wycofują całość, w best-effort dostają w wyniku status 400 lub 404.
+     */
+    @Transactional
+    public TaskOperationsResultDto executeOperations(InputStream in, BatchMode mode) throws IOException {
+        Map<Long, String> categoryNames = categoryNames();
+        TaskOperationsResultDto result = new TaskOperationsResultDto();
+        List<Operation> operations = new ArrayList<>();
+        readArray(in, maxOperations, (node, index) -> {
+            result.setReceived(index + 1);
+            try {
+                operations.add(toOperation(node, index, categoryNames));
+                result.getResults().add(null);
+            } catch (InvalidItemException ex) {
+                JsonNode op = node.path("op");
+                result.getResults().add(new TaskOperationsResultDto.OperationResult(index,
+                        op.isTextual() ? op.asText() : null, 400, null, ex.getMessage()));
+            }
+        });
+        if (mode == BatchMode.ATOMIC && operations.size() < result.getReceived()) {
+            throw rejected(result, result.getReceived() - operations.size());
+        }
+
+        TaskCountDeltas deltas = new TaskCountDeltas();
+        int start = 0;
+        while (start < operations.size()) {
+            OperationType type = operations.get(start).type();
+            int end = start + 1;
+            while (end < operations.size() && end - start < batchSize && operations.get(end).type() == type) {
+                end++;
+            }
+            int failed = execute(type, operations.subList(start, end), result, deltas);
+            if (mode == BatchMode.ATOMIC && failed > 0) {
+                throw rejected(result, failed);
+            }
+            start = end;
+        }
+
+        for (TaskOperationsResultDto.OperationResult operation : result.getResults()) {
+            if (operation.getStatus() >= 400) {
+                result.setFailed(result.getFailed() + 1);
+            } else {
+                result.setSucceeded(result.getSucceeded() + 1);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(deltas.toEvent(categoryNames));
+        }
+        return result;
+    }
+
+    private Operation toOperation(JsonNode node, int index, Map<Long, String> categoryNames) {
+        if (!node.isObject()) {
+            throw new InvalidItemException("Element nie jest obiektem operacji");
+        }
+        OperationType type = OperationType.from(node.path("op"));
+        Long id = null;
+        if (type != OperationType.CREATE) {
+            JsonNode idNode = node.path("id");
+            if (!idNode.isIntegralNumber()) {
+                throw new InvalidItemException("Operacja " + type.label() + " wymaga liczbowego pola id");
+            }
+            id = idNode.asLong();
+        }
+        TaskDto task = null;
+        if (type != OperationType.DELETE) {
+            JsonNode taskNode = node.path("task");
+            if (taskNode.isMissingNode() || taskNode.isNull()) {
+                throw new InvalidItemException("Operacja " + type.label() + " wymaga pola task");
+            }
+            task = toTask(taskNode, categoryNames);
+            task.setId(id);
+        }
+        return new Operation(index, type, id, task);
+    }
+
+    // Jedna paczka JDBC dla ciągu operacji tego samego rodzaju; zwraca liczbę operacji, które się nie powiodły
+    private int execute(OperationType type, List<Operation> run, TaskOperationsResultDto result, TaskCountDeltas deltas) {
+        if (type == OperationType.CREATE) {
+            List<TaskDto> tasks = run.stream().map(Operation::task).toList();
+            taskJdbcDao.insertBatch(tasks);
+            for (Operation operation : run) {
+                deltas.add(operation.task().getStatus(), operation.task().getCategoryId(), 1);
+                result.getResults().set(operation.index(), new TaskOperationsResultDto.OperationResult(
+                        operation.index(), type.label(), 201, operation.task().getId(), null));
+            }
+            return 0;
+        }
+        TaskJdbcDao.BatchResult batch = type == OperationType.UPDATE
+                ? taskJdbcDao.updateBatch(run.stream().map(Operation::task).toList())
+                : taskJdbcDao.deleteBatch(run.stream().map(Operation::id).toList());
+        batch.deltas().forEach(d -> deltas.add(d.status(), d.categoryId(), d.delta()));
+        int failed = 0;
+        for (int i = 0; i < run.size(); i++) {
+            Operation operation = run.get(i);
+            boolean applied = batch.applied()[i];
+            if (!applied) {
+                failed++;
+            }
+            result.getResults().set(operation.index(), new TaskOperationsResultDto.OperationResult(
+                    operation.index(), type.label(),
+                    applied ? (type == OperationType.UPDATE ? 200 : 204) : 404,
+                    operation.id(),
+                    applied ? null : "Zadanie o id " + operation.id() + " nie istnieje"));
+        }
+        return failed;
+    }
+
+    private static BatchValidationException rejected(TaskOperationsResultDto result, int failed) {
+        List<TaskBatchResultDto.ItemError> errors = result.getResults().stream()
+                .filter(r -> r != null && r.getStatus() >= 400)
+                .map(r -> new TaskBatchResultDto.ItemError(r.getIndex(), r.getError()))
+                .toList();
+        return new BatchValidationException("Odrzucono " + failed + " z " + result.getReceived()
+                + " operacji; żadna zmiana nie została zapisana", errors);
+    }
+
+    /**
+     * Synchronizacja po external_id: nowe zadania są wstawiane, zmienione nadpisywane, a te o niezmienionej
+     * treści pomijane (bez zapisu i bez zmiany updated_at), więc ponowienie tego samego żądania nic nie zmienia.
+     * Całe żądanie jest jedną transakcją; błędny element odrzuca wszystko.
+     */
+    @Transactional
+    public TaskSyncResultDto syncTasks(List<TaskSyncDto> tasks) {
+        if (tasks.size() > maxItems) {
+            throw new BadRequestException("Za dużo elementów w jednym żądaniu (limit " + maxItems + ")");
+        }
+        Map<Long, String> categoryNames = categoryNames();
+        List<TaskBatchResultDto.ItemError> errors = new ArrayList<>();
+        Set<String> externalIds = new HashSet<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskSyncDto task = tasks.get(i);
+            if (task == null) {
+                errors.add(new TaskBatchResultDto.ItemError(i, "Element nie jest obiektem zadania"));
+                continue;
+            }
+            List<String> messages = validator.validate(task).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (task.getCategoryId() != null && !categoryNames.containsKey(task.getCategoryId())) {
+                messages.add("Kategoria o ID " + task.getCategoryId() + " nie istnieje");
+            }
+            if (task.getExternalId() != null && !externalIds.add(task.getExternalId())) {
+                messages.add("Powtórzony identyfikator zewnętrzny: " + task.getExternalId());
+            }
+            if (!messages.isEmpty()) {
+                errors.add(new TaskBatchResultDto.ItemError(i, String.join("; ", messages)));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException("Odrzucono " + errors.size() + " z " + tasks.size()
+                    + " zadań; żadna zmiana nie została zapisana", errors);
+        }
+
+        TaskSyncResultDto result = new TaskSyncResultDto();
+        result.setReceived(tasks.size());
+        TaskCountDeltas deltas = new TaskCountDeltas();
+        for (int start = 0; start < tasks.size(); start += batchSize) {
+            TaskJdbcDao.SyncResult chunk = taskJdbcDao.syncChunk(tasks.subList(start, Math.min(start + batchSize, tasks.size())));
+            result.setInserted(result.getInserted() + chunk.inserted());
+            result.setUpdated(result.getUpdated() + chunk.updated());
+            result.setUnchanged(result.getUnchanged() + chunk.unchanged());
+            chunk.deltas().forEach(d -> deltas.add(d.status(), d.categoryId(), d.delta()));
+        }
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(deltas.toEvent(categoryNames));
+        }
+        return result;
+    }
+
+    public TaskBulkResultDto updateTasks(TaskFilter filter, TaskBulkUpdateDto update) {
+        requireCriteria(filter);
+        if (update.getStatus() == null && update.getCategoryId() == null && update.getDueDate() == null
+                && !update.isClearCategory() && !update.isClearDueDate()) {
+            throw new BadRequestException("Brak zmian: podaj status, categoryId, dueDate, clearCategory lub clearDueDate");
+        }
+        if (update.isClearCategory() && update.getCategoryId() != null
+                || update.isClearDueDate() && update.getDueDate() != null) {
+            throw new BadRequestException("Nie można jednocześnie ustawić i wyczyścić tego samego pola");
+        }
+        Map<Long, String> categoryNames = new HashMap<>();
+        if (update.getCategoryId() != null) {
+            Category category = categoryRepository.findById(update.getCategoryId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Kategoria o id " + update.getCategoryId() + " nie istnieje"));
+            categoryNames.put(category.getId(), category.getName());
+        }
+        TaskFilter resolved = filterResolver.resolveCategoryName(filter);
+        if (resolved == null) {
+            return new TaskBulkResultDto();
+        }
+        return inChunks(afterId -> taskJdbcDao.updateChunk(resolved, update, afterId, chunkSize), categoryNames);
+    }
+
+    public TaskBulkResultDto deleteTasks(TaskFilter filter) {
+        requireCriteria(filter);
+        TaskFilter resolved = filterResolver.resolveCategoryName(filter);
+        if (resolved == null) {
+            return new TaskBulkResultDto();
+        }
+        return inChunks(afterId -> taskJdbcDao.deleteChunk(resolved, afterId, chunkSize), Map.of());
+    }
+
+    // Pusty filtr objąłby całą tabelę; taka operacja nie powinna wynikać z pominiętego parametru
+    private static void requireCriteria(TaskFilter filter) {
+        if (!filter.hasCriteria()) {
+            throw new BadRequestException("Operacja masowa wymaga co najmniej jednego filtra");
+        }
+    }
+
+    private TaskBulkResultDto inChunks(LongFunction<TaskJdbcDao.ChunkResult> operation, Map<Long, String> categoryNames) {
+        TaskBulkResultDto result = new TaskBulkResultDto();
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            TaskJdbcDao.ChunkResult chunk = chunkTransaction.execute(status -> {
+                TaskJdbcDao.ChunkResult applied = operation.apply(from);
+                if (!applied.deltas().isEmpty()) {
+                    TaskCountDeltas deltas = new TaskCountDeltas();
+                    applied.deltas().forEach(d -> deltas.add(d.status(), d.categoryId(), d.delta()));
+                    eventPublisher.publishEvent(deltas.toEvent(categoryNames));
+                }
+                return applied;
+            });
+            if (chunk.rows() == 0) {
+                return result;
+            }
+            result.setAffected(result.getAffected() + chunk.rows());
+            result.setChunks(result.getChunks() + 1);
+            if (chunk.rows() < chunkSize) {
+                return result;
+            }
+            afterId = chunk.lastId();
+        }
+    }
+
+    // Jedno zapytanie o kategorie zamiast sprawdzania categoryId przy każdym elemencie
+    private Map<Long, String> categoryNames() {
+        Map<Long, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            names.put(category.getId(), category.getName());
+        }
+        return names;
+    }
+
+    // Elementy tablicy JSON czytane po jednym; uszkodzony JSON lub przekroczony limit odrzuca całe żądanie
+    private void readArray(InputStream in, int limit, ObjIntConsumer<JsonNode> handler) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (nextToken(parser, 0) != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Oczekiwano tablicy JSON");
+            }
+            int index = 0;
+            JsonToken token;
+            while ((token = nextToken(parser, index)) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new BadRequestException("Niekompletna tablica JSON po elemencie " + index);
+                }
+                if (index == limit) {
+                    throw new BadRequestException("Za dużo elementów w jednym żądaniu (limit " + limit + ")");
+                }
+                handler.accept(readItem(parser, index), index++);
+            }
+            if (parser.nextToken() != null) {
+                throw new BadRequestException("Nieoczekiwana treść po tablicy JSON");
+            }
+        }
+    }
+
+    private static JsonToken nextToken(JsonParser parser, int items) throws IOException {
+        try {
+            return parser.nextToken();
+        } catch (JsonProcessingException ex) {
+            throw malformed(items, ex);
+        }
+    }
+
+    private JsonNode readItem(JsonParser parser, int index) throws IOException {
+        try {
+            return objectMapper.readTree(parser);
+        } catch (JsonProcessingException ex) {
+            throw malformed(index, ex);
+        }
+    }
+
+    private static BadRequestException malformed(int items, JsonProcessingException ex) {
+        return new BadRequestException("Niepoprawny JSON po elemencie " + items + ": " + ex.getOriginalMessage());
+    }
+
+    private TaskDto toTask(JsonNode node, Map<Long, String> categoryNames) {
+        if (!node.isObject()) {
+            throw new InvalidItemException("Element nie jest obiektem zadania");
+        }
+        TaskCreateDto dto;
+        try {
+            dto = objectMapper.treeToValue(node, TaskCreateDto.class);
+        } catch (JsonProcessingException ex) {
+            throw new InvalidItemException("Niepoprawna wartość pola " + field(ex));
+        }
+
+        List<String> errors = validator.validate(dto).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (dto.getCategoryId() != null && !categoryNames.containsKey(dto.getCategoryId())) {
+            errors.add("Kategoria o ID " + dto.getCategoryId() + " nie istnieje");
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidItemException(String.join("; ", errors));
+        }
+
+        TaskDto task = new TaskDto();
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        task.setStatus(dto.getStatus());
+        task.setDueDate(dto.getDueDate());
+        task.setCategoryId(dto.getCategoryId());
+        return task;
+    }
+
+    private static String field(JsonProcessingException ex) {
+        if (ex instanceof JsonMappingException mapping) {
+            String path = mapping.getPath().stream()
+                    .map(JsonMappingException.Reference::getFieldName)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining("."));
+            if (!path.isEmpty()) {
+                return path;
+            }
+        }
+        return ex.getOriginalMessage();
+    }
+
+    private static void reject(TaskBatchResultDto result, int index, String message) {
+        result.setRejected(result.getRejected() + 1);
+        result.getErrors().add(new TaskBatchResultDto.ItemError(index, message));
+    }
+
+    private void flush(List<TaskDto> batch, List<Integer> positions, TaskBatchResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        taskJdbcDao.insertBatch(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            result.getIds().set(positions.get(i), batch.get(i).getId());
+        }
+        result.setCreated(result.getCreated() + batch.size());
+        batch.clear();
+        positions.clear();
+    }
+
+    private enum OperationType {
+        CREATE,
+        UPDATE,
+        DELETE;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        static OperationType from(JsonNode op) {
+            if (op.isTextual()) {
+                for (OperationType type : values()) {
+                    if (type.label().equals(op.asText())) {
+                        return type;
+                    }
+                }
+            }
+            throw new InvalidItemException((op.isMissingNode() ? "Brak pola op" : "Nieznana operacja: " + op.asText(op.toString()))
+                    + " (dozwolone: create, update, delete)");
+        }
+    }
+
+    private record Operation(int index, OperationType type, Long id, TaskDto task) {
+    }
+
+    // Błąd pojedynczego elementu żądania, raportowany w wyniku zamiast przerywać odczyt
+    private static final class InvalidItemException extends RuntimeException {
+
+        private InvalidItemException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
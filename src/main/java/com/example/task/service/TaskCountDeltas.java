@@ -0,0 +1,35 @@
+package com.example.task.service;
+
+import com.example.task.model.TaskStatus;
+import com.example.task.model.event.TaskCountsChangedEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Zmiany liczby zadań zbierane w trakcie operacji masowej i publikowane na końcu jednym
+ * TaskCountsChangedEvent, z nazwami kategorii z mapy odczytanej na początku operacji.
+ */
+final class TaskCountDeltas {
+
+    private final Map<Bucket, Long> deltas = new HashMap<>();
+
+    void add(TaskStatus status, Long categoryId, long delta) {
+        deltas.merge(new Bucket(status, categoryId), delta, Long::sum);
+    }
+
+    boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    TaskCountsChangedEvent toEvent(Map<Long, String> categoryNames) {
+        return new TaskCountsChangedEvent(deltas.entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .map(e -> new TaskCountsChangedEvent.Delta(e.getKey().status(), e.getKey().categoryId(),
+                        categoryNames.get(e.getKey().categoryId()), e.getValue()))
+                .toList());
+    }
+
+    private record Bucket(TaskStatus status, Long categoryId) {
+    }
+}
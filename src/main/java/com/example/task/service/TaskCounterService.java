@@ -0,0 +1,51 @@
+package com.example.task.service;
+
+import com.example.task.repository.jdbc.TaskCounterDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+@Slf4j
+@Service
+public class TaskCounterService {
+
+    private final TaskCounterDao taskCounterDao;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate repairTransaction;
+
+    public TaskCounterService(TaskCounterDao taskCounterDao, PlatformTransactionManager transactionManager) {
+        this.taskCounterDao = taskCounterDao;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Naprawa rozjazdu task_counters (zapisy z pominięciem aplikacji, ręczne poprawki w bazie).
+    // Pełny GROUP BY bez blokad tylko sprawdza, czy jest co naprawiać; różnica liczona jest ponownie
+    // w transakcji naprawy pod blokadą doradczą, bo inny węzeł mógł ją w międzyczasie zastosować.
+    // Zapisy zadań nie czekają na skan tabeli
+    @Scheduled(initialDelayString = "${tasks.counters.reconcile-interval:PT1H}",
+            fixedDelayString = "${tasks.counters.reconcile-interval:PT1H}")
+    public int reconcile() {
+        if (snapshotTransaction.execute(status -> taskCounterDao.drift()).isEmpty()) {
+            return 0;
+        }
+        Integer repaired = repairTransaction.execute(status -> {
+            if (!taskCounterDao.tryLockReconcile()) {
+                log.debug("Naprawa liczników zadań trwa na innym węźle, pomijam");
+                return 0;
+            }
+            Map<TaskCounterDao.CounterKey, Long> drift = taskCounterDao.drift();
+            taskCounterDao.applyDrift(drift);
+            return drift.size();
+        });
+        if (repaired != null && repaired > 0) {
+            log.warn("Naprawiono rozbieżne liczniki zadań, liczba wierszy: {}", repaired);
+        }
+        return repaired != null ? repaired : 0;
+    }
+}
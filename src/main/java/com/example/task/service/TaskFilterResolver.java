@@ -0,0 +1,42 @@
+package com.example.task.service;
+
+import com.example.task.model.TaskFilter;
+import com.example.task.repository.CategoryRepository;
+import com.example.task.repository.TaskSpecifications;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class TaskFilterResolver {
+
+    private final CategoryRepository categoryRepository;
+
+    /**
+     * Zamienia filtr nazwy kategorii na zbiór id kategorii (część wspólna z podanymi categoryId),
+     * żeby zapytanie o zadania nie potrzebowało złączenia z categories.
+     * Zwraca null, gdy żadna kategoria nie pasuje i wynik jest na pewno pusty.
+     */
+    public TaskFilter resolveCategoryName(TaskFilter filter) {
+        if (!StringUtils.hasText(filter.getCategoryName())) {
+            return filter;
+        }
+        Set<Long> ids = new LinkedHashSet<>(categoryRepository.findIdsByNameLike(
+                TaskSpecifications.containsPattern(filter.getCategoryName())));
+        if (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()) {
+            ids.retainAll(filter.getCategoryIds());
+        }
+        if (ids.isEmpty()) {
+            return null;
+        }
+        TaskFilter resolved = filter.copy();
+        resolved.setCategoryIds(new ArrayList<>(ids));
+        resolved.setCategoryName(null);
+        return resolved;
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.task.service;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskCreateDto;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.model.dto.TaskImportResultDto;
+import com.example.task.model.entity.Category;
+import com.example.task.repository.CategoryRepository;
+import com.example.task.repository.jdbc.TaskJdbcDao;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Import zadań z CSV w układzie eksportu API (ID,Tytuł,Opis,Status,Termin,Kategoria,Utworzono,Zaktualizowano).
+ * Plik czytany rekord po rekordzie ze strumienia żądania, poprawne wiersze wstawiane paczkami JDBC po
+ * batchSize. Kolumny ID, Utworzono i Zaktualizowano są pomijane: zadania dostają nowe id i daty.
+ * Wiersze z błędami są pomijane i raportowane; uszkodzony plik CSV przerywa cały import (jedna transakcja).
+ */
+@Service
+public class TaskImportService {
+
+    private static final String TITLE = "Tytuł";
+    private static final String DESCRIPTION = "Opis";
+    private static final String STATUS = "Status";
+    private static final String DUE_DATE = "Termin";
+    private static final String CATEGORY = "Kategoria";
+    // Eksport wpisuje tę nazwę zamiast pustej kategorii
+    private static final String NO_CATEGORY = "Brak";
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .build();
+
+    private final TaskJdbcDao taskJdbcDao;
+    private final CategoryRepository categoryRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public TaskImportService(TaskJdbcDao taskJdbcDao,
+                             CategoryRepository categoryRepository,
+                             Validator validator,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${tasks.import.batch-size:1000}") int batchSize,
+                             @Value("${tasks.import.max-errors:1000}") int maxErrors) {
+        this.taskJdbcDao = taskJdbcDao;
+        this.categoryRepository = categoryRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Transactional
+    public TaskImportResultDto importCsv(InputStream in) throws IOException {
+        long started = System.nanoTime();
+        Map<String, Long> categoryIds = categoryIds();
+        Map<Long, String> categoryNames = new HashMap<>();
+        categoryIds.forEach((name, id) -> categoryNames.put(id, name));
+        TaskCountDeltas deltas = new TaskCountDeltas();
+
+        TaskImportResultDto result = new TaskImportResultDto();
+        List<TaskDto> batch = new ArrayList<>(batchSize);
+        try (CSVParser parser = open(in)) {
+            Iterator<CSVRecord> records = parser.iterator();
+            while (hasNext(records, result.getRowsRead())) {
+                CSVRecord record = records.next();
+                result.setRowsRead(result.getRowsRead() + 1);
+                TaskDto task = toTask(record, result.getRowsRead(), categoryIds, result);
+                if (task == null) {
+                    continue;
+                }
+                batch.add(task);
+                deltas.add(task.getStatus(), task.getCategoryId(), 1);
+                if (batch.size() == batchSize) {
+                    flush(batch, result);
+                }
+            }
+        }
+        flush(batch, result);
+
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(deltas.toEvent(categoryNames));
+        }
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        result.setDurationMs(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(result.getRowsRead() * 1_000_000_000L / elapsedNanos);
+        return result;
+    }
+
+    // Jedno zapytanie o wszystkie kategorie zamiast odczytu na każdy wiersz
+    private Map<String, Long> categoryIds() {
+        Map<String, Long> ids = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            ids.put(category.getName(), category.getId());
+        }
+        return ids;
+    }
+
+    // Pierwszy rekord to nagłówek; bez kolumn Tytuł i Status (albo z pustą lub powtórzoną nazwą) import jest odrzucany
+    private static CSVParser open(InputStream in) throws IOException {
+        CSVParser parser;
+        try {
+            parser = FORMAT.parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException | UncheckedIOException ex) {
+            throw missingHeader();
+        }
+        Map<String, Integer> header = parser.getHeaderMap();
+        if (header == null || !header.containsKey(TITLE) || !header.containsKey(STATUS)) {
+            parser.close();
+            throw missingHeader();
+        }
+        return parser;
+    }
+
+    private static BadRequestException missingHeader() {
+        return new BadRequestException("Brak nagłówka CSV z kolumnami " + TITLE + " i " + STATUS
+                + " (układ jak w eksporcie: ID,Tytuł,Opis,Status,Termin,Kategoria,Utworzono,Zaktualizowano)");
+    }
+
+    // Błąd składni CSV (np. niezamknięty cudzysłów) przerywa import
+    private static boolean hasNext(Iterator<CSVRecord> records, long rowsRead) {
+        try {
+            return records.hasNext();
+        } catch (UncheckedIOException | IllegalStateException ex) {
+            throw new BadRequestException("Niepoprawny CSV po wierszu " + rowsRead + ": " + ex.getMessage());
+        }
+    }
+
+    private TaskDto toTask(CSVRecord record, long row, Map<String, Long> categoryIds, TaskImportResultDto result) {
+        List<String> errors = new ArrayList<>();
+
+        TaskCreateDto dto = new TaskCreateDto();
+        dto.setTitle(value(record, TITLE));
+        dto.setDescription(value(record, DESCRIPTION));
+
+        String status = value(record, STATUS);
+        if (status != null) {
+            try {
+                dto.setStatus(TaskStatus.valueOf(status.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                errors.add("Nieznany status: " + status);
+            }
+        }
+        String dueDate = value(record, DUE_DATE);
+        if (dueDate != null) {
+            try {
+                dto.setDueDate(LocalDate.parse(dueDate.trim()));
+            } catch (DateTimeParseException ex) {
+                errors.add("Niepoprawny termin (oczekiwano RRRR-MM-DD): " + dueDate);
+            }
+        }
+        String category = value(record, CATEGORY);
+        if (category != null) {
+            Long categoryId = categoryIds.get(category);
+            if (categoryId != null) {
+                dto.setCategoryId(categoryId);
+            } else if (!category.equals(NO_CATEGORY)) {
+                errors.add("Nieznana kategoria: " + category);
+            }
+        }
+
+        // Błędny status nie dubluje komunikatu "Status jest wymagany"; kolejność naruszeń ustalona dla raportu
+        validator.validate(dto).stream()
+                .filter(violation -> !(violation.getPropertyPath().toString().equals("status") && status != null))
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .forEach(errors::add);
+        if (!errors.isEmpty()) {
+            reject(result, row, String.join("; ", errors));
+            return null;
+        }
+
+        TaskDto task = new TaskDto();
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        task.setStatus(dto.getStatus());
+        task.setDueDate(dto.getDueDate());
+        task.setCategoryId(dto.getCategoryId());
+        return task;
+    }
+
+    private static String value(CSVRecord record, String column) {
+        if (!record.isSet(column)) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    private void reject(TaskImportResultDto result, long row, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new TaskImportResultDto.RowError(row, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private void flush(List<TaskDto> batch, TaskImportResultDto result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        taskJdbcDao.insertAll(batch, batchSize);
+        result.setImported(result.getImported() + batch.size());
+        result.setBatches(result.getBatches() + 1);
+        batch.clear();
+    }
+}
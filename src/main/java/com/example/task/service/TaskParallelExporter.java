@@ -0,0 +1,174 @@
+package com.example.task.service;
+
+import com.example.task.exception.TooManyRequestsException;
+import com.example.task.model.TaskFilter;
+import com.example.task.repository.jdbc.TaskSnapshotReader;
+import com.example.task.service.csv.CsvEncoder;
+import com.example.task.service.csv.TaskCsvLayout;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Eksport CSV równoległy: zakres id dzielony na fragmenty, każdy czytany i kodowany na osobnym
+ * połączeniu w tej samej migawce, a gotowe fragmenty zapisywane do odpowiedzi w kolejności id.
+ * W pamięci jest naraz najwyżej 2 x parallelism zakodowanych fragmentów na eksport.
+ * <p>
+ * Połączenia z bazą: jeden eksport trzyma połączenie migawki i korzysta z najwyżej parallelism połączeń
+ * wątków puli (parallelism + 1). Pula wątków jest wspólna, więc wszystkie eksporty razem zajmują najwyżej
+ * parallelism + max-parallel-exports połączeń; suma musi zostawić w puli Hikari (maximum-pool-size, domyślnie 10)
+ * zapas na zwykłe żądania. Eksport ponad max-parallel-exports jest odrzucany ({@link #reserve()}), a nie kolejkowany.
+ */
+@Service
+public class TaskParallelExporter {
+
+    private final TaskSnapshotReader reader;
+    private final long chunkSize;
+    private final int window;
+    private final ExecutorService executor;
+    private final Semaphore exports;
+
+    public TaskParallelExporter(TaskSnapshotReader reader,
+                                @Value("${tasks.export.parallelism:4}") int parallelism,
+                                @Value("${tasks.export.chunk-size:50000}") long chunkSize,
+                                @Value("${tasks.export.max-parallel-exports:2}") int maxConcurrent) {
+        this.reader = reader;
+        this.chunkSize = chunkSize;
+        this.window = parallelism * 2;
+        this.exports = new Semaphore(maxConcurrent);
+        // Własna pula, niezależna od wątków obsługujących żądania. Każdy eksport ma w puli najwyżej window
+        // fragmentów, więc kolejka mieści wszystkie; fragmenty nigdy nie są wykonywane w wątku żądania
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(window * maxConcurrent),
+                r -> {
+                    Thread thread = new Thread(r, "task-export-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Zajmuje miejsce dla jednego eksportu; wołane przed rozpoczęciem odpowiedzi, żeby nadmiarowe
+     * żądanie dostało 429. Miejsce zwalnia {@link #export} albo zamknięcie rezerwacji.
+     *
+     * @throws TooManyRequestsException gdy trwa już max-parallel-exports eksportów
+     */
+    public Reservation reserve() {
+        if (!exports.tryAcquire()) {
+            throw new TooManyRequestsException("Zbyt wiele eksportów równoległych w toku, spróbuj ponownie później");
+        }
+        return new Reservation();
+    }
+
+    /**
+     * Zapisuje nagłówek i zadania pasujące do filtra w układzie API, rosnąco po id. Zwalnia rezerwację.
+     *
+     * @return liczba zapisanych zadań
+     */
+    public long export(Reservation reservation, TaskFilter filter, OutputStream out) throws IOException {
+        try (reservation) {
+            return write(filter, out);
+        }
+    }
+
+    private long write(TaskFilter filter, OutputStream out) throws IOException {
+        TaskCsvLayout.API.open(out).flush();
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        try (TaskSnapshotReader.Snapshot snapshot = reader.open(filter)) {
+            if (snapshot.isEmpty()) {
+                return 0;
+            }
+            long next = snapshot.minId();
+            long total = 0;
+            while (next <= snapshot.maxId() || !pending.isEmpty()) {
+                while (pending.size() < window && next <= snapshot.maxId()) {
+                    long from = next;
+                    long to = snapshot.maxId() - from < chunkSize ? snapshot.maxId() + 1 : from + chunkSize;
+                    pending.add(executor.submit(() -> readChunk(snapshot, filter, from, to)));
+                    next = to;
+                }
+                Chunk chunk = await(pending.poll());
+                chunk.bytes().writeTo(out);
+                total += chunk.rows();
+            }
+            out.flush();
+            return total;
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Chunk readChunk(TaskSnapshotReader.Snapshot snapshot, TaskFilter filter, long fromId, long toId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CsvEncoder csv = TaskCsvLayout.API.openBody(bytes);
+        long rows = reader.readRange(snapshot, filter, fromId, toId, task -> TaskCsvLayout.API.row(csv, task));
+        csv.flush();
+        return new Chunk(bytes, rows);
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Eksport przerwany");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Chunk(ByteArrayOutputStream bytes, long rows) {
+    }
+
+    /**
+     * Miejsce dla jednego eksportu; zamknięcie (wielokrotne bez skutków ubocznych) je zwalnia.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                exports.release();
+            }
+        }
+    }
+}
@@ -1,27 +1,53 @@
 package com.example.task.service;
 
+import com.example.task.exception.BadRequestException;
+import com.example.task.exception.PreconditionFailedException;
 import com.example.task.exception.ResourceNotFoundException;
-import com.example.task.mapper.TaskMapper;
+import com.example.task.model.dto.CursorPageDto;
 import com.example.task.model.dto.TaskCreateDto;
 import com.example.task.model.dto.TaskDto;
+import com.example.task.model.dto.TaskPatchDto;
 import com.example.task.model.dto.StatisticsDto;
-import com.example.task.model.entity.Category;
-import com.example.task.model.entity.Task;
+import com.example.task.model.CountMode;
+import com.example.task.model.ExportMode;
+import com.example.task.model.TaskCursor;
+import com.example.task.model.TaskFilter;
 import com.example.task.model.TaskStatus;
-import com.example.task.repository.CategoryRepository;
+import com.example.task.model.event.TaskChangedEvent;
 import com.example.task.repository.TaskRepository;
+import com.example.task.repository.TaskSpecifications;
+import com.example.task.repository.jdbc.TaskCounterDao;
 import com.example.task.repository.jdbc.TaskJdbcDao;
+import com.example.task.service.csv.CsvEncoder;
+import com.example.task.service.csv.TaskCsvLayout;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,10 +55,17 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class TaskService {
 
+    // Pola TaskDto, których PATCH nie zmienia
+    private static final Set<String> READ_ONLY_FIELDS = Set.of("id", "categoryName", "createdAt", "updatedAt", "version");
+
     private final TaskRepository taskRepository;
-    private final CategoryRepository categoryRepository;
-    private final TaskMapper taskMapper;
+    private final TaskFilterResolver filterResolver;
     private final TaskJdbcDao taskJdbcDao;
+    private final TaskCounterDao taskCounterDao;
+    private final TaskStatisticsAggregator statisticsAggregator;
+    private final TaskParallelExporter parallelExporter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
 
     public Page<TaskDto> getTasksWithFilters(
             TaskStatus status,
@@ -47,6 +80,117 @@ public class TaskService {
         page = Math.max(0, page);
         size = size <= 0 || size > 100 ? 10 : size;
 
+        Pageable pageable = PageRequest.of(page, size, Sort.by(toSortOrder(sort)));
+        return getAllTasks(toFilter(status, categoryId, dueDateBefore, dueDateAfter, title), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TaskDto> getTasksWithFilters(
+            TaskStatus status,
+            Long categoryId,
+            LocalDate dueDateBefore,
+            LocalDate dueDateAfter,
+            String title,
+            int page,
+            int size,
+            String sort,
+            CountMode countMode) {
+
+        TaskFilter filter = toFilter(status, categoryId, dueDateBefore, dueDateAfter, title);
+        return getTasksWithFilters(filter, page, size, sort, countMode);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<TaskDto> getTasksWithFilters(TaskFilter filter, int page, int size, String sort, CountMode countMode) {
+        page = Math.max(0, page);
+        size = size <= 0 || size > 100 ? 10 : size;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(toSortOrder(sort)));
+
+        filter = resolveCategoryName(filter);
+        if (filter == null) {
+            return countMode == CountMode.NONE ? new SliceImpl<>(List.of(), pageable, false) : Page.empty(pageable);
+        }
+        if (StringUtils.hasText(filter.getQ())) {
+            return searchFullText(filter, pageable, countMode);
+        }
+        if (countMode == CountMode.EXACT) {
+            return getAllTasks(filter, pageable);
+        }
+
+        Slice<TaskDto> slice = taskRepository.findSlice(filter, pageable);
+        return withCount(slice, filter, countMode);
+    }
+
+    private Slice<TaskDto> searchFullText(TaskFilter filter, Pageable pageable, CountMode countMode) {
+        Sort.Order order = pageable.getSort().iterator().next();
+        List<TaskDto> rows = taskJdbcDao.searchFullText(filter, order, pageable.getOffset(), pageable.getPageSize() + 1);
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        Slice<TaskDto> slice = new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+        return withCount(slice, filter, countMode);
+    }
+
+    // Bez kolejnej strony liczba wyników jest znana dokładnie; COUNT lub szacunek planera tylko gdy trzeba
+    private Slice<TaskDto> withCount(Slice<TaskDto> slice, TaskFilter filter, CountMode countMode) {
+        if (countMode == CountMode.NONE) {
+            return slice;
+        }
+        Pageable pageable = slice.getPageable();
+        long known = pageable.getOffset() + slice.getNumberOfElements();
+        boolean countNeeded = slice.hasNext() || pageable.getOffset() > 0 && !slice.hasContent();
+        if (!countNeeded) {
+            return new PageImpl<>(slice.getContent(), pageable, known);
+        }
+        long total = countMode == CountMode.EXACT
+                ? taskJdbcDao.count(filter)
+                : Math.max(taskJdbcDao.estimateCount(filter), slice.hasNext() ? known + 1 : 0);
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> getTasksAfter(TaskFilter filter, String after, int size, String sort) {
+        size = size <= 0 || size > 100 ? 10 : size;
+        Sort.Order order = toSortOrder(sort);
+        if (order.getProperty().equals(TaskSpecifications.RELEVANCE)) {
+            throw new BadRequestException("Sortowanie po trafności nie jest dostępne w paginacji kursorowej");
+        }
+        if (StringUtils.hasText(filter.getQ())) {
+            throw new BadRequestException("Wyszukiwanie pełnotekstowe (q) nie jest dostępne w paginacji kursorowej");
+        }
+
+        TaskCursor cursor = after == null || after.isBlank() ? null : TaskCursor.decode(after);
+        if (cursor != null && !cursor.matches(order)) {
+            throw new BadRequestException("Kursor nie pasuje do sortowania " + order.getProperty() + "," + order.getDirection());
+        }
+        filter = resolveCategoryName(filter);
+        if (filter == null) {
+            return new CursorPageDto<>(List.of(), size, false, null);
+        }
+
+        List<TaskDto> rows = taskRepository.findAfter(filter, cursor, order, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<TaskDto> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? TaskCursor.from(content.get(size - 1), order).encode() : null;
+        return new CursorPageDto<>(content, size, hasNext, nextCursor);
+    }
+
+    private TaskFilter resolveCategoryName(TaskFilter filter) {
+        return filterResolver.resolveCategoryName(filter);
+    }
+
+    private TaskFilter toFilter(TaskStatus status, Long categoryId, LocalDate dueDateBefore,
+                                LocalDate dueDateAfter, String title) {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(status != null ? List.of(status) : null);
+        filter.setCategoryIds(categoryId != null ? List.of(categoryId) : null);
+        filter.setDueDateBefore(dueDateBefore);
+        filter.setDueDateAfter(dueDateAfter);
+        filter.setTitle(title);
+        return filter;
+    }
+
+    private Sort.Order toSortOrder(String sort) {
         String[] sortParts = sort.split(",");
         String property = sortParts[0];
         Sort.Direction direction = sortParts.length > 1
@@ -58,86 +202,229 @@ public class TaskService {
             case "created_at", "createdAt"     -> "createdAt";
             case "updated_at", "updatedAt"     -> "updatedAt";
             case "id", "title", "status"       -> property;
+            case TaskSpecifications.RELEVANCE  -> TaskSpecifications.RELEVANCE;
             default                            -> "createdAt";
         };
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, javaField));
-        return getAllTasks(status, categoryId, dueDateBefore, dueDateAfter, title, pageable);
+        return new Sort.Order(direction, javaField);
     }
 
     @Transactional(readOnly = true)
-    public Page<TaskDto> getAllTasks(
-            TaskStatus status,
-            Long categoryId,
-            LocalDate dueDateBefore,
-            LocalDate dueDateAfter,
-            String title,
-            Pageable pageable) {
-
-        return taskRepository.searchTasks(status, categoryId, dueDateBefore, dueDateAfter, title, pageable)
-                .map(taskMapper::toDto);
+    public Page<TaskDto> getAllTasks(TaskFilter filter, Pageable pageable) {
+        return taskRepository.findPage(filter, pageable);
     }
 
     @Transactional(readOnly = true)
     public TaskDto getTaskById(Long id) {
-        Task task = taskRepository.findById(id)
+        return taskRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Zadanie o id " + id + " nie istnieje"));
-        return taskMapper.toDto(task);
     }
 
+    // Zapisy jedną instrukcją na tasks (bez wcześniejszego odczytu zadania i kategorii), plus licznik
     @Transactional
     public TaskDto createTask(TaskCreateDto dto) {
-        Category category = resolveCategory(dto.getCategoryId());
-        Task task = taskMapper.toEntity(dto, category);
-        task = taskRepository.save(task);
-        return taskMapper.toDto(task);
+        TaskDto task;
+        try {
+            task = taskJdbcDao.insertReturning(toTaskDto(null, dto));
+        } catch (DataIntegrityViolationException ex) {
+            throw missingCategory(dto.getCategoryId(), ex);
+        }
+        taskCounterDao.increment(task.getStatus(), task.getCategoryId());
+        eventPublisher.publishEvent(TaskChangedEvent.created(task.getStatus(), task.getCategoryId(), task.getCategoryName()));
+        return task;
     }
 
     @Transactional
     public TaskDto updateTask(Long id, TaskCreateDto dto) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Zadanie o id " + id + " nie istnieje"));
+        TaskJdbcDao.UpdatedTask updated;
+        try {
+            updated = taskJdbcDao.updateReturning(toTaskDto(id, dto))
+                    .orElseThrow(() -> new ResourceNotFoundException("Zadanie o id " + id + " nie istnieje"));
+        } catch (DataIntegrityViolationException ex) {
+            throw missingCategory(dto.getCategoryId(), ex);
+        }
+        TaskDto task = updated.task();
+        taskCounterDao.move(updated.oldStatus(), updated.oldCategoryId(), task.getStatus(), task.getCategoryId());
+        eventPublisher.publishEvent(TaskChangedEvent.updated(updated.oldStatus(), updated.oldCategoryId(),
+                task.getStatus(), task.getCategoryId(), task.getCategoryName()));
+        return task;
+    }
+
+    /**
+     * Częściowa zmiana zadania wg JSON Merge Patch: jeden UPDATE tylko zmienianych kolumn, bez odczytu zadania.
+     * Z expectedVersion (If-Match) zmiana zachodzi tylko przy tej wersji; inna wersja to 412.
+     */
+    @Transactional
+    public TaskDto patchTask(Long id, JsonNode document, Set<Long> expectedVersions) {
+        TaskPatchDto patch = toPatch(document);
+        if (patch.isEmpty()) {
+            // Pusty dokument niczego nie zmienia; sprawdzane są tylko istnienie i wersja
+            TaskDto task = getTaskById(id);
+            if (expectedVersions != null && !expectedVersions.contains(task.getVersion())) {
+                throw versionMismatch(id, task.getVersion(), expectedVersions);
+            }
+            return task;
+        }
+        Optional<TaskJdbcDao.UpdatedTask> result;
+        if (expectedVersions != null && expectedVersions.isEmpty()) {
+            // If-Match bez żadnej możliwej wersji (tylko słabe ETagi): bez zapisu
+            result = Optional.empty();
+        } else {
+            try {
+                result = taskJdbcDao.patchReturning(id, patch, expectedVersions);
+            } catch (DataIntegrityViolationException ex) {
+                throw missingCategory(patch.getCategoryId(), ex);
+            }
+        }
+        if (result.isEmpty()) {
+            // Dopiero przy niepowodzeniu: brak zadania (404) czy inna wersja (412)
+            Long current = expectedVersions != null ? taskJdbcDao.findVersion(id).orElse(null) : null;
+            if (current == null) {
+                throw new ResourceNotFoundException("Zadanie o id " + id + " nie istnieje");
+            }
+            throw versionMismatch(id, current, expectedVersions);
+        }
+        TaskJdbcDao.UpdatedTask updated = result.get();
+        TaskDto task = updated.task();
+        taskCounterDao.move(updated.oldStatus(), updated.oldCategoryId(), task.getStatus(), task.getCategoryId());
+        eventPublisher.publishEvent(TaskChangedEvent.updated(updated.oldStatus(), updated.oldCategoryId(),
+                task.getStatus(), task.getCategoryId(), task.getCategoryName()));
+        return task;
+    }
 
-        Category category = resolveCategory(dto.getCategoryId());
-        taskMapper.updateEntityFromDto(dto, task, category);
-        task = taskRepository.save(task);
-        return taskMapper.toDto(task);
+    private static PreconditionFailedException versionMismatch(Long id, Long current, Set<Long> expected) {
+        String versions = expected.isEmpty() ? "żadna z wersji"
+                : expected.stream().map(String::valueOf).collect(Collectors.joining(", "));
+        return new PreconditionFailedException("Zadanie o id " + id + " ma wersję " + current + ", a nie " + versions
+                + " (If-Match); pobierz je ponownie");
+    }
+
+    // Pola dokumentu na TaskPatchDto; wartości sprawdzane tymi samymi ograniczeniami co TaskCreateDto
+    private TaskPatchDto toPatch(JsonNode document) {
+        if (document == null || !document.isObject()) {
+            throw new BadRequestException("Oczekiwano obiektu JSON (JSON Merge Patch)");
+        }
+        TaskPatchDto patch = new TaskPatchDto();
+        List<String> errors = new ArrayList<>();
+        document.fields().forEachRemaining(field -> {
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            switch (name) {
+                case TaskPatchDto.TITLE -> patch.setTitle(text(name, value, errors));
+                case TaskPatchDto.DESCRIPTION -> patch.setDescription(text(name, value, errors));
+                case TaskPatchDto.STATUS -> {
+                    String status = text(name, value, errors);
+                    try {
+                        patch.setStatus(status != null ? TaskStatus.valueOf(status.trim().toUpperCase(Locale.ROOT)) : null);
+                    } catch (IllegalArgumentException ex) {
+                        errors.add("Nieznany status: " + status);
+                    }
+                }
+                case TaskPatchDto.DUE_DATE -> {
+                    String dueDate = text(name, value, errors);
+                    try {
+                        patch.setDueDate(dueDate != null ? LocalDate.parse(dueDate) : null);
+                    } catch (DateTimeParseException ex) {
+                        errors.add("Niepoprawny termin (oczekiwano RRRR-MM-DD): " + dueDate);
+                    }
+                }
+                case TaskPatchDto.CATEGORY_ID -> {
+                    if (value.isIntegralNumber()) {
+                        patch.setCategoryId(value.asLong());
+                    } else if (!value.isNull()) {
+                        errors.add("Niepoprawna wartość pola " + name);
+                    }
+                }
+                default -> {
+                    errors.add(READ_ONLY_FIELDS.contains(name) ? "Pole " + name + " nie może być zmieniane" : "Nieznane pole: " + name);
+                    return;
+                }
+            }
+            patch.getPresent().add(name);
+        });
+        List<String> violations = new ArrayList<>();
+        if (patch.has(TaskPatchDto.TITLE)) {
+            validator.validateValue(TaskCreateDto.class, "title", patch.getTitle()).forEach(v -> violations.add(v.getMessage()));
+        }
+        if (patch.has(TaskPatchDto.DESCRIPTION)) {
+            validator.validateValue(TaskCreateDto.class, "description", patch.getDescription()).forEach(v -> violations.add(v.getMessage()));
+        }
+        if (patch.has(TaskPatchDto.STATUS) && errors.stream().noneMatch(e -> e.startsWith("Nieznany status"))) {
+            validator.validateValue(TaskCreateDto.class, "status", patch.getStatus()).forEach(v -> violations.add(v.getMessage()));
+        }
+        violations.stream().sorted().forEach(errors::add);
+        if (!errors.isEmpty()) {
+            throw new BadRequestException(String.join("; ", errors));
+        }
+        return patch;
+    }
+
+    private static String text(String field, JsonNode value, List<String> errors) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            errors.add("Niepoprawna wartość pola " + field);
+            return null;
+        }
+        return value.asText();
     }
 
     @Transactional
     public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Zadanie o id " + id + " nie istnieje");
+        TaskDto task = taskJdbcDao.deleteReturning(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Zadanie o id " + id + " nie istnieje"));
+        taskCounterDao.decrement(task.getStatus(), task.getCategoryId());
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(task.getStatus(), task.getCategoryId()));
+    }
+
+    private static TaskDto toTaskDto(Long id, TaskCreateDto dto) {
+        TaskDto task = new TaskDto();
+        task.setId(id);
+        task.setTitle(dto.getTitle());
+        task.setDescription(dto.getDescription());
+        task.setStatus(dto.getStatus());
+        task.setDueDate(dto.getDueDate());
+        task.setCategoryId(dto.getCategoryId());
+        return task;
+    }
+
+    // Pola zadania są walidowane w DTO, więc naruszenie więzów przy zapisie to brakująca kategoria (klucz obcy)
+    private static RuntimeException missingCategory(Long categoryId, DataIntegrityViolationException ex) {
+        if (categoryId == null) {
+            return ex;
         }
-        taskRepository.deleteById(id);
+        return new ResourceNotFoundException("Kategoria o id " + categoryId + " nie istnieje");
     }
 
     // -------------------- Statistics --------------------
 
-    @Transactional(readOnly = true)
+    // Statystyki bez filtrów pochodzą z pamięci, więc bez transakcji (i bez połączenia z bazą)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public StatisticsDto getTaskStatistics() {
-        List<Task> tasks = taskRepository.findAll();
-
-        long total = tasks.size();
-
-        Map<String, Long> byStatus = tasks.stream()
-                .collect(Collectors.groupingBy(
-                        t -> t.getStatus().name(),
-                        Collectors.counting()
-                ));
-
-        Map<String, Long> byCategory = tasks.stream()
-                .collect(Collectors.groupingBy(
-                        t -> t.getCategory() != null ? t.getCategory().getName() : "Uncategorized",
-                        Collectors.counting()
-                ));
+        return getTaskStatistics(new TaskFilter());
+    }
 
-        return new StatisticsDto(total, byStatus, byCategory);
+    // Bez filtrów: agregator w pamięci; z filtrami: GROUP BY na tasks zawężony jak lista zadań
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public StatisticsDto getTaskStatistics(TaskFilter filter) {
+        if (!filter.hasCriteria()) {
+            return statisticsAggregator.statistics();
+        }
+        TaskFilter resolved = resolveCategoryName(filter);
+        if (resolved == null) {
+            return new StatisticsDto(0, Map.of(), Map.of(), Map.of());
+        }
+        return taskJdbcDao.statistics(resolved);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<String[]> getStatisticsForCsv() {
-        StatisticsDto stats = getTaskStatistics();
+        return getStatisticsForCsv(new TaskFilter());
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<String[]> getStatisticsForCsv(TaskFilter filter) {
+        StatisticsDto stats = getTaskStatistics(filter);
 
         Map<String, Long> byStatus = stats.getTasksByStatus();
         Map<String, Long> byCategory = stats.getTasksByCategory();
@@ -154,14 +441,17 @@ public class TaskService {
             rows.add(new String[]{"Kategoria: " + entry.getKey(), String.valueOf(entry.getValue())});
         }
 
-        return rows;
-    }
+        Map<String, Map<String, Long>> matrix = stats.getTasksByStatusAndCategory();
+        if (matrix != null) {
+            for (Map.Entry<String, Map<String, Long>> status : matrix.entrySet()) {
+                for (Map.Entry<String, Long> category : status.getValue().entrySet()) {
+                    rows.add(new String[]{"Status/kategoria: " + status.getKey() + " / " + category.getKey(),
+                            String.valueOf(category.getValue())});
+                }
+            }
+        }
 
-    private Category resolveCategory(Long categoryId) {
-        return categoryId != null ?
-                categoryRepository.findById(categoryId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Kategoria o id " + categoryId + " nie istnieje"))
-                : null;
+        return rows;
     }
 
     public TaskCreateDto toCreateDto(TaskDto dto) {
@@ -174,6 +464,110 @@ public class TaskService {
         return createDto;
     }
 
+    // -------------------- Export --------------------
+
+    @Transactional(readOnly = true)
+    public long exportTasksCsv(TaskFilter filter, OutputStream out) throws IOException {
+        return exportTasksCsv(filter, TaskCsvLayout.API, out);
+    }
+
+    /**
+     * Tryb COPY na PostgreSQL: CSV generuje baza (daty w formacie PostgreSQL, wiersze zakończone LF),
+     * na innych bazach eksport strumieniowy w układzie API. Tryb PARALLEL ma osobne wejście
+     * ({@link #exportTasksCsvParallel}), poza transakcją; tutaj jest eksportem strumieniowym.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasksCsv(TaskFilter filter, ExportMode mode, OutputStream out) throws IOException {
+        if (mode != ExportMode.COPY || !taskJdbcDao.supportsCopy()) {
+            return exportTasksCsv(filter, TaskCsvLayout.API, out);
+        }
+        TaskFilter resolved = resolveCategoryName(filter);
+        if (resolved == null) {
+            // Żadna kategoria nie pasuje: sam nagłówek, bez zapytania
+            TaskCsvLayout.API.open(out).flush();
+            return 0;
+        }
+        try {
+            long rows = taskJdbcDao.copyCsv(resolved, out);
+            out.flush();
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Miejsce dla eksportu równoległego, zajmowane przed rozpoczęciem odpowiedzi.
+     *
+     * @throws com.example.task.exception.TooManyRequestsException gdy trwa już limit eksportów równoległych
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TaskParallelExporter.Reservation reserveParallelExport() {
+        return parallelExporter.reserve();
+    }
+
+    /**
+     * Tryb PARALLEL: fragmenty zakresu id czytane równolegle w jednej migawce, wynik posortowany rosnąco po id.
+     * Bez transakcji Springa, żeby nie trzymać połączenia, z którego eksport nie korzysta; połączenia
+     * migawki i fragmentów bierze {@link TaskParallelExporter}. Zwalnia rezerwację.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long exportTasksCsvParallel(TaskFilter filter, TaskParallelExporter.Reservation reservation,
+                                       OutputStream out) throws IOException {
+        try (reservation) {
+            TaskFilter resolved = resolveCategoryName(filter);
+            if (resolved == null) {
+                TaskCsvLayout.API.open(out).flush();
+                return 0;
+            }
+            return parallelExporter.export(reservation, resolved, out);
+        }
+    }
+
+    /**
+     * Zapisuje zadania pasujące do filtra jako CSV wprost do strumienia, wiersz po wierszu z kursora bazy;
+     * pamięć nie zależy od liczby zadań. Strumienia nie zamyka.
+     *
+     * @return liczba zapisanych zadań
+     */
+    @Transactional(readOnly = true)
+    public long exportTasksCsv(TaskFilter filter, TaskCsvLayout layout, OutputStream out) throws IOException {
+        CsvEncoder csv = layout.open(out);
+        long[] count = {0};
+        TaskFilter resolved = resolveCategoryName(filter);
+        if (resolved != null) {
+            try {
+                taskJdbcDao.streamTasks(resolved, t -> {
+                    layout.row(csv, t);
+                    count[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        csv.flush();
+        return count[0];
+    }
+
+    /**
+     * Zapisuje zadania pasujące do filtra jako NDJSON (jeden obiekt JSON w linii) wprost z kursora bazy.
+     * Przerwany zapis, np. po rozłączeniu klienta, od razu zamyka kursor i zwalnia połączenie.
+     *
+     * @return liczba zapisanych zadań
+     */
+    @Transactional(readOnly = true)
+    public long streamTasksNdjson(TaskFilter filter, OutputStream out) throws IOException {
+        TaskFilter resolved = resolveCategoryName(filter);
+        if (resolved == null) {
+            return 0;
+        }
+        try {
+            return taskJdbcDao.writeNdjson(resolved, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     // -------------------- JDBC methods --------------------
 
     @Transactional(readOnly = true)
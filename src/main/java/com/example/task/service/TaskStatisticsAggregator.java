@@ -0,0 +1,172 @@
+package com.example.task.service;
+
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.StatisticsDto;
+import com.example.task.model.event.CategoryChangedEvent;
+import com.example.task.model.event.TaskChangedEvent;
+import com.example.task.model.event.TaskCountsChangedEvent;
+import com.example.task.repository.jdbc.TaskCounterDao;
+import com.example.task.repository.jdbc.TaskJdbcDao;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statystyki zadań w pamięci węzła: licznik LongAdder na kubełek (status, kategoria).
+ * Stan początkowy z task_counters, potem zdarzenia TaskService po zatwierdzeniu transakcji.
+ * Zapisy innych węzłów i ścieżki JDBC widać dopiero po okresowej resynchronizacji.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskStatisticsAggregator {
+
+    private static final long NO_CATEGORY = 0L;
+
+    private final TaskCounterDao taskCounterDao;
+
+    private volatile Counts counts;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        resync();
+    }
+
+    /**
+     * Podmienia cały stan na odczytany z bazy. Zdarzenia zatwierdzone między odczytem a podmianą
+     * trafiają do starego stanu i wracają przy następnej resynchronizacji.
+     */
+    @Scheduled(initialDelayString = "${tasks.statistics.resync-interval:PT5M}",
+            fixedDelayString = "${tasks.statistics.resync-interval:PT5M}")
+    public void resync() {
+        Counts fresh = new Counts();
+        for (TaskCounterDao.Bucket bucket : taskCounterDao.buckets()) {
+            fresh.rename(bucket.categoryId(), bucket.categoryName());
+            fresh.add(bucket.status(), bucket.categoryId(), bucket.count());
+        }
+        Counts previous = counts;
+        counts = fresh;
+        if (previous != null && previous.total() != fresh.total()) {
+            log.debug("Resynchronizacja statystyk: {} -> {} zadań", previous.total(), fresh.total());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+        Counts current = current();
+        current.add(event.oldStatus(), event.oldCategoryId(), -1);
+        current.rename(event.newCategoryId(), event.newCategoryName());
+        current.add(event.newStatus(), event.newCategoryId(), 1);
+    }
+
+    @TransactionalEventListener
+    public void onTaskCountsChanged(TaskCountsChangedEvent event) {
+        Counts current = current();
+        for (TaskCountsChangedEvent.Delta delta : event.deltas()) {
+            current.rename(delta.categoryId(), delta.categoryName());
+            current.add(delta.status(), delta.categoryId(), delta.delta());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Counts current = current();
+        if (event.isDeleted()) {
+            current.moveToUncategorized(event.id());
+        } else {
+            current.rename(event.id(), event.name());
+        }
+    }
+
+    public StatisticsDto statistics() {
+        Counts current = current();
+        Map<TaskStatus, Map<String, Long>> sorted = new TreeMap<>();
+        current.adders.forEach((key, adder) -> {
+            long count = adder.sum();
+            if (count != 0) {
+                sorted.computeIfAbsent(key.status(), k -> new TreeMap<>())
+                        .merge(current.categoryName(key.categoryId()), count, Long::sum);
+            }
+        });
+
+        long total = 0;
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Long> byCategory = new TreeMap<>();
+        Map<String, Map<String, Long>> matrix = new LinkedHashMap<>();
+        for (Map.Entry<TaskStatus, Map<String, Long>> status : sorted.entrySet()) {
+            for (Map.Entry<String, Long> category : status.getValue().entrySet()) {
+                total += category.getValue();
+                byStatus.merge(status.getKey().name(), category.getValue(), Long::sum);
+                byCategory.merge(category.getKey(), category.getValue(), Long::sum);
+            }
+            matrix.put(status.getKey().name(), status.getValue());
+        }
+        return new StatisticsDto(total, byStatus, new LinkedHashMap<>(byCategory), matrix);
+    }
+
+    // Odczyt przed ApplicationReadyEvent (np. z testów) inicjuje stan od razu
+    private Counts current() {
+        Counts current = counts;
+        if (current == null) {
+            synchronized (this) {
+                if (counts == null) {
+                    resync();
+                }
+                current = counts;
+            }
+        }
+        return current;
+    }
+
+    private record Key(TaskStatus status, long categoryId) {
+    }
+
+    private static final class Counts {
+
+        private final ConcurrentHashMap<Key, LongAdder> adders = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, String> categoryNames = new ConcurrentHashMap<>();
+
+        void add(TaskStatus status, Long categoryId, long delta) {
+            if (status == null || delta == 0) {
+                return;
+            }
+            Key key = new Key(status, categoryId != null ? categoryId : NO_CATEGORY);
+            adders.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+
+        void rename(Long categoryId, String name) {
+            if (categoryId != null && name != null) {
+                categoryNames.put(categoryId, name);
+            }
+        }
+
+        void moveToUncategorized(Long categoryId) {
+            for (TaskStatus status : TaskStatus.values()) {
+                LongAdder removed = adders.remove(new Key(status, categoryId));
+                if (removed != null) {
+                    add(status, null, removed.sum());
+                }
+            }
+            categoryNames.remove(categoryId);
+        }
+
+        String categoryName(long categoryId) {
+            String name = categoryId != NO_CATEGORY ? categoryNames.get(categoryId) : null;
+            return name != null ? name : TaskJdbcDao.UNCATEGORIZED;
+        }
+
+        long total() {
+            return adders.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.task.service.csv;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Koder CSV piszący bajty UTF-8 wprost do bufora wielokrotnego użytku, opróżnianego do strumienia.
+ * Znaki, liczby i daty kodowane są bez tworzenia pośrednich obiektów String i bez boxingu.
+ * Nie jest bezpieczny wątkowo: jeden koder na jeden eksport.
+ */
+public final class CsvEncoder {
+
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    // Najdłuższa wartość zapisywana bez sprawdzania miejsca: long (20 bajtów) i data z czasem (29 bajtów)
+    private static final int MAX_FIXED_WIDTH = 32;
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final byte delimiter;
+    private final byte[] recordSeparator;
+    private final boolean quoteAllText;
+    private int position;
+    private boolean firstField = true;
+
+    /**
+     * @param quoteAllText true: każdy tekst w cudzysłowie; false: reguły QuoteMode.MINIMAL z commons-csv
+     *                     (separator, cudzysłów lub znak nowej linii w środku, pierwszy znak do '#',
+     *                     ostatni znak do spacji, pusty tekst na początku rekordu)
+     */
+    public CsvEncoder(OutputStream out, char delimiter, String recordSeparator, boolean quoteAllText) {
+        this(out, delimiter, recordSeparator, quoteAllText, DEFAULT_BUFFER_SIZE);
+    }
+
+    CsvEncoder(OutputStream out, char delimiter, String recordSeparator, boolean quoteAllText, int bufferSize) {
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("Separator musi być znakiem ASCII");
+        }
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, MAX_FIXED_WIDTH)];
+        this.delimiter = (byte) delimiter;
+        this.recordSeparator = recordSeparator.getBytes(StandardCharsets.US_ASCII);
+        this.quoteAllText = quoteAllText;
+    }
+
+    public CsvEncoder text(CharSequence value) throws IOException {
+        boolean recordStart = firstField;
+        separate();
+        if (value == null) {
+            return this;
+        }
+        if (quoteAllText || needsQuotes(value, recordStart)) {
+            put((byte) '"');
+            writeChars(value, true);
+            put((byte) '"');
+        } else {
+            writeChars(value, false);
+        }
+        return this;
+    }
+
+    // Pole bez cudzysłowów i escapowania, dla wartości bez znaków specjalnych (nazwy enumów, nagłówki)
+    public CsvEncoder unquoted(CharSequence value) throws IOException {
+        separate();
+        if (value != null) {
+            writeChars(value, false);
+        }
+        return this;
+    }
+
+    public CsvEncoder number(long value) throws IOException {
+        separate();
+        ensure(MAX_FIXED_WIDTH);
+        writeLong(value);
+        return this;
+    }
+
+    // LocalDate i LocalDateTime w formacie toString() (ISO), null jako puste pole
+    public CsvEncoder date(LocalDate value) throws IOException {
+        separate();
+        if (value != null) {
+            ensure(MAX_FIXED_WIDTH);
+            writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        }
+        return this;
+    }
+
+    public CsvEncoder dateTime(LocalDateTime value) throws IOException {
+        separate();
+        if (value == null) {
+            return this;
+        }
+        ensure(MAX_FIXED_WIDTH);
+        writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+        buffer[position++] = 'T';
+        writeTwoDigits(value.getHour());
+        buffer[position++] = ':';
+        writeTwoDigits(value.getMinute());
+        int second = value.getSecond();
+        int nano = value.getNano();
+        if (second > 0 || nano > 0) {
+            buffer[position++] = ':';
+            writeTwoDigits(second);
+            if (nano > 0) {
+                buffer[position++] = '.';
+                if (nano % 1_000_000 == 0) {
+                    writePadded(nano / 1_000_000, 3);
+                } else if (nano % 1_000 == 0) {
+                    writePadded(nano / 1_000, 6);
+                } else {
+                    writePadded(nano, 9);
+                }
+            }
+        }
+        return this;
+    }
+
+    public CsvEncoder endRecord() throws IOException {
+        ensure(recordSeparator.length);
+        System.arraycopy(recordSeparator, 0, buffer, position, recordSeparator.length);
+        position += recordSeparator.length;
+        firstField = true;
+        return this;
+    }
+
+    public CsvEncoder record(String... values) throws IOException {
+        for (String value : values) {
+            text(value);
+        }
+        return endRecord();
+    }
+
+    public void flush() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        out.flush();
+    }
+
+    private void separate() throws IOException {
+        if (!firstField) {
+            put(delimiter);
+        }
+        firstField = false;
+    }
+
+    // Jak CSVPrinter w QuoteMode.MINIMAL: pusty tekst na początku rekordu, żeby wiersz nie był pusty,
+    // oraz pierwszy znak do '#' włącznie (spacja, znaki sterujące, '!', '"', '#' jako znak komentarza)
+    private boolean needsQuotes(CharSequence value, boolean recordStart) {
+        int length = value.length();
+        if (length == 0) {
+            return recordStart;
+        }
+        if (value.charAt(0) <= '#' || value.charAt(length - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeChars(CharSequence value, boolean escapeQuotes) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (position >= buffer.length - 1) {
+                    drain();
+                }
+                if (c == '"' && escapeQuotes) {
+                    buffer[position++] = '"';
+                }
+                buffer[position++] = (byte) c;
+            } else {
+                ensure(4);
+                if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | c >> 6);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // Niesparowany surogat: jak String.getBytes(UTF_8)
+                    buffer[position++] = '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | c >> 12);
+                    buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            System.arraycopy(MIN_LONG, 0, buffer, position, MIN_LONG.length);
+            position += MIN_LONG.length;
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private void writeDate(int year, int month, int day) {
+        if (year >= 0 && year <= 9999) {
+            writePadded(year, 4);
+        } else {
+            // Lata spoza 0000-9999 (LocalDate.toString dodaje wtedy znak)
+            if (year > 9999) {
+                buffer[position++] = '+';
+            } else {
+                buffer[position++] = '-';
+                year = -year;
+            }
+            if (year < 10000) {
+                writePadded(year, 4);
+            } else {
+                writeLong(year);
+            }
+        }
+        buffer[position++] = '-';
+        writeTwoDigits(month);
+        buffer[position++] = '-';
+        writeTwoDigits(day);
+    }
+
+    private void writeTwoDigits(int value) {
+        buffer[position++] = (byte) ('0' + value / 10);
+        buffer[position++] = (byte) ('0' + value % 10);
+    }
+
+    private void writePadded(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void put(byte b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = b;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
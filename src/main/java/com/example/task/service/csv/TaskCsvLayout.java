@@ -0,0 +1,88 @@
+package com.example.task.service.csv;
+
+import com.example.task.model.dto.TaskDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Układy eksportu zadań do CSV: API (przecinek, nagłówek z datami utworzenia i zmiany, CRLF)
+ * oraz widok www (średnik, teksty zawsze w cudzysłowie).
+ */
+public enum TaskCsvLayout {
+
+    API(',', "\r\n", false) {
+        @Override
+        void header(CsvEncoder csv) throws IOException {
+            csv.record("ID", "Tytuł", "Opis", "Status", "Termin", "Kategoria", "Utworzono", "Zaktualizowano");
+        }
+
+        @Override
+        public void row(CsvEncoder csv, TaskDto t) throws IOException {
+            csv.number(t.getId())
+                    .text(t.getTitle())
+                    .text(t.getDescription() != null ? t.getDescription() : "")
+                    .text(t.getStatus() != null ? t.getStatus().name() : "")
+                    .date(t.getDueDate())
+                    .text(t.getCategoryName() != null ? t.getCategoryName() : "Brak")
+                    .dateTime(t.getCreatedAt())
+                    .dateTime(t.getUpdatedAt())
+                    .endRecord();
+        }
+    },
+
+    WEB(';', System.lineSeparator(), true) {
+        @Override
+        void header(CsvEncoder csv) throws IOException {
+            csv.unquoted("ID").unquoted("Tytuł").unquoted("Opis").unquoted("Status").unquoted("Kategoria").unquoted("Termin")
+                    .endRecord();
+        }
+
+        @Override
+        public void row(CsvEncoder csv, TaskDto t) throws IOException {
+            csv.number(t.getId())
+                    .text(t.getTitle())
+                    .text(t.getDescription())
+                    .unquoted(t.getStatus() != null ? t.getStatus().name() : null)
+                    .text(t.getCategoryName())
+                    .date(t.getDueDate())
+                    .endRecord();
+        }
+    };
+
+    private final char delimiter;
+    private final String recordSeparator;
+    private final boolean quoteAllText;
+
+    TaskCsvLayout(char delimiter, String recordSeparator, boolean quoteAllText) {
+        this.delimiter = delimiter;
+        this.recordSeparator = recordSeparator;
+        this.quoteAllText = quoteAllText;
+    }
+
+    /**
+     * Koder dla tego układu z już zapisanym nagłówkiem.
+     */
+    public CsvEncoder open(OutputStream out) throws IOException {
+        CsvEncoder csv = new CsvEncoder(out, delimiter, recordSeparator, quoteAllText);
+        header(csv);
+        return csv;
+    }
+
+    /**
+     * Koder bez nagłówka, dla kolejnych fragmentów tego samego pliku.
+     */
+    public CsvEncoder openBody(OutputStream out) throws IOException {
+        return new CsvEncoder(out, delimiter, recordSeparator, quoteAllText);
+    }
+
+    CsvEncoder open(OutputStream out, int bufferSize) throws IOException {
+        CsvEncoder csv = new CsvEncoder(out, delimiter, recordSeparator, quoteAllText, bufferSize);
+        header(csv);
+        return csv;
+    }
+
+    abstract void header(CsvEncoder csv) throws IOException;
+
+    public abstract void row(CsvEncoder csv, TaskDto task) throws IOException;
+}
@@ -0,0 +1,8 @@
+-- src/main/resources/db/migration/V2__title_trigram_index.sql
+
+-- Wyszukiwanie podciągu w tytule (LOWER(title) LIKE '%x%') nie może użyć indeksu B-tree.
+-- Indeks GIN na trigramach obsługuje LIKE/ILIKE z wzorcem dowolnej postaci oraz similarity().
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_title_trgm
+    ON tasks USING gin (lower(title) gin_trgm_ops);
@@ -0,0 +1,14 @@
+-- src/main/resources/db/migration/V3__task_search_vector.sql
+
+-- Wyszukiwanie pełnotekstowe po tytule i opisie. Kolumna generowana jest zawsze zgodna z danymi,
+-- więc ani JPA, ani JDBC nie muszą jej aktualizować. Konfiguracja 'simple' (bez stemmingu),
+-- bo PostgreSQL nie ma wbudowanego słownika dla języka polskiego.
+ALTER TABLE tasks
+    ADD COLUMN search_vector tsvector
+        GENERATED ALWAYS AS (
+            setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_search_vector
+    ON tasks USING gin (search_vector);
@@ -0,0 +1,32 @@
+-- src/main/resources/db/migration/V4__task_indexes.sql
+
+-- Indeksy pod rzeczywiste ścieżki dostępu listy zadań: filtry (status, category_id, due_date)
+-- oraz sortowania z id jako drugim kluczem (paginacja kursorowa i stabilna kolejność stron).
+-- Kierunki i położenie NULL-i odpowiadają ORDER BY generowanym przez aplikację,
+-- więc PostgreSQL może czytać indeks w przód lub wstecz bez dodatkowego sortowania.
+
+-- Klucz obcy: filtr po kategorii z domyślnym sortowaniem oraz ON DELETE SET NULL przy usuwaniu kategorii
+CREATE INDEX IF NOT EXISTS idx_tasks_category_created_at
+    ON tasks (category_id, created_at DESC, id DESC);
+
+-- Domyślne sortowanie listy (createdAt,desc) i TaskJdbcDao.findAllAsDtos
+CREATE INDEX IF NOT EXISTS idx_tasks_created_at
+    ON tasks (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_updated_at
+    ON tasks (updated_at DESC, id DESC);
+
+-- Sortowanie i filtry po terminie (dueDateBefore/dueDateAfter)
+CREATE INDEX IF NOT EXISTS idx_tasks_due_date
+    ON tasks (due_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_title
+    ON tasks (title, id);
+
+-- Filtr po statusie z domyślnym sortowaniem
+CREATE INDEX IF NOT EXISTS idx_tasks_status_created_at
+    ON tasks (status, created_at DESC, id DESC);
+
+-- Indeks pokrywający dla COUNT z filtrami status/kategoria/termin: wystarcza index-only scan
+CREATE INDEX IF NOT EXISTS idx_tasks_status_category_due_date
+    ON tasks (status, category_id) INCLUDE (due_date);
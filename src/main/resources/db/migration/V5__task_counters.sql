@@ -0,0 +1,16 @@
+-- src/main/resources/db/migration/V5__task_counters.sql
+
+-- Liczniki zadań na (status, kategoria), aktualizowane w tej samej transakcji co zapis zadania.
+-- Statystyki bez filtrów czytają O(#statusów x #kategorii) wierszy zamiast liczyć całą tabelę tasks.
+-- category_id = 0 oznacza zadania bez kategorii (klucz główny nie może zawierać NULL).
+CREATE TABLE task_counters (
+    status      VARCHAR(20) NOT NULL,
+    category_id BIGINT      NOT NULL DEFAULT 0,
+    task_count  BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (status, category_id)
+);
+
+INSERT INTO task_counters (status, category_id, task_count)
+SELECT status, COALESCE(category_id, 0), COUNT(*)
+FROM tasks
+GROUP BY status, COALESCE(category_id, 0);
@@ -0,0 +1,10 @@
+-- src/main/resources/db/migration/V6__task_external_id.sql
+
+-- Identyfikator zadania w zewnętrznym systemie, z którego zadania są synchronizowane (PUT /api/v1/tasks/sync).
+-- Ograniczenie UNIQUE jest celem INSERT ... ON CONFLICT (external_id); zadania tworzone w aplikacji mają NULL,
+-- a wartości NULL nie kolidują ze sobą.
+ALTER TABLE tasks
+    ADD COLUMN external_id VARCHAR(100);
+
+ALTER TABLE tasks
+    ADD CONSTRAINT uk_tasks_external_id UNIQUE (external_id);
@@ -0,0 +1,6 @@
+-- src/main/resources/db/migration/V7__task_version.sql
+
+-- Wersja zadania do optymistycznej kontroli współbieżności (ETag / If-Match w PATCH /api/v1/tasks/{id}).
+-- Każdy UPDATE zadania zwiększa wersję o 1; istniejące zadania startują od 0.
+ALTER TABLE tasks
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,138 @@
+package com.example.task.benchmark;
+
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.service.csv.CsvEncoder;
+import com.example.task.service.csv.TaskCsvLayout;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porównanie CsvEncoder z poprzednimi eksportami CSV (commons-csv w API, printf + escapeCsv w widoku www).
+ * Zapis do strumienia, który odrzuca bajty, więc mierzony jest sam koszt kodowania.
+ * Uruchomienie (po mvn test-compile) metodą main z IDE albo przez org.openjdk.jmh.Main z classpathem testów,
+ * np. {@code java -cp ... org.openjdk.jmh.Main CsvExportBenchmark -prof gc};
+ * wynik gc.alloc.rate.norm to bajty alokowane na cały eksport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvExportBenchmark {
+
+    @Param({"1000"})
+    private int rows;
+
+    private List<TaskDto> tasks;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() {
+        tasks = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            TaskDto dto = new TaskDto();
+            dto.setId((long) i);
+            dto.setTitle("Zadanie numer " + i + (i % 10 == 0 ? ", z przecinkiem" : ""));
+            dto.setDescription(i % 3 == 0 ? null : "Opis zadania \"" + i + "\" z polskimi znakami: zażółć gęślą jaźń");
+            dto.setStatus(TaskStatus.values()[i % 3]);
+            dto.setDueDate(i % 2 == 0 ? LocalDate.of(2026, 1, 1).plusDays(i % 365) : null);
+            dto.setCategoryName(i % 4 == 0 ? null : "Kategoria " + i % 7);
+            dto.setCreatedAt(LocalDateTime.of(2025, 3, 1, 12, 30).plusSeconds(i));
+            dto.setUpdatedAt(LocalDateTime.of(2025, 3, 2, 8, 0).plusNanos(i * 1_000_000L));
+            tasks.add(dto);
+        }
+    }
+
+    @Benchmark
+    public void apiCommonsCsv() throws IOException {
+        CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(sink, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.withHeader("ID", "Tytuł", "Opis", "Status", "Termin", "Kategoria", "Utworzono", "Zaktualizowano"));
+        for (TaskDto t : tasks) {
+            printer.printRecord(
+                    t.getId(),
+                    t.getTitle(),
+                    t.getDescription() != null ? t.getDescription() : "",
+                    t.getStatus() != null ? t.getStatus().name() : "",
+                    t.getDueDate() != null ? t.getDueDate() : "",
+                    t.getCategoryName() != null ? t.getCategoryName() : "Brak",
+                    t.getCreatedAt(),
+                    t.getUpdatedAt());
+        }
+        printer.flush();
+    }
+
+    @Benchmark
+    public void apiCsvEncoder() throws IOException {
+        export(TaskCsvLayout.API);
+    }
+
+    @Benchmark
+    public void webPrintf() {
+        PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(sink, StandardCharsets.UTF_8)));
+        writer.println("ID;Tytuł;Opis;Status;Kategoria;Termin");
+        for (TaskDto t : tasks) {
+            writer.printf("%d;%s;%s;%s;%s;%s%n",
+                    t.getId(),
+                    escapeCsv(t.getTitle()),
+                    escapeCsv(t.getDescription()),
+                    t.getStatus(),
+                    escapeCsv(t.getCategoryName()),
+                    t.getDueDate() != null ? t.getDueDate() : "");
+        }
+        writer.flush();
+    }
+
+    @Benchmark
+    public void webCsvEncoder() throws IOException {
+        export(TaskCsvLayout.WEB);
+    }
+
+    private void export(TaskCsvLayout layout) throws IOException {
+        CsvEncoder csv = layout.open(sink);
+        for (TaskDto t : tasks) {
+            layout.row(csv, t);
+        }
+        csv.flush();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) return "";
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CsvExportBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.task.controller;
+
+import com.example.task.controller.api.ExportApiController;
+import com.example.task.exception.ConflictException;
+import com.example.task.exception.ResourceNotFoundException;
+import com.example.task.exception.TooManyRequestsException;
+import com.example.task.model.ExportFile;
+import com.example.task.model.ExportJobStatus;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.ExportJobDto;
+import com.example.task.service.ExportJobService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExportApiController.class)
+@WithMockUser
+class ExportApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportJobService exportJobService;
+
+    @TempDir
+    Path directory;
+
+    // Same znaki ASCII: przesunięcia w znakach odpowiadają bajtom
+    private static final String CONTENT = "ID,Title\r\n1,Raport kwartalny\r\n2,Przeglad\r\n";
+
+    @Test
+    void createExport_ShouldReturnAcceptedWithLocation() throws Exception {
+        when(exportJobService.submit(eq("csv"), eq("parallel"), any())).thenReturn(job("abc", ExportJobStatus.QUEUED));
+
+        mockMvc.perform(post("/api/v1/exports").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"format\":\"csv\",\"mode\":\"parallel\",\"filter\":{\"status\":[\"DONE\"],\"title\":\"raport\"}}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/exports/abc"))
+                .andExpect(jsonPath("$.id").value("abc"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+
+        verify(exportJobService).submit(eq("csv"), eq("parallel"), argThat(filter ->
+                filter.getStatuses().equals(List.of(TaskStatus.DONE)) && filter.getTitle().equals("raport")));
+    }
+
+    @Test
+    void createExport_WithoutBody_ShouldUseDefaults() throws Exception {
+        when(exportJobService.submit(eq("csv"), eq("stream"), isNull())).thenReturn(job("abc", ExportJobStatus.QUEUED));
+
+        mockMvc.perform(post("/api/v1/exports").with(csrf()))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void createExport_TooManyJobs_ShouldReturn429() throws Exception {
+        when(exportJobService.submit(any(), any(), any())).thenThrow(new TooManyRequestsException("Zbyt wiele eksportów"));
+
+        mockMvc.perform(post("/api/v1/exports").with(csrf()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void getExport_ShouldReturnProgress() throws Exception {
+        ExportJobDto dto = job("abc", ExportJobStatus.RUNNING);
+        dto.setBytesWritten(1024);
+        when(exportJobService.getJob("abc")).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/exports/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.bytesWritten").value(1024))
+                .andExpect(jsonPath("$.fileUrl").doesNotExist());
+    }
+
+    @Test
+    void getExport_Unknown_ShouldReturn404() throws Exception {
+        when(exportJobService.getJob("nope")).thenThrow(new ResourceNotFoundException("Eksport nie istnieje"));
+
+        mockMvc.perform(get("/api/v1/exports/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void downloadExport_ShouldReturnFileWithValidators() throws Exception {
+        when(exportJobService.getFile("abc")).thenReturn(file(false));
+
+        mockMvc.perform(get("/api/v1/exports/abc/file"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=zadania_abc.csv"))
+                .andExpect(header().string("ETag", "\"hash\""))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().longValue("Content-Length", CONTENT.length()))
+                .andExpect(header().doesNotExist("Vary"))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void downloadExport_Range_ShouldReturnPartialContent() throws Exception {
+        when(exportJobService.getFile("abc")).thenReturn(file(false));
+
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("Range", "bytes=4-8"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 4-8/" + CONTENT.length()))
+                .andExpect(header().longValue("Content-Length", 5))
+                .andExpect(content().string(CONTENT.substring(4, 9)));
+    }
+
+    @Test
+    void downloadExport_SuffixAndOpenRanges_ShouldResumeFromOffset() throws Exception {
+        when(exportJobService.getFile("abc")).thenReturn(file(false));
+        int length = CONTENT.length();
+
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("Range", "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes " + (length - 3) + "-" + (length - 1) + "/" + length))
+                .andExpect(content().string(CONTENT.substring(length - 3)));
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("Range", "bytes=10-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string(CONTENT.substring(10)));
+    }
+
+    @Test
+    void downloadExport_RangeBeyondEnd_ShouldReturn416() throws Exception {
+        when(exportJobService.getFile("abc")).thenReturn(file(false));
+
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("Range", "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */" + CONTENT.length()));
+    }
+
+    @Test
+    void downloadExport_MultipleRangesOrStaleIfRange_ShouldReturnWholeFile() throws Exception {
+        when(exportJobService.getFile("abc")).thenReturn(file(false));
+
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("Range", "bytes=0-1,4-5"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("Range", "bytes=4-8").header("If-Range", "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void downloadExport_MatchingIfNoneMatch_ShouldReturn304() throws Exception {
+        when(exportJobService.getFile("abc")).thenReturn(file(false));
+
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("If-None-Match", "\"other\", W/\"hash\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"hash\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void downloadExport_AcceptsGzip_ShouldServePrecompressedVariant() throws Exception {
+        when(exportJobService.getFile("abc")).thenReturn(file(true));
+
+        byte[] body = mockMvc.perform(get("/api/v1/exports/abc/file").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("ETag", "\"hash-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(CONTENT);
+        }
+        mockMvc.perform(get("/api/v1/exports/abc/file").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void downloadExport_ContainerSendfile_ShouldHandOverFileRange() throws Exception {
+        ExportFile file = file(false);
+        when(exportJobService.getFile("abc")).thenReturn(file);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/exports/abc/file").header("Range", "bytes=2-")
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string(""))
+                .andReturn();
+
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(file.identity().path().toAbsolutePath().toString());
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo((long) CONTENT.length());
+    }
+
+    @Test
+    void downloadExport_NotReady_ShouldReturn409() throws Exception {
+        when(exportJobService.getFile("abc")).thenThrow(new ConflictException("Eksport nie jest gotowy"));
+
+        mockMvc.perform(get("/api/v1/exports/abc/file"))
+                .andExpect(status().isConflict());
+    }
+
+    private ExportFile file(boolean withGzip) throws IOException {
+        Path csv = directory.resolve("abc.csv");
+        Files.writeString(csv, CONTENT);
+        ExportFile.Variant gzip = null;
+        if (withGzip) {
+            Path gz = directory.resolve("abc.csv.gz");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz))) {
+                out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+            }
+            gzip = new ExportFile.Variant(gz, Files.size(gz), "\"hash-gzip\"");
+        }
+        return new ExportFile("zadania_abc.csv", "text/csv; charset=UTF-8",
+                new ExportFile.Variant(csv, Files.size(csv), "\"hash\""), gzip);
+    }
+
+    private static ExportJobDto job(String id, ExportJobStatus status) {
+        ExportJobDto dto = new ExportJobDto();
+        dto.setId(id);
+        dto.setStatus(status);
+        return dto;
+    }
+}
@@ -1,33 +1,69 @@
 package com.example.task.controller;
 
 import com.example.task.controller.api.TaskApiController;
+import com.example.task.exception.BadRequestException;
+import com.example.task.exception.BatchValidationException;
+import com.example.task.exception.PreconditionFailedException;
+import com.example.task.exception.TooManyRequestsException;
+import com.example.task.model.BatchMode;
+import com.example.task.model.CountMode;
+import com.example.task.model.ExportMode;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.dto.CursorPageDto;
+import com.example.task.model.dto.StatisticsDto;
+import com.example.task.model.dto.TaskBatchResultDto;
+import com.example.task.model.dto.TaskBulkResultDto;
+import com.example.task.model.dto.TaskBulkUpdateDto;
 import com.example.task.model.dto.TaskCreateDto;
 import com.example.task.model.dto.TaskDto;
+import com.example.task.model.dto.TaskImportResultDto;
+import com.example.task.model.dto.TaskOperationsResultDto;
+import com.example.task.model.dto.TaskSyncDto;
+import com.example.task.model.dto.TaskSyncResultDto;
 import com.example.task.model.TaskStatus;
+import com.example.task.service.TaskBatchService;
+import com.example.task.service.TaskImportService;
+import com.example.task.service.TaskParallelExporter;
 import com.example.task.service.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// Bez łańcucha filtrów: treść strumieniowa pisze do odpowiedzi w wątku async, a filtr nagłówków Spring Security
+// dopisywałby nagłówki równolegle z wątku żądania (ConcurrentModificationException w MockHttpServletResponse)
 @WebMvcTest(TaskApiController.class)
-@WithMockUser
+@AutoConfigureMockMvc(addFilters = false)
 class TaskApiControllerTest {
 
     @Autowired
@@ -36,6 +72,12 @@ class TaskApiControllerTest {
     @MockBean
     private TaskService taskService;
 
+    @MockBean
+    private TaskImportService taskImportService;
+
+    @MockBean
+    private TaskBatchService taskBatchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -65,6 +107,18 @@ class TaskApiControllerTest {
         verify(taskService, times(1)).getTaskById(1L);
     }
 
+    @Test
+    void getTaskById_ShouldReturnVersionAsETag() throws Exception {
+        TaskDto dto = new TaskDto();
+        dto.setId(1L);
+        dto.setVersion(7L);
+        when(taskService.getTaskById(1L)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/tasks/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7\""));
+    }
+
     // -------------------- POST /tasks --------------------
     @Test
     void createTask_ShouldReturnCreated() throws Exception {
@@ -141,6 +195,91 @@ class TaskApiControllerTest {
         verify(taskService, times(1)).updateTask(eq(1L), any());
     }
 
+    // -------------------- PATCH /tasks/{id} --------------------
+    @Test
+    void patchTask_ShouldPassIfMatchVersionAndReturnETag() throws Exception {
+        TaskDto dto = new TaskDto();
+        dto.setId(1L);
+        dto.setStatus(TaskStatus.DONE);
+        dto.setVersion(4L);
+        ArgumentCaptor<JsonNode> patch = ArgumentCaptor.forClass(JsonNode.class);
+        when(taskService.patchTask(eq(1L), patch.capture(), eq(Set.of(3L)))).thenReturn(dto);
+
+        mockMvc.perform(patch("/api/v1/tasks/1").with(csrf())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content("{\"status\":\"DONE\",\"dueDate\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version").value(4));
+
+        assertThat(patch.getValue().get("dueDate").isNull()).isTrue();
+        assertThat(patch.getValue().get("status").asText()).isEqualTo("DONE");
+    }
+
+    @Test
+    void patchTask_WithoutIfMatch_ShouldPatchUnconditionally() throws Exception {
+        when(taskService.patchTask(eq(1L), any(), isNull())).thenReturn(new TaskDto());
+
+        mockMvc.perform(patch("/api/v1/tasks/1").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Nowy\"}"))
+                .andExpect(status().isOk());
+
+        verify(taskService).patchTask(eq(1L), any(), isNull());
+    }
+
+    @Test
+    void patchTask_VersionMismatch_ShouldReturn412() throws Exception {
+        when(taskService.patchTask(eq(1L), any(), eq(Set.of(2L))))
+                .thenThrow(new PreconditionFailedException("Zadanie o id 1 ma wersję 5, a nie 2 (If-Match); pobierz je ponownie"));
+
+        mockMvc.perform(patch("/api/v1/tasks/1").with(csrf())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.detail").value("Zadanie o id 1 ma wersję 5, a nie 2 (If-Match); pobierz je ponownie"));
+    }
+
+    @Test
+    void patchTask_IfMatchList_ShouldPassStrongVersions() throws Exception {
+        when(taskService.patchTask(eq(1L), any(), any())).thenReturn(new TaskDto());
+
+        mockMvc.perform(patch("/api/v1/tasks/1").with(csrf())
+                        .contentType("application/merge-patch+json")
+                        .header(HttpHeaders.IF_MATCH, "\"2\", W/\"3\",\"abc\" ,\"4\"")
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isOk());
+
+        verify(taskService).patchTask(eq(1L), any(), eq(Set.of(2L, 4L)));
+    }
+
+    @Test
+    void patchTask_OnlyWeakOrNonNumericIfMatch_ShouldPassEmptyVersionSet() throws Exception {
+        for (String ifMatch : new String[]{"W/\"3\"", "\"abc\""}) {
+            mockMvc.perform(patch("/api/v1/tasks/1").with(csrf())
+                    .contentType("application/merge-patch+json")
+                    .header(HttpHeaders.IF_MATCH, ifMatch)
+                    .content("{\"status\":\"DONE\"}"));
+        }
+
+        verify(taskService, times(2)).patchTask(eq(1L), any(), eq(Set.of()));
+    }
+
+    @Test
+    void patchTask_MalformedIfMatch_ShouldReturn400WithoutCallingService() throws Exception {
+        for (String ifMatch : new String[]{"3", "\"3", "\"1\" \"2\"", "\"1\", *"}) {
+            mockMvc.perform(patch("/api/v1/tasks/1").with(csrf())
+                            .contentType("application/merge-patch+json")
+                            .header(HttpHeaders.IF_MATCH, ifMatch)
+                            .content("{\"status\":\"DONE\"}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verifyNoInteractions(taskService);
+    }
+
     // -------------------- DELETE /tasks/{id} --------------------
     @Test
     void deleteTask_ShouldReturnNoContent() throws Exception {
@@ -177,51 +316,360 @@ class TaskApiControllerTest {
 
     // -------------------- GET /tasks/export/csv --------------------
     @Test
-    void exportTasksToCsv_ShouldReturnCsv() throws Exception {
-        TaskDto dto = new TaskDto();
-        dto.setId(1L); dto.setTitle("CSV Task");
+    void exportTasksToCsv_ShouldStreamCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("ID,Tytuł\n1,CSV Task\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(taskService).exportTasksCsv(any(TaskFilter.class), eq(ExportMode.STREAM), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export/csv").param("status", "TODO"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("attachment; filename=zadania_")))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("1,CSV Task")));
 
-        when(taskService.getAllTasksJdbc()).thenReturn(List.of(dto));
+        ArgumentCaptor<TaskFilter> captor = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskService, times(1)).exportTasksCsv(captor.capture(), eq(ExportMode.STREAM), any(OutputStream.class));
+        assertThat(captor.getValue().getStatuses()).containsExactly(TaskStatus.TODO);
+        verify(taskService, never()).getAllTasksJdbc();
+    }
 
-        mockMvc.perform(get("/api/v1/tasks/export/csv"))
+    @Test
+    void exportTasksToCsv_ShouldHandleException() throws Exception {
+        when(taskService.exportTasksCsv(any(TaskFilter.class), any(ExportMode.class), any(OutputStream.class)))
+                .thenThrow(new RuntimeException("IO Error"));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Nagłówki CSV są już ustalone, więc błąd nie zamienia się w odpowiedź JSON, tylko przerywa strumień
+        assertThatThrownBy(() -> mockMvc.perform(asyncDispatch(result)))
+                .hasRootCauseMessage("IO Error");
+
+        verify(taskService, times(1)).exportTasksCsv(any(TaskFilter.class), any(ExportMode.class), any(OutputStream.class));
+    }
+
+    @Test
+    void exportTasksToCsv_CopyMode_ShouldPassMode() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export/csv").param("mode", "copy"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        verify(taskService).exportTasksCsv(any(TaskFilter.class), eq(ExportMode.COPY), any(OutputStream.class));
+    }
+
+    @Test
+    void exportTasksToCsv_NulInFilter_ShouldReturnBadRequestBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/export/csv").param("mode", "copy").param("title", "a\u0000b"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void exportTasksToCsv_ParallelMode_ShouldReserveBeforeStreaming() throws Exception {
+        TaskParallelExporter.Reservation reservation = mock(TaskParallelExporter.Reservation.class);
+        when(taskService.reserveParallelExport()).thenReturn(reservation);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export/csv").param("mode", "parallel"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        verify(taskService).exportTasksCsvParallel(any(TaskFilter.class), eq(reservation), any(OutputStream.class));
+        verify(taskService, never()).exportTasksCsv(any(TaskFilter.class), any(ExportMode.class), any(OutputStream.class));
+    }
+
+    @Test
+    void exportTasksToCsv_ParallelMode_ShouldReleaseReservationWhenAsyncEnds() throws Exception {
+        TaskParallelExporter.Reservation reservation = mock(TaskParallelExporter.Reservation.class);
+        when(taskService.reserveParallelExport()).thenReturn(reservation);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/export/csv").param("mode", "parallel"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+        verify(reservation, never()).close();
+
+        // Koniec obsługi asynchronicznej (także timeout lub zerwane połączenie) zwalnia rezerwację
+        result.getRequest().getAsyncContext().complete();
+
+        verify(reservation).close();
+    }
+
+    @Test
+    void exportTasksToCsv_ParallelModeOverLimit_ShouldReturn429() throws Exception {
+        when(taskService.reserveParallelExport()).thenThrow(new TooManyRequestsException("Zbyt wiele eksportów równoległych"));
+
+        mockMvc.perform(get("/api/v1/tasks/export/csv").param("mode", "parallel"))
+                .andExpect(status().isTooManyRequests());
+
+        verify(taskService, never()).exportTasksCsvParallel(any(), any(), any());
+    }
+
+    @Test
+    void exportTasksToCsv_UnknownMode_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/export/csv").param("mode", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskService);
+    }
+
+    // -------------------- GET /tasks/stream --------------------
+    @Test
+    void streamTasks_ShouldWriteNdjsonWithFilters() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(taskService).streamTasksNdjson(any(TaskFilter.class), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/stream").param("status", "TODO,DONE").param("q", "raport"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("attachment; filename=zadania_")));
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        ArgumentCaptor<TaskFilter> captor = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskService).streamTasksNdjson(captor.capture(), any(OutputStream.class));
+        assertThat(captor.getValue().getStatuses()).containsExactly(TaskStatus.TODO, TaskStatus.DONE);
+        assertThat(captor.getValue().getQ()).isEqualTo("raport");
+        verify(taskService, never()).getAllTasksJdbc();
+    }
 
-        verify(taskService, times(1)).getAllTasksJdbc();
+    // -------------------- POST /tasks/import --------------------
+    @Test
+    void importTasks_ShouldPassRequestBodyAndReturnReport() throws Exception {
+        TaskImportResultDto report = new TaskImportResultDto();
+        report.setRowsRead(2);
+        report.setImported(1);
+        report.setRejected(1);
+        report.getErrors().add(new TaskImportResultDto.RowError(2, "Tytuł jest wymagany"));
+        when(taskImportService.importCsv(any())).thenAnswer(invocation -> {
+            String body = new String(invocation.getArgument(0, java.io.InputStream.class).readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(body).startsWith("ID,Tytuł");
+            return report;
+        });
+
+        mockMvc.perform(post("/api/v1/tasks/import").with(csrf())
+                        .contentType("text/csv")
+                        .content("ID,Tytuł,Opis,Status\r\n1,Raport,,TODO\r\n2,,,TODO\r\n".getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Tytuł jest wymagany"));
     }
 
     @Test
-    void exportTasksToCsv_ShouldHandleException() throws Exception {
-        when(taskService.getAllTasksJdbc()).thenThrow(new RuntimeException("IO Error"));
+    void importTasks_JsonBody_ShouldReturn415() throws Exception {
+        mockMvc.perform(post("/api/v1/tasks/import").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
 
-        mockMvc.perform(get("/api/v1/tasks/export/csv"))
-                .andExpect(status().isInternalServerError());
+        verifyNoInteractions(taskImportService);
+    }
 
-        verify(taskService, times(1)).getAllTasksJdbc();
+    // -------------------- POST /tasks/batch --------------------
+    @Test
+    void createTasksBatch_AllCreated_ShouldReturn201WithIds() throws Exception {
+        TaskBatchResultDto result = new TaskBatchResultDto();
+        result.setReceived(2);
+        result.setCreated(2);
+        result.setIds(List.of(10L, 11L));
+        when(taskBatchService.createTasks(any(), eq(BatchMode.ATOMIC))).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/tasks/batch").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"A\",\"status\":\"TODO\"},{\"title\":\"B\",\"status\":\"DONE\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.ids[0]").value(10))
+                .andExpect(jsonPath("$.ids[1]").value(11));
+    }
+
+    @Test
+    void createTasksBatch_BestEffortWithRejected_ShouldReturn200() throws Exception {
+        TaskBatchResultDto result = new TaskBatchResultDto();
+        result.setReceived(2);
+        result.setCreated(1);
+        result.setRejected(1);
+        result.setIds(java.util.Arrays.asList(null, 11L));
+        result.getErrors().add(new TaskBatchResultDto.ItemError(0, "Tytuł jest wymagany"));
+        when(taskBatchService.createTasks(any(), eq(BatchMode.BEST_EFFORT))).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/tasks/batch?mode=best-effort").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"status\":\"TODO\"},{\"title\":\"B\",\"status\":\"DONE\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids[0]").doesNotExist())
+                .andExpect(jsonPath("$.errors[0].index").value(0));
+    }
+
+    @Test
+    void createTasksBatch_AtomicRejected_ShouldReturn400WithItemErrors() throws Exception {
+        when(taskBatchService.createTasks(any(), eq(BatchMode.ATOMIC))).thenThrow(new BatchValidationException(
+                "Odrzucono 1 z 2 zadań", List.of(new TaskBatchResultDto.ItemError(1, "Status jest wymagany"))));
+
+        mockMvc.perform(post("/api/v1/tasks/batch").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Odrzucono 1 z 2 zadań"))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("Status jest wymagany"));
+    }
+
+    @Test
+    void createTasksBatch_UnknownMode_ShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/v1/tasks/batch?mode=sometimes").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(taskBatchService);
+    }
+
+    // -------------------- POST /tasks/_batch --------------------
+    @Test
+    void executeOperations_ShouldReturnPerOperationResults() throws Exception {
+        TaskOperationsResultDto result = new TaskOperationsResultDto();
+        result.setReceived(2);
+        result.setSucceeded(1);
+        result.setFailed(1);
+        result.getResults().add(new TaskOperationsResultDto.OperationResult(0, "create", 201, 15L, null));
+        result.getResults().add(new TaskOperationsResultDto.OperationResult(1, "delete", 404, 7L, "Zadanie o id 7 nie istnieje"));
+        when(taskBatchService.executeOperations(any(), eq(BatchMode.BEST_EFFORT))).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/tasks/_batch?mode=best-effort").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"op\":\"create\",\"task\":{\"title\":\"A\",\"status\":\"TODO\"}},{\"op\":\"delete\",\"id\":7}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].id").value(15))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].error").value("Zadanie o id 7 nie istnieje"));
+    }
+
+    // -------------------- PUT /tasks/sync --------------------
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncTasks_ShouldReturnCounts() throws Exception {
+        TaskSyncResultDto result = new TaskSyncResultDto();
+        result.setReceived(2);
+        result.setInserted(1);
+        result.setUnchanged(1);
+        ArgumentCaptor<List<TaskSyncDto>> tasks = ArgumentCaptor.forClass(List.class);
+        when(taskBatchService.syncTasks(tasks.capture())).thenReturn(result);
+
+        mockMvc.perform(put("/api/v1/tasks/sync").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"externalId\":\"ext-1\",\"title\":\"A\",\"status\":\"TODO\"},"
+                                + "{\"externalId\":\"ext-2\",\"title\":\"B\",\"status\":\"DONE\",\"dueDate\":\"2026-03-01\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.unchanged").value(1));
+
+        assertThat(tasks.getValue()).extracting(TaskSyncDto::getExternalId).containsExactly("ext-1", "ext-2");
+        assertThat(tasks.getValue().get(1).getDueDate()).isEqualTo(LocalDate.of(2026, 3, 1));
     }
 
+    // -------------------- PATCH/DELETE /tasks?filtr --------------------
+    @Test
+    void updateTasksByFilter_ShouldBindFilterAndBody() throws Exception {
+        TaskBulkResultDto result = new TaskBulkResultDto();
+        result.setAffected(120);
+        result.setChunks(1);
+        ArgumentCaptor<TaskFilter> filter = ArgumentCaptor.forClass(TaskFilter.class);
+        ArgumentCaptor<TaskBulkUpdateDto> update = ArgumentCaptor.forClass(TaskBulkUpdateDto.class);
+        when(taskBatchService.updateTasks(filter.capture(), update.capture())).thenReturn(result);
+
+        mockMvc.perform(patch("/api/v1/tasks?status=TODO,IN_PROGRESS&categoryId=3").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\",\"clearDueDate\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(120));
+
+        assertThat(filter.getValue().getStatuses()).containsExactly(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        assertThat(filter.getValue().getCategoryIds()).containsExactly(3L);
+        assertThat(update.getValue().getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(update.getValue().isClearDueDate()).isTrue();
+    }
+
+    @Test
+    void deleteTasksByFilter_ShouldReturnAffectedCount() throws Exception {
+        TaskBulkResultDto result = new TaskBulkResultDto();
+        result.setAffected(7);
+        when(taskBatchService.deleteTasks(any())).thenReturn(result);
+
+        mockMvc.perform(delete("/api/v1/tasks?status=DONE&categoryName=Praca").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(7));
+
+        verify(taskBatchService).deleteTasks(argThat(f -> "Praca".equals(f.getCategoryName())));
+    }
+
+    @Test
+    void deleteTasksByFilter_WithoutFilter_ShouldReturn400() throws Exception {
+        when(taskBatchService.deleteTasks(any()))
+                .thenThrow(new BadRequestException("Operacja masowa wymaga co najmniej jednego filtra"));
+
+        mockMvc.perform(delete("/api/v1/tasks").with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("Operacja masowa wymaga co najmniej jednego filtra"));
+    }
+
+    // -------------------- GET /tasks/statistics --------------------
+    @Test
+    void getStatistics_ShouldReturnJsonWithFilters() throws Exception {
+        StatisticsDto stats = new StatisticsDto(3, Map.of("TODO", 3L), Map.of("Praca", 3L), Map.of("TODO", Map.of("Praca", 3L)));
+        when(taskService.getTaskStatistics(any(TaskFilter.class))).thenReturn(stats);
+
+        mockMvc.perform(get("/api/v1/tasks/statistics").param("status", "TODO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTasks").value(3))
+                .andExpect(jsonPath("$.tasksByStatusAndCategory.TODO.Praca").value(3));
+
+        ArgumentCaptor<TaskFilter> captor = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskService).getTaskStatistics(captor.capture());
+        assertThat(captor.getValue().getStatuses()).containsExactly(TaskStatus.TODO);
+    }
 
     // -------------------- GET /tasks/export/statistics/csv --------------------
     @Test
     void exportStatisticsCsv_ShouldReturnCsv() throws Exception {
         List<String[]> rows = List.of(new String[]{"Typ", "Wartość"}, new String[]{"Total", "1"});
-        when(taskService.getStatisticsForCsv()).thenReturn(rows);
+        when(taskService.getStatisticsForCsv(any(TaskFilter.class))).thenReturn(rows);
 
         mockMvc.perform(get("/api/v1/tasks/export/statistics/csv"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", org.hamcrest.Matchers.containsString("statystyki_")));
 
-        verify(taskService, times(1)).getStatisticsForCsv();
+        verify(taskService, times(1)).getStatisticsForCsv(any(TaskFilter.class));
     }
 
     @Test
     void exportStatisticsCsv_ShouldHandleException() throws Exception {
-        when(taskService.getStatisticsForCsv()).thenThrow(new RuntimeException("IO Error"));
+        when(taskService.getStatisticsForCsv(any(TaskFilter.class))).thenThrow(new RuntimeException("IO Error"));
 
         mockMvc.perform(get("/api/v1/tasks/export/statistics/csv"))
                 .andExpect(status().isInternalServerError());
 
-        verify(taskService, times(1)).getStatisticsForCsv();
+        verify(taskService, times(1)).getStatisticsForCsv(any(TaskFilter.class));
     }
 
 
@@ -235,12 +683,108 @@ class TaskApiControllerTest {
         org.springframework.data.domain.Page<TaskDto> page =
                 new org.springframework.data.domain.PageImpl<>(List.of(dto));
 
-        when(taskService.getTasksWithFilters(null, null, null, null, null, 0, 9, "createdAt,desc")).thenReturn(page);
+        when(taskService.getTasksWithFilters(any(TaskFilter.class), eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.EXACT))).thenReturn(page);
 
         mockMvc.perform(get("/api/v1/tasks"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].title").value("Filtered Task"));
 
-        verify(taskService, times(1)).getTasksWithFilters(null, null, null, null, null, 0, 9, "createdAt,desc");
+        verify(taskService, times(1)).getTasksWithFilters(any(TaskFilter.class), eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.EXACT));
+    }
+
+    // -------------------- GET /tasks?after= (keyset) --------------------
+    @Test
+    void getTasksAfter_ShouldReturnCursorPage() throws Exception {
+        TaskDto dto = new TaskDto();
+        dto.setId(1L);
+        dto.setTitle("Cursor Task");
+
+        when(taskService.getTasksAfter(any(TaskFilter.class), eq("abc"), eq(9), eq("createdAt,desc")))
+                .thenReturn(new CursorPageDto<>(List.of(dto), 9, true, "next"));
+
+        mockMvc.perform(get("/api/v1/tasks").param("after", "abc").param("status", "TODO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Cursor Task"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(taskService, never()).getTasksWithFilters(any(TaskFilter.class), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void getTasksAfter_InvalidCursor_ShouldReturn400() throws Exception {
+        when(taskService.getTasksAfter(any(TaskFilter.class), eq("zly"), anyInt(), any()))
+                .thenThrow(new BadRequestException("Niepoprawny kursor: zly"));
+
+        mockMvc.perform(get("/api/v1/tasks").param("after", "zly"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTasks_CountNone_ShouldReturnSliceWithoutTotal() throws Exception {
+        TaskDto dto = new TaskDto();
+        dto.setId(1L);
+        dto.setTitle("Slice Task");
+
+        when(taskService.getTasksWithFilters(any(TaskFilter.class), eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.NONE)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 9), true));
+
+        mockMvc.perform(get("/api/v1/tasks").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Slice Task"))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getTasks_UnknownCountMode_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks").param("count", "sometimes"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasksWithFilters(any(TaskFilter.class), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void getTasks_WithFullTextQuery_ShouldPassQueryAndFilters() throws Exception {
+        TaskDto dto = new TaskDto();
+        dto.setId(1L);
+        dto.setTitle("Raport kwartalny");
+        dto.setHighlight("<mark>Raport</mark> kwartalny");
+
+        when(taskService.getTasksWithFilters(any(TaskFilter.class), eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.EXACT)))
+                .thenReturn(new org.springframework.data.domain.PageImpl<>(List.of(dto)));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("q", "raport -szkic")
+                        .param("status", "TODO")
+                        .param("categoryId", "3")
+                        .param("dueDateBefore", "2026-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].highlight").value("<mark>Raport</mark> kwartalny"));
+
+        ArgumentCaptor<TaskFilter> filter = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskService).getTasksWithFilters(filter.capture(), eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.EXACT));
+        assertThat(filter.getValue().getQ()).isEqualTo("raport -szkic");
+        assertThat(filter.getValue().getStatuses()).containsExactly(TaskStatus.TODO);
+        assertThat(filter.getValue().getCategoryIds()).containsExactly(3L);
+        assertThat(filter.getValue().getDueDateBefore()).isEqualTo(LocalDate.of(2026, 12, 31));
+    }
+
+    @Test
+    void getTasks_MultiValuedFilters_ShouldBindLists() throws Exception {
+        when(taskService.getTasksWithFilters(any(TaskFilter.class), eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.EXACT)))
+                .thenReturn(new org.springframework.data.domain.PageImpl<>(List.of()));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("status", "TODO,IN_PROGRESS")
+                        .param("categoryId", "1", "2")
+                        .param("categoryName", "dom"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<TaskFilter> filter = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskService).getTasksWithFilters(filter.capture(), eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.EXACT));
+        assertThat(filter.getValue().getStatuses()).containsExactly(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        assertThat(filter.getValue().getCategoryIds()).containsExactly(1L, 2L);
+        assertThat(filter.getValue().getCategoryName()).isEqualTo("dom");
     }
 }
@@ -1,12 +1,16 @@
 package com.example.task.controller;
 
 import com.example.task.controller.web.TaskWebController;
+import com.example.task.model.CountMode;
+import com.example.task.model.TaskFilter;
 import com.example.task.model.TaskStatus;
 import com.example.task.model.dto.CategoryDto;
 import com.example.task.model.dto.TaskCreateDto;
 import com.example.task.model.dto.TaskDto;
 import com.example.task.service.CategoryService;
 import com.example.task.service.TaskService;
+import com.example.task.service.csv.CsvEncoder;
+import com.example.task.service.csv.TaskCsvLayout;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,9 +18,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -58,7 +65,7 @@ class TaskWebControllerTest {
 
         Page<TaskDto> page = new PageImpl<>(List.of(dto));
 
-        when(taskService.getTasksWithFilters(any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString()))
+        when(taskService.getTasksWithFilters(any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), any()))
                 .thenReturn(page);
         when(categoryService.getAllCategories()).thenReturn(List.of());
 
@@ -71,7 +78,7 @@ class TaskWebControllerTest {
     @Test
     void listTasks_WithFilters_ShouldPassParams() throws Exception {
         when(taskService.getTasksWithFilters(eq(TaskStatus.TODO), eq(1L), any(), any(), eq("abc"),
-                eq(0), eq(9), eq("createdAt,desc")))
+                eq(0), eq(9), eq("createdAt,desc"), eq(CountMode.EXACT)))
                 .thenReturn(Page.empty());
 
         when(categoryService.getAllCategories()).thenReturn(List.of());
@@ -181,17 +188,17 @@ class TaskWebControllerTest {
     // ---------- GET /tasks/download ----------
     @Test
     void downloadCsv_ShouldReturnCsv() throws Exception {
-        when(taskService.getAllTasksJdbc()).thenReturn(List.of());
-
         mockMvc.perform(get("/tasks/download"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", "attachment; filename=zadania.csv"));
+
+        verify(taskService).exportTasksCsv(any(TaskFilter.class), eq(TaskCsvLayout.WEB), any(OutputStream.class));
     }
 
     // ---------- GET /tasks/statistics/download ----------
     @Test
     void downloadStatisticsCsv_ShouldReturnCsv() throws Exception {
-        when(taskService.getStatisticsForCsv()).thenReturn(List.<String[]>of(new String[]{"A", "1"}));
+        when(taskService.getStatisticsForCsv(any(TaskFilter.class))).thenReturn(List.<String[]>of(new String[]{"A", "1"}));
 
         mockMvc.perform(get("/tasks/statistics/download"))
                 .andExpect(status().isOk())
@@ -200,7 +207,7 @@ class TaskWebControllerTest {
     // ---------- ADDITIONAL TESTS ----------
     @Test
     void listTasks_Empty_ShouldReturnListView() throws Exception {
-        when(taskService.getTasksWithFilters(any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString()))
+        when(taskService.getTasksWithFilters(any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), any()))
                 .thenReturn(Page.empty());
         when(categoryService.getAllCategories()).thenReturn(List.of());
 
@@ -266,18 +273,28 @@ class TaskWebControllerTest {
         dto.setCategoryName("Cat");
         dto.setDueDate(LocalDate.of(2026, 1, 6));
 
-        when(taskService.getAllTasksJdbc()).thenReturn(List.of(dto));
+        doAnswer(invocation -> {
+            TaskCsvLayout layout = invocation.getArgument(1);
+            CsvEncoder csv = layout.open(invocation.getArgument(2));
+            layout.row(csv, dto);
+            csv.flush();
+            return 1L;
+        }).when(taskService).exportTasksCsv(any(TaskFilter.class), eq(TaskCsvLayout.WEB), any(OutputStream.class));
 
         mockMvc.perform(get("/tasks/download"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", "attachment; filename=zadania.csv"))
                 .andExpect(content().string(org.hamcrest.Matchers.containsString("CSV Task")))
-                .andExpect(content().string(org.hamcrest.Matchers.containsString("TODO")));
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("1;\"CSV Task\";\"Desc\";TODO;\"Cat\";2026-01-06")));
     }
 
     @Test
     void downloadCsv_EmptyList_ShouldContainHeaderOnly() throws Exception {
-        when(taskService.getAllTasksJdbc()).thenReturn(List.of());
+        doAnswer(invocation -> {
+            TaskCsvLayout layout = invocation.getArgument(1);
+            layout.open(invocation.getArgument(2)).flush();
+            return 0L;
+        }).when(taskService).exportTasksCsv(any(TaskFilter.class), eq(TaskCsvLayout.WEB), any(OutputStream.class));
 
         mockMvc.perform(get("/tasks/download"))
                 .andExpect(status().isOk())
@@ -293,7 +310,13 @@ class TaskWebControllerTest {
         dto.setDescription("Desc\nWithNewline");
         dto.setStatus(TaskStatus.TODO);
 
-        when(taskService.getAllTasksJdbc()).thenReturn(List.of(dto));
+        doAnswer(invocation -> {
+            TaskCsvLayout layout = invocation.getArgument(1);
+            CsvEncoder csv = layout.open(invocation.getArgument(2));
+            layout.row(csv, dto);
+            csv.flush();
+            return 1L;
+        }).when(taskService).exportTasksCsv(any(TaskFilter.class), eq(TaskCsvLayout.WEB), any(OutputStream.class));
 
         mockMvc.perform(get("/tasks/download"))
                 .andExpect(status().isOk())
@@ -318,4 +341,22 @@ class TaskWebControllerTest {
                 .andExpect(model().attributeExists("task", "categories"));
     }
 
+
+    @Test
+    void listTasks_CountNone_ShouldRenderWithoutTotal() throws Exception {
+        TaskDto dto = new TaskDto();
+        dto.setId(1L);
+        dto.setTitle("Slice");
+        dto.setStatus(TaskStatus.TODO);
+
+        when(taskService.getTasksWithFilters(any(), any(), any(), any(), any(), anyInt(), anyInt(), anyString(), eq(CountMode.NONE)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 9), true));
+        when(categoryService.getAllCategories()).thenReturn(List.of());
+
+        mockMvc.perform(get("/tasks").param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("tasks/list"))
+                .andExpect(model().attribute("totalKnown", false))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("Następna")));
+    }
 }
@@ -75,4 +75,40 @@ class CategoryRepositoryTest {
 
         assertThat(categoryRepository.existsById(saved.getId())).isTrue();
     }
+
+    @Test
+    void findIdsByNameLike_ShouldMatchCaseInsensitive() {
+        Category home = new Category();
+        home.setName("Dom");
+        Category garden = new Category();
+        garden.setName("Ogród przy domu");
+        Category work = new Category();
+        work.setName("Praca");
+        home = categoryRepository.save(home);
+        garden = categoryRepository.save(garden);
+        categoryRepository.save(work);
+
+        assertThat(categoryRepository.findIdsByNameLike(TaskSpecifications.containsPattern("DOM")))
+                .containsExactlyInAnyOrder(home.getId(), garden.getId());
+    }
+
+    @Test
+    void findIdsByNameLike_ShouldTreatWildcardsLiterally() {
+        Category percent = new Category();
+        percent.setName("Rabat 100%");
+        Category underscore = new Category();
+        underscore.setName("dom_1");
+        Category other = new Category();
+        other.setName("Rabat 1000 zł, domx1");
+        percent = categoryRepository.save(percent);
+        underscore = categoryRepository.save(underscore);
+        categoryRepository.save(other);
+
+        assertThat(categoryRepository.findIdsByNameLike(TaskSpecifications.containsPattern("0%")))
+                .containsExactly(percent.getId());
+        assertThat(categoryRepository.findIdsByNameLike(TaskSpecifications.containsPattern("m_1")))
+                .containsExactly(underscore.getId());
+        assertThat(categoryRepository.findIdsByNameLike(TaskSpecifications.containsPattern("%")))
+                .containsExactly(percent.getId());
+    }
 }
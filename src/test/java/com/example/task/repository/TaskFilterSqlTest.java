@@ -0,0 +1,134 @@
+package com.example.task.repository;
+
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Porównuje SQL generowany przez TaskSpecifications dla każdej kombinacji filtrów:
+ * w klauzuli WHERE mają być tylko predykaty podanych filtrów, bez "(? is null or ...)".
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.task.repository.TaskFilterSqlTest$SqlCapture")
+class TaskFilterSqlTest {
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private static final String[] PREDICATES = {
+            "t1_0.status in (?,?)",
+            "t1_0.category_id=?",
+            "t1_0.due_date<?",
+            "t1_0.due_date>?",
+            "lower(t1_0.title) like ? escape '\\'"
+    };
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void clear() {
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    static Stream<Integer> filterCombinations() {
+        return IntStream.range(0, 1 << PREDICATES.length).boxed();
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    void findSlice_ShouldEmitOnlySuppliedPredicates(int mask) {
+        TaskFilter filter = new TaskFilter();
+        List<String> expected = new ArrayList<>();
+        if ((mask & 1) != 0) {
+            filter.setStatuses(List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS));
+            expected.add(PREDICATES[0]);
+        }
+        if ((mask & 2) != 0) {
+            filter.setCategoryIds(List.of(1L));
+            expected.add(PREDICATES[1]);
+        }
+        if ((mask & 4) != 0) {
+            filter.setDueDateBefore(LocalDate.of(2030, 1, 1));
+            expected.add(PREDICATES[2]);
+        }
+        if ((mask & 8) != 0) {
+            filter.setDueDateAfter(LocalDate.of(2020, 1, 1));
+            expected.add(PREDICATES[3]);
+        }
+        if ((mask & 16) != 0) {
+            filter.setTitle("raport");
+            expected.add(PREDICATES[4]);
+        }
+
+        taskRepository.findSlice(filter, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        String expectedWhere = expected.isEmpty() ? "" : " where " + String.join(" and ", expected);
+        assertThat(SqlCapture.STATEMENTS).hasSize(1);
+        assertThat(whereClause(SqlCapture.STATEMENTS.get(0))).isEqualTo(expectedWhere);
+    }
+
+    @Test
+    void findSlice_SingleStatusAndManyCategories_ShouldUseEqualityAndIn() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.DONE));
+        filter.setCategoryIds(List.of(1L, 2L, 3L));
+
+        taskRepository.findSlice(filter, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(whereClause(SqlCapture.STATEMENTS.get(0)))
+                .isEqualTo(" where t1_0.status=? and t1_0.category_id in (?,?,?)");
+    }
+
+    @Test
+    void findPage_CountQuery_ShouldUseSamePredicates() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.TODO, TaskStatus.DONE));
+        filter.setTitle("raport");
+
+        // offset > 0 i pusta strona wymuszają zapytanie COUNT
+        taskRepository.findPage(filter, PageRequest.of(3, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(SqlCapture.STATEMENTS).hasSize(2);
+        assertThat(SqlCapture.STATEMENTS.get(1)).isEqualTo(
+                "select count(t1_0.id) from tasks t1_0 where t1_0.status in (?,?) and lower(t1_0.title) like ? escape '\\'");
+    }
+
+    @Test
+    void findSlice_ShouldFetchCategoryInSameStatement() {
+        taskRepository.findSlice(new TaskFilter(), PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(SqlCapture.STATEMENTS.get(0))
+                .contains(" from tasks t1_0 left join categories c1_0 on c1_0.id=t1_0.category_id");
+    }
+
+    private static String whereClause(String sql) {
+        int orderBy = sql.indexOf(" order by");
+        int where = sql.indexOf(" where ");
+        return where < 0 || where > orderBy ? "" : sql.substring(where, orderBy);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.task.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Testy regresji planów zapytań na PostgreSQL: para filtr + sortowanie, pod którą migracja V4 założyła
+ * indeks, ma czytać właśnie ten indeks, bez węzła Sort. Migracje i dane idą do jednorazowego schematu,
+ * usuwanego po teście, więc wskazana baza (tasks.plan-db.url, profil Maven plan-tests) nie jest zmieniana.
+ * Bez właściwości test jest pomijany; H2 nie ma planera PostgreSQL.
+ */
+@EnabledIfSystemProperty(named = "tasks.plan-db.url", matches = ".+")
+class TaskIndexPlanTest {
+
+    private static final String SELECT = "SELECT t.* FROM tasks t";
+
+    private static final String NO_FILTER = "";
+    private static final String STATUS = " WHERE t.status = 'TODO'";
+    private static final String CATEGORY = " WHERE t.category_id = 1";
+    private static final String STATUS_AND_CATEGORY = " WHERE t.status = 'TODO' AND t.category_id = 1";
+    private static final String DUE_BEFORE = " WHERE t.due_date < DATE '2026-06-01'";
+    private static final String DUE_AFTER = " WHERE t.due_date > DATE '2026-06-01'";
+
+    private static final String CREATED_DESC = " ORDER BY t.created_at DESC, t.id DESC";
+    private static final String UPDATED_DESC = " ORDER BY t.updated_at DESC, t.id DESC";
+    private static final String DUE_ASC = " ORDER BY t.due_date ASC NULLS LAST, t.id ASC";
+    private static final String DUE_DESC = " ORDER BY t.due_date DESC NULLS FIRST, t.id DESC";
+    private static final String TITLE_ASC = " ORDER BY t.title ASC, t.id ASC";
+    private static final String ID_DESC = " ORDER BY t.id DESC";
+
+    private static final String SCHEMA = "task_plan_" + Long.toHexString(System.nanoTime());
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("tasks.plan-db.url"),
+                System.getProperty("tasks.plan-db.user", "postgres"),
+                System.getProperty("tasks.plan-db.password", ""),
+                true);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE SCHEMA " + SCHEMA);
+        Flyway.configure().dataSource(dataSource).schemas(SCHEMA).load().migrate();
+        // public dla funkcji rozszerzeń zainstalowanych wcześniej w bazie (pg_trgm)
+        jdbc.execute("SET search_path TO " + SCHEMA + ", public");
+
+        jdbc.update("""
+                INSERT INTO tasks (title, description, status, due_date, category_id, created_at, updated_at)
+                SELECT 'Zadanie ' || g,
+                       'Opis zadania ' || g,
+                       (ARRAY['TODO', 'IN_PROGRESS', 'DONE'])[1 + g % 3],
+                       CASE WHEN g % 10 = 0 THEN NULL ELSE DATE '2026-01-01' + (g % 365) END,
+                       (SELECT id FROM categories ORDER BY id OFFSET g % 3 LIMIT 1),
+                       TIMESTAMP '2026-01-01' + g * INTERVAL '1 minute',
+                       TIMESTAMP '2026-01-01' + g * INTERVAL '2 minute'
+                FROM generate_series(1, 20000) g
+                """);
+        jdbc.execute("VACUUM ANALYZE tasks");
+        // Przy małej tabeli planer i tak wybrałby Seq Scan; asercje poniżej wskazują konkretny indeks
+        jdbc.execute("SET enable_seqscan = off");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (jdbc != null) {
+            jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        if (dataSource != null) {
+            dataSource.destroy();
+        }
+    }
+
+    // Filtr, sortowanie, oczekiwany indeks (wyrażenie regularne)
+    static Stream<Arguments> indexedFilterAndSort() {
+        return Stream.of(
+                Arguments.of(NO_FILTER, CREATED_DESC, "idx_tasks_created_at"),
+                Arguments.of(NO_FILTER, UPDATED_DESC, "idx_tasks_updated_at"),
+                Arguments.of(NO_FILTER, DUE_ASC, "idx_tasks_due_date"),
+                Arguments.of(NO_FILTER, DUE_DESC, "idx_tasks_due_date"),
+                Arguments.of(NO_FILTER, TITLE_ASC, "idx_tasks_title"),
+                Arguments.of(NO_FILTER, ID_DESC, "tasks_pkey"),
+                Arguments.of(STATUS, CREATED_DESC, "idx_tasks_status_created_at"),
+                Arguments.of(CATEGORY, CREATED_DESC, "idx_tasks_category_created_at"),
+                Arguments.of(STATUS_AND_CATEGORY, CREATED_DESC, "idx_tasks_(status|category)_created_at"),
+                Arguments.of(DUE_BEFORE, DUE_ASC, "idx_tasks_due_date"),
+                Arguments.of(DUE_BEFORE, DUE_DESC, "idx_tasks_due_date"),
+                Arguments.of(DUE_AFTER, DUE_ASC, "idx_tasks_due_date"),
+                Arguments.of(DUE_AFTER, DUE_DESC, "idx_tasks_due_date"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("indexedFilterAndSort")
+    void listQuery_ShouldReadExpectedIndexWithoutSorting(String filter, String sort, String index) {
+        String plan = explain(SELECT + filter + sort + " LIMIT 10");
+
+        assertThat(plan).containsPattern("\"Index Name\": \"(" + index + ")\"").doesNotContain("\"Sort\"");
+    }
+
+    @Test
+    void categoryDelete_ShouldFindReferencingTasksByIndex() {
+        String plan = explain("SELECT 1 FROM tasks t WHERE t.category_id = 1");
+
+        assertThat(plan).contains("idx_tasks_category_created_at");
+    }
+
+    @Test
+    void findAllAsDtos_ShouldReadIndexWithoutSorting() {
+        String plan = explain("SELECT t.id, t.title, c.name FROM tasks t "
+                + "LEFT JOIN categories c ON t.category_id = c.id ORDER BY t.created_at DESC");
+
+        assertThat(plan).contains("idx_tasks_created_at").doesNotContain("\"Sort\"");
+    }
+
+    @Test
+    void countWithFilters_ShouldUseIndexOnlyScan() {
+        String plan = explain("SELECT COUNT(*) FROM tasks t WHERE t.status IN ('TODO', 'DONE') "
+                + "AND t.category_id = 1 AND t.due_date < DATE '2026-06-01'");
+
+        assertThat(plan).contains("Index Only Scan").contains("idx_tasks_status_category_due_date");
+    }
+
+    private static String explain(String sql) {
+        return jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+    }
+}
@@ -1,34 +1,52 @@
 package com.example.task.repository;
 
+import com.example.task.model.TaskFilter;
 import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.StatisticsDto;
 import com.example.task.model.dto.TaskDto;
+import com.example.task.repository.jdbc.DatabasePlatform;
+import com.example.task.repository.jdbc.TaskCounterDao;
 import com.example.task.repository.jdbc.TaskJdbcDao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @JdbcTest
-@Import(TaskJdbcDao.class)
+@Import({TaskJdbcDao.class, TaskCounterDao.class, DatabasePlatform.class})
 class TaskJdbcDaoTest {
 
     @Autowired
     private TaskJdbcDao dao;
 
+    @Autowired
+    private TaskCounterDao counters;
+
     @Autowired
     private JdbcTemplate jdbc;
 
     @BeforeEach
     void setUp() {
+        jdbc.update("DELETE FROM task_counters");
         jdbc.update("DELETE FROM tasks");
         jdbc.update("DELETE FROM categories");
     }
@@ -54,6 +72,109 @@ class TaskJdbcDaoTest {
         assertThat(dao.findAllAsDtos()).isEmpty();
     }
 
+    @Test
+    void streamTasks_ShouldPassFilteredRowsInOrder() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        jdbc.update("INSERT INTO tasks (id, title, status, category_id, created_at, updated_at) VALUES (1, 'Stary', 'TODO', 1, '2024-01-01 10:00:00', NOW())");
+        jdbc.update("INSERT INTO tasks (id, title, status, category_id, created_at, updated_at) VALUES (2, 'Nowy', 'TODO', 1, '2024-02-01 10:00:00', NOW())");
+        jdbc.update("INSERT INTO tasks (id, title, status, created_at, updated_at) VALUES (3, 'Zrobiony', 'DONE', '2024-03-01 10:00:00', NOW())");
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.TODO));
+
+        List<TaskDto> rows = new java.util.ArrayList<>();
+        dao.streamTasks(filter, rows::add);
+
+        assertThat(rows).extracting(TaskDto::getTitle).containsExactly("Nowy", "Stary");
+        assertThat(rows).extracting(TaskDto::getCategoryName).containsOnly("Praca");
+    }
+
+    @Test
+    void writeNdjson_ShouldMatchTaskDtoJsonLineByLine() throws Exception {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        jdbc.update("INSERT INTO tasks (id, title, description, status, due_date, category_id, created_at, updated_at) " +
+                "VALUES (1, 'Raport \"Q1\"', 'Linia 1\nLinia 2', 'TODO', '2026-01-06', 1, '2024-01-01 10:00:00', '2024-01-02 11:30:15')");
+        jdbc.update("INSERT INTO tasks (id, title, status, created_at, updated_at) VALUES (2, 'Zażółć', 'DONE', '2024-02-01 10:00:00', '2024-02-01 10:00:00')");
+        ObjectMapper mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = dao.writeNdjson(new TaskFilter(), out);
+
+        assertThat(count).isEqualTo(2);
+        List<String> expected = new java.util.ArrayList<>();
+        dao.streamTasks(new TaskFilter(), task -> expected.add(mapper.writeValueAsString(task)));
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(String.join("\n", expected) + "\n");
+        assertThat(expected.get(1)).contains("\"categoryId\":1", "\"dueDate\":\"2026-01-06\"", "\"updatedAt\":\"2024-01-02 11:30:15\"");
+    }
+
+    @Test
+    void writeNdjson_ClientGone_ShouldStopReadingAndReleaseConnection() {
+        for (int i = 1; i <= 500; i++) {
+            jdbc.update("INSERT INTO tasks (id, title, status, created_at, updated_at) VALUES (?, ?, 'TODO', NOW(), NOW())",
+                    i, "Zadanie " + i);
+        }
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> dao.writeNdjson(new TaskFilter(), disconnected))
+                .isInstanceOf(UncheckedIOException.class)
+                .hasRootCauseMessage("Broken pipe");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(500L);
+    }
+
+    @Test
+    void insertAll_ShouldInsertInBatchesAndAggregateCounters() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        List<TaskDto> tasks = new java.util.ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            TaskDto dto = new TaskDto();
+            dto.setTitle("Import " + i);
+            dto.setStatus(i % 2 == 0 ? TaskStatus.TODO : TaskStatus.DONE);
+            dto.setCategoryId(i < 3 ? 1L : null);
+            dto.setDueDate(i == 0 ? LocalDate.of(2026, 3, 1) : null);
+            tasks.add(dto);
+        }
+
+        dao.insertAll(tasks, 3);
+
+        assertThat(dao.findAllAsDtos()).hasSize(7)
+                .anySatisfy(t -> assertThat(t.getDueDate()).isEqualTo(LocalDate.of(2026, 3, 1)));
+        assertThat(jdbc.queryForList("SELECT status, category_id, task_count FROM task_counters ORDER BY status, category_id"))
+                .extracting(row -> row.get("STATUS") + "/" + row.get("CATEGORY_ID") + "=" + row.get("TASK_COUNT"))
+                .containsExactly("DONE/0=2", "DONE/1=1", "TODO/0=2", "TODO/1=2");
+    }
+
+    @Test
+    void insertBatch_ShouldAssignGeneratedIdsInOrder() {
+        List<TaskDto> tasks = new java.util.ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TaskDto dto = new TaskDto();
+            dto.setTitle("Paczka " + i);
+            dto.setStatus(TaskStatus.TODO);
+            tasks.add(dto);
+        }
+
+        dao.insertBatch(tasks);
+
+        assertThat(tasks).extracting(TaskDto::getId).doesNotContainNull().isSorted().doesNotHaveDuplicates();
+        for (TaskDto task : tasks) {
+            assertThat(dao.findById(task.getId()).getTitle()).isEqualTo(task.getTitle());
+        }
+        assertThat(jdbc.queryForObject("SELECT task_count FROM task_counters WHERE status = 'TODO'", Long.class))
+                .isEqualTo(4L);
+    }
+
     @Test
     void findById_ShouldReturnCorrectTask() {
         jdbc.update("INSERT INTO tasks (id, title, status, created_at, updated_at) VALUES (1, 'FindMe', 'TODO', NOW(), NOW())");
@@ -212,4 +333,176 @@ class TaskJdbcDaoTest {
         assertThat(fetched.getCategoryId()).isEqualTo(1L);
     }
 
+
+    // --- COUNT ---
+
+    @Test
+    void count_ShouldApplyOnlyGivenFilters() {
+        jdbc.update("INSERT INTO tasks (title, status, created_at, updated_at) VALUES ('A 100%', 'TODO', NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, created_at, updated_at) VALUES ('B', 'DONE', NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, created_at, updated_at) VALUES ('A 100x', 'TODO', NOW(), NOW())");
+
+        TaskFilter filter = new TaskFilter();
+        assertThat(dao.count(filter)).isEqualTo(3);
+
+        filter.setStatuses(List.of(TaskStatus.TODO));
+        filter.setTitle("100%");
+        assertThat(dao.count(filter)).isEqualTo(1);
+    }
+
+    @Test
+    void estimateCount_OnH2_ShouldFallBackToExactCount() {
+        jdbc.update("INSERT INTO tasks (title, status, created_at, updated_at) VALUES ('Task1', 'TODO', NOW(), NOW())");
+
+        assertThat(dao.estimateCount(new TaskFilter())).isEqualTo(1);
+    }
+
+    // --- FULL TEXT ---
+
+    @Test
+    void searchFullText_OnH2_ShouldMatchTitleOrDescriptionAndRankTitleFirst() {
+        jdbc.update("INSERT INTO tasks (id, title, description, status, created_at, updated_at) VALUES (1, 'Zakupy', 'kupić mleko', 'TODO', NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (id, title, description, status, created_at, updated_at) VALUES (2, 'Mleko dla kota', NULL, 'TODO', NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (id, title, description, status, created_at, updated_at) VALUES (3, 'Mleko', NULL, 'DONE', NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (id, title, description, status, created_at, updated_at) VALUES (4, 'Chleb', NULL, 'TODO', NOW(), NOW())");
+
+        TaskFilter filter = new TaskFilter();
+        filter.setQ("mleko");
+        filter.setStatuses(List.of(TaskStatus.TODO));
+
+        List<TaskDto> result = dao.searchFullText(filter, Sort.Order.desc("createdAt"), 0, 10);
+
+        assertThat(result).extracting(TaskDto::getId).containsExactly(2L, 1L);
+        assertThat(dao.count(filter)).isEqualTo(2);
+    }
+
+    // --- STATISTICS ---
+
+    @Test
+    void statistics_ShouldGroupByStatusAndCategory() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca'), (2, 'Dom')");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('A', 'TODO', 1, NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('B', 'TODO', 1, NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('C', 'DONE', 2, NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('D', 'DONE', NULL, NOW(), NOW())");
+
+        StatisticsDto stats = dao.statistics(new TaskFilter());
+
+        assertThat(stats.getTotalTasks()).isEqualTo(4);
+        assertThat(stats.getTasksByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of("TODO", 2L, "DONE", 2L));
+        assertThat(stats.getTasksByCategory())
+                .containsExactlyInAnyOrderEntriesOf(Map.of("Praca", 2L, "Dom", 1L, TaskJdbcDao.UNCATEGORIZED, 1L));
+        assertThat(stats.getTasksByStatusAndCategory().get("DONE"))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("Dom", 1L, TaskJdbcDao.UNCATEGORIZED, 1L));
+        assertThat(stats.getTasksByStatusAndCategory().get("TODO")).containsExactlyEntriesOf(Map.of("Praca", 2L));
+    }
+
+    @Test
+    void statistics_ShouldApplyFilters() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca'), (2, 'Dom')");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('Raport', 'TODO', 1, NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('Raport', 'DONE', 2, NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('Zakupy', 'TODO', 2, NOW(), NOW())");
+
+        TaskFilter filter = new TaskFilter();
+        filter.setTitle("raport");
+        filter.setCategoryIds(List.of(1L, 2L));
+        StatisticsDto stats = dao.statistics(filter);
+
+        assertThat(stats.getTotalTasks()).isEqualTo(2);
+        assertThat(stats.getTasksByCategory()).containsExactlyInAnyOrderEntriesOf(Map.of("Praca", 1L, "Dom", 1L));
+    }
+
+    @Test
+    void statistics_EmptyTable_ShouldReturnZero() {
+        StatisticsDto stats = dao.statistics(new TaskFilter());
+
+        assertThat(stats.getTotalTasks()).isZero();
+        assertThat(stats.getTasksByStatus()).isEmpty();
+        assertThat(stats.getTasksByStatusAndCategory()).isEmpty();
+    }
+
+    // --- COUNTERS ---
+
+    @Test
+    void writes_ShouldMaintainCounters() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        TaskDto first = new TaskDto();
+        first.setTitle("A");
+        first.setStatus(TaskStatus.TODO);
+        first.setCategoryId(1L);
+        dao.insert(first);
+        TaskDto second = new TaskDto();
+        second.setTitle("B");
+        second.setStatus(TaskStatus.TODO);
+        dao.insert(second);
+
+        second.setStatus(TaskStatus.DONE);
+        second.setCategoryId(1L);
+        dao.update(second);
+        dao.delete(first.getId());
+
+        StatisticsDto stats = counters.statistics();
+        assertThat(stats.getTotalTasks()).isEqualTo(1);
+        assertThat(stats.getTasksByStatusAndCategory()).containsExactlyEntriesOf(Map.of("DONE", Map.of("Praca", 1L)));
+        assertThat(counters.buckets()).containsExactly(new TaskCounterDao.Bucket(TaskStatus.DONE, 1L, "Praca", 1));
+        assertThat(counters.reconcile()).isZero();
+    }
+
+    @Test
+    void update_MissingTask_ShouldNotTouchCounters() {
+        TaskDto missing = new TaskDto();
+        missing.setId(999L);
+        missing.setTitle("X");
+        missing.setStatus(TaskStatus.TODO);
+
+        assertThat(dao.update(missing)).isZero();
+        assertThat(dao.delete(999L)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM task_counters", Long.class)).isZero();
+    }
+
+    @Test
+    void moveToUncategorized_ShouldMergeIntoNoCategoryBucket() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        counters.adjust(TaskStatus.TODO, 1L, 3);
+        counters.adjust(TaskStatus.TODO, null, 2);
+
+        counters.moveToUncategorized(1L);
+
+        assertThat(counters.statistics().getTasksByCategory())
+                .containsExactlyEntriesOf(Map.of(TaskJdbcDao.UNCATEGORIZED, 5L));
+    }
+
+    @Test
+    void reconcile_ShouldRepairDrift() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('A', 'TODO', 1, NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('B', 'TODO', NULL, NOW(), NOW())");
+        counters.adjust(TaskStatus.DONE, 1L, 7);
+
+        int repaired = counters.reconcile();
+
+        assertThat(repaired).isEqualTo(3);
+        StatisticsDto stats = counters.statistics();
+        assertThat(stats).isEqualTo(dao.statistics(new TaskFilter()));
+        assertThat(counters.reconcile()).isZero();
+    }
+
+    @Test
+    void applyDrift_ShouldKeepWritesCommittedAfterSnapshot() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        jdbc.update("INSERT INTO tasks (title, status, category_id, created_at, updated_at) VALUES ('A', 'TODO', 1, NOW(), NOW())");
+        Map<TaskCounterDao.CounterKey, Long> drift = counters.drift();
+
+        TaskDto later = new TaskDto();
+        later.setTitle("B");
+        later.setStatus(TaskStatus.TODO);
+        later.setCategoryId(1L);
+        dao.insert(later);
+        counters.applyDrift(drift);
+
+        assertThat(drift).containsExactlyEntriesOf(Map.of(new TaskCounterDao.CounterKey("TODO", 1L), 1L));
+        assertThat(counters.statistics().getTotalTasks()).isEqualTo(2);
+        assertThat(counters.reconcile()).isZero();
+    }
 }
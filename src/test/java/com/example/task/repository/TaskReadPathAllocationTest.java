@@ -0,0 +1,115 @@
+package com.example.task.repository;
+
+import com.example.task.mapper.TaskMapper;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.model.entity.Category;
+import com.example.task.model.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark alokacji strony 100 zadań: dotychczasowa ścieżka (encje Task z kategorią w kontekście
+ * utrwalania + TaskMapper) kontra projekcja TaskDto w zapytaniu. Mierzy bajty zaalokowane przez wątek.
+ */
+@DataJpaTest
+@Import(TaskMapper.class)
+class TaskReadPathAllocationTest {
+
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+    private static final Pageable PAGE = PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TaskMapper taskMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Category category = new Category();
+            category.setName("Kategoria " + i);
+            categories.add(categoryRepository.save(category));
+        }
+        for (int i = 0; i < 300; i++) {
+            Task task = new Task();
+            task.setTitle("Zadanie " + i);
+            task.setDescription("Opis zadania numer " + i);
+            task.setStatus(TaskStatus.values()[i % 3]);
+            task.setCategory(categories.get(i % 10));
+            taskRepository.save(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projection_ShouldAllocateLessThanEntityHydration() {
+        long entityBytes = bytesPerPage(this::readEntities);
+        long projectionBytes = bytesPerPage(() -> taskRepository.findSlice(new TaskFilter(), PAGE).getContent());
+
+        assertThat(projectionBytes)
+                .as("Strona 100 zadań: encje + mapper %,d B, projekcja DTO %,d B", entityBytes, projectionBytes)
+                .isLessThan(entityBytes);
+    }
+
+    // Odpowiednik poprzedniej ścieżki odczytu: LEFT JOIN FETCH kategorii i kopiowanie encji do DTO
+    private List<TaskDto> readEntities() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        root.fetch("category", JoinType.LEFT);
+        query.orderBy(cb.desc(root.get("createdAt")));
+        return entityManager.createQuery(query)
+                .setMaxResults(PAGE.getPageSize() + 1)
+                .getResultList().stream()
+                .limit(PAGE.getPageSize())
+                .map(taskMapper::toDto)
+                .toList();
+    }
+
+    private long bytesPerPage(Supplier<List<TaskDto>> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            assertThat(read.get()).hasSize(PAGE.getPageSize());
+            entityManager.clear();
+        }
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            read.get();
+            total += threads.getCurrentThreadAllocatedBytes() - before;
+            // Kontekst utrwalania żyje do końca żądania; czyścimy go dopiero poza pomiarem
+            entityManager.clear();
+        }
+        return total / ITERATIONS;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.task.repository;
+
+import com.example.task.model.TaskCursor;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.model.entity.Category;
+import com.example.task.model.entity.Task;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Liczba zapytań SQL na ścieżkach odczytu, mierzona statystykami Hibernate.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskRepositoryStatementCountTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Category category = new Category();
+            category.setName("Kategoria " + i);
+            categories.add(categoryRepository.save(category));
+        }
+        for (int i = 0; i < 150; i++) {
+            Task task = new Task();
+            task.setTitle("Zadanie " + i);
+            task.setStatus(TaskStatus.TODO);
+            task.setCategory(i % 11 == 0 ? null : categories.get(i % 10));
+            taskRepository.save(task);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findPage_HundredTasksWithCategories_ShouldCostTwoStatements() {
+        Page<TaskDto> page = taskRepository.findPage(new TaskFilter(), PageRequest.of(0, 100, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(page.getContent()).hasSize(100);
+        assertThat(page.getContent()).filteredOn(dto -> dto.getCategoryId() != null)
+                .allSatisfy(dto -> assertThat(dto.getCategoryName()).startsWith("Kategoria"));
+        assertThat(page.getTotalElements()).isEqualTo(150);
+        // strona + COUNT, bez osobnych zapytań o kategorie i bez hydratacji encji
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findAfter_ShouldLoadCategoriesInSameStatement() {
+        List<TaskDto> rows = taskRepository.findAfter(new TaskFilter(), null, Sort.Order.desc("createdAt"), 100);
+        TaskCursor cursor = TaskCursor.from(rows.get(99), Sort.Order.desc("createdAt"));
+        List<TaskDto> next = taskRepository.findAfter(new TaskFilter(), cursor, Sort.Order.desc("createdAt"), 100);
+
+        assertThat(next).hasSize(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findDtoById_ShouldLoadCategoryInSameStatementWithoutManagedEntities() {
+        Long id = taskRepository.findAll(PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0).getId() + 1;
+        entityManager.clear();
+        statistics.clear();
+
+        TaskDto dto = taskRepository.findDtoById(id).orElseThrow();
+
+        assertThat(dto.getCategoryName()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
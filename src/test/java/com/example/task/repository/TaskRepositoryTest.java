@@ -1,6 +1,9 @@
 package com.example.task.repository;
 
+import com.example.task.model.TaskCursor;
+import com.example.task.model.TaskFilter;
 import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskDto;
 import com.example.task.model.entity.Category;
 import com.example.task.model.entity.Task;
 import org.junit.jupiter.api.Test;
@@ -8,8 +11,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -114,7 +121,7 @@ class TaskRepositoryTest {
     }
 
     @Test
-    void searchTasks_WithJoinAndFilters_ShouldReturnResult() {
+    void findPage_WithCombinedFilters_ShouldReturnResult() {
         Category cat = new Category();
         cat.setName("SearchCat");
         cat = categoryRepository.save(cat);
@@ -122,14 +129,11 @@ class TaskRepositoryTest {
         Task task = createTask("Important Task", TaskStatus.TODO, cat);
         taskRepository.save(task);
 
-        Page<Task> page = taskRepository.searchTasks(
-                TaskStatus.TODO,
-                cat.getId(),
-                null,
-                null,
-                "important",
-                PageRequest.of(0, 10)
-        );
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.TODO));
+        filter.setCategoryIds(List.of(cat.getId()));
+        filter.setTitle("important");
+        Page<TaskDto> page = taskRepository.findPage(filter, PageRequest.of(0, 10));
 
         assertThat(page.getTotalElements()).isEqualTo(1);
     }
@@ -156,4 +160,91 @@ class TaskRepositoryTest {
 
         assertThat(taskRepository.findById(task.getId())).isEmpty();
     }
+
+    @Test
+    void findAfter_ShouldWalkAllPagesWithoutGapsOrDuplicates() {
+        for (int i = 0; i < 7; i++) {
+            Task task = createTask("Keyset " + i, TaskStatus.TODO, null);
+            task.setDueDate(i % 3 == 0 ? null : LocalDate.of(2026, 1, 1 + i % 2));
+            taskRepository.save(task);
+        }
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            Sort.Order order = new Sort.Order(direction, "dueDate");
+            List<Long> seen = new ArrayList<>();
+            TaskCursor cursor = null;
+            List<TaskDto> page;
+            do {
+                page = taskRepository.findAfter(new TaskFilter(), cursor, order, 3);
+                page.forEach(t -> seen.add(t.getId()));
+                if (!page.isEmpty()) {
+                    cursor = TaskCursor.from(page.get(page.size() - 1), order);
+                }
+            } while (page.size() == 3);
+
+            assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void findAfter_ShouldApplyFilterTogetherWithSeek() {
+        Task first = taskRepository.save(createTask("Alpha", TaskStatus.TODO, null));
+        taskRepository.save(createTask("Beta", TaskStatus.DONE, null));
+        Task third = taskRepository.save(createTask("Gamma", TaskStatus.TODO, null));
+
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.TODO));
+        Sort.Order order = Sort.Order.asc("title");
+        TaskDto cursorRow = new TaskDto();
+        cursorRow.setId(first.getId());
+        cursorRow.setTitle(first.getTitle());
+
+        List<TaskDto> result = taskRepository.findAfter(filter, TaskCursor.from(cursorRow, order), order, 10);
+
+        assertThat(result).extracting(TaskDto::getId).containsExactly(third.getId());
+    }
+
+    @Test
+    void findSlice_ShouldReportHasNextWithoutCount() {
+        for (int i = 0; i < 3; i++) {
+            taskRepository.save(createTask("Slice " + i, TaskStatus.TODO, null));
+        }
+
+        Slice<TaskDto> first = taskRepository.findSlice(new TaskFilter(), PageRequest.of(0, 2, Sort.by("title")));
+        Slice<TaskDto> second = taskRepository.findSlice(new TaskFilter(), PageRequest.of(1, 2, Sort.by("title")));
+
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(TaskDto::getTitle).containsExactly("Slice 2");
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void findPage_WithTitle_ShouldMatchSubstringAndEscapeWildcards() {
+        taskRepository.save(createTask("Raport 100% gotowy", TaskStatus.TODO, null));
+        taskRepository.save(createTask("Raport 1000 stron", TaskStatus.TODO, null));
+
+        TaskFilter filter = new TaskFilter();
+        filter.setTitle("100%");
+
+        Page<TaskDto> page = taskRepository.findPage(filter, PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent().get(0).getTitle()).isEqualTo("Raport 100% gotowy");
+    }
+
+    @Test
+    void findPage_SortByRelevance_ShouldFallBackToLikeOnH2() {
+        taskRepository.save(createTask("Zakupy: mleko", TaskStatus.TODO, null));
+        taskRepository.save(createTask("Mleko i chleb", TaskStatus.TODO, null));
+        taskRepository.save(createTask("Chleb", TaskStatus.TODO, null));
+
+        TaskFilter filter = new TaskFilter();
+        filter.setTitle("mleko");
+
+        Page<TaskDto> page = taskRepository.findPage(filter, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, TaskSpecifications.RELEVANCE)));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(TaskDto::getTitle).containsExactly("Mleko i chleb", "Zakupy: mleko");
+    }
 }
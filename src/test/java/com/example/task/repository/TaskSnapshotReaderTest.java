@@ -0,0 +1,87 @@
+package com.example.task.repository;
+
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.repository.jdbc.DatabasePlatform;
+import com.example.task.repository.jdbc.TaskSnapshotReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Czytnik używa własnych połączeń, więc dane muszą być zatwierdzone (bez transakcji testu)
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskSnapshotReader.class, DatabasePlatform.class})
+class TaskSnapshotReaderTest {
+
+    @Autowired
+    private TaskSnapshotReader reader;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+        for (int id = 10; id <= 20; id += 2) {
+            jdbc.update("INSERT INTO tasks (id, title, status, category_id, created_at, updated_at) VALUES (?, ?, ?, 1, NOW(), NOW())",
+                    id, "Zadanie " + id, id % 4 == 0 ? "DONE" : "TODO");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM tasks");
+        jdbc.update("DELETE FROM categories");
+    }
+
+    @Test
+    void open_ShouldReturnIdRangeOfMatchingTasks() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.DONE));
+
+        try (TaskSnapshotReader.Snapshot snapshot = reader.open(filter)) {
+            assertThat(snapshot.isEmpty()).isFalse();
+            assertThat(snapshot.minId()).isEqualTo(12);
+            assertThat(snapshot.maxId()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    void open_NoMatches_ShouldBeEmpty() {
+        TaskFilter filter = new TaskFilter();
+        filter.setTitle("brak");
+
+        try (TaskSnapshotReader.Snapshot snapshot = reader.open(filter)) {
+            assertThat(snapshot.isEmpty()).isTrue();
+        }
+    }
+
+    @Test
+    void readRange_ShouldReturnFilteredRowsInIdOrder() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.TODO));
+        List<TaskDto> rows = new ArrayList<>();
+
+        try (TaskSnapshotReader.Snapshot snapshot = reader.open(filter)) {
+            long count = reader.readRange(snapshot, filter, 10, 18, rows::add);
+
+            assertThat(count).isEqualTo(2);
+        }
+        assertThat(rows).extracting(TaskDto::getId).containsExactly(10L, 14L);
+        assertThat(rows).extracting(TaskDto::getCategoryName).containsOnly("Praca");
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.task.repository.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskHighlightTest {
+
+    @Test
+    void highlightMarkup_ShouldEscapeTaskTextAndMarkHits() {
+        String headline = "\u0002Raport\u0003 <script>alert('x')</script> & \"<mark>\"";
+
+        assertThat(TaskJdbcDao.highlightMarkup(headline)).isEqualTo(
+                "<mark>Raport</mark> &lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;&lt;mark&gt;&quot;");
+    }
+
+    @Test
+    void highlightMarkup_Null_ShouldStayNull() {
+        assertThat(TaskJdbcDao.highlightMarkup(null)).isNull();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.task.repository.jdbc;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskSqlFilterTest {
+
+    @Test
+    void inlinedWhere_ShouldRenderLiterals() {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.TODO, TaskStatus.DONE));
+        filter.setCategoryIds(List.of(3L));
+        filter.setDueDateBefore(LocalDate.of(2026, 1, 31));
+        filter.setTitle("raport");
+
+        assertThat(TaskSqlFilter.of(filter, true).inlinedWhere()).isEqualTo(
+                " WHERE t.status IN ('TODO', 'DONE') AND t.category_id = 3 AND t.due_date < DATE '2026-01-31'"
+                        + " AND LOWER(t.title) LIKE '%raport%' ESCAPE '\\'");
+    }
+
+    @Test
+    void inlinedWhere_ShouldQuoteApostrophes() {
+        TaskFilter filter = new TaskFilter();
+        filter.setQ("x' OR '1'='1");
+
+        assertThat(TaskSqlFilter.of(filter, true).inlinedWhere())
+                .isEqualTo(" WHERE t.search_vector @@ websearch_to_tsquery('simple', 'x'' OR ''1''=''1')");
+    }
+
+    @Test
+    void inlinedWhere_BackslashBeforeApostrophe_ShouldStayInsideLiteral() {
+        TaskFilter filter = new TaskFilter();
+        filter.setQ("x\\' OR 1=1 --");
+
+        // Przy standard_conforming_strings = on (SET LOCAL przed COPY) odwrotny ukośnik nie escapuje apostrofu
+        assertThat(TaskSqlFilter.of(filter, true).inlinedWhere())
+                .isEqualTo(" WHERE t.search_vector @@ websearch_to_tsquery('simple', 'x\\'' OR 1=1 --')");
+    }
+
+    @Test
+    void inlinedWhere_ShouldRejectNulCharacter() {
+        TaskFilter filter = new TaskFilter();
+        filter.setTitle("a\0b");
+
+        assertThatThrownBy(() -> TaskSqlFilter.of(filter, true).inlinedWhere())
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void inlinedWhere_WithoutFilters_ShouldBeEmpty() {
+        assertThat(TaskSqlFilter.of(new TaskFilter(), true).inlinedWhere()).isEmpty();
+    }
+}
@@ -3,10 +3,13 @@ package com.example.task.service;
 import com.example.task.exception.ResourceNotFoundException;
 import com.example.task.model.dto.CategoryDto;
 import com.example.task.model.entity.Category;
+import com.example.task.model.event.CategoryChangedEvent;
 import com.example.task.repository.CategoryRepository;
+import com.example.task.repository.jdbc.TaskCounterDao;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +23,12 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private TaskCounterDao taskCounterDao;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -139,6 +148,7 @@ class CategoryServiceTest {
 
         verify(categoryRepository, times(1)).findById(1L);
         verify(categoryRepository, times(1)).save(existing);
+        verify(eventPublisher).publishEvent(CategoryChangedEvent.renamed(existing.getId(), "Updated"));
     }
 
     @Test
@@ -163,6 +173,8 @@ class CategoryServiceTest {
 
         verify(categoryRepository, times(1)).existsById(1L);
         verify(categoryRepository, times(1)).deleteById(1L);
+        verify(taskCounterDao).moveToUncategorized(1L);
+        verify(eventPublisher).publishEvent(CategoryChangedEvent.deleted(1L));
     }
 
     @Test
@@ -173,6 +185,7 @@ class CategoryServiceTest {
 
         verify(categoryRepository, times(1)).existsById(1L);
         verify(categoryRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(taskCounterDao, eventPublisher);
     }
 
 }
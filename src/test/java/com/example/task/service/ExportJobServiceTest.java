@@ -0,0 +1,269 @@
+package com.example.task.service;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.exception.ConflictException;
+import com.example.task.exception.ResourceNotFoundException;
+import com.example.task.exception.TooManyRequestsException;
+import com.example.task.model.ExportFile;
+import com.example.task.model.ExportJobStatus;
+import com.example.task.model.ExportMode;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.ExportJobDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final TaskService taskService = mock(TaskService.class);
+    private ExportJobService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void submit_ShouldWriteFileAndReportCompletion() throws Exception {
+        service = create(Duration.ofHours(1), 1, 1);
+        when(taskService.exportTasksCsv(any(), eq(ExportMode.COPY), any())).thenAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("ID\r\n1\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.DONE));
+
+        ExportJobDto submitted = service.submit("csv", "copy", filter);
+        ExportJobDto done = await(submitted.getId());
+
+        assertThat(done.getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+        assertThat(done.getRowsWritten()).isEqualTo(1L);
+        assertThat(done.getBytesWritten()).isEqualTo(7L);
+        assertThat(done.getExpiresAt()).isAfter(done.getFinishedAt());
+        assertThat(done.getFileUrl()).isEqualTo("/api/v1/exports/" + done.getId() + "/file");
+        ExportFile file = service.getFile(done.getId());
+        assertThat(file.fileName()).isEqualTo("zadania_" + done.getId() + ".csv");
+        assertThat(Files.readString(file.identity().path())).isEqualTo("ID\r\n1\r\n");
+        assertThat(file.identity().length()).isEqualTo(7L);
+        assertThat(file.identity().etag()).matches("\"[A-Za-z0-9_-]{43}\"");
+        verify(taskService).exportTasksCsv(argThat(f -> f.getStatuses().equals(List.of(TaskStatus.DONE))),
+                eq(ExportMode.COPY), any());
+    }
+
+    @Test
+    void submit_ShouldPrecompressAndKeyEtagsOnContent() throws Exception {
+        service = create(Duration.ofHours(1), 1, 1);
+        byte[] content = "ID,Tytuł\r\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+        when(taskService.exportTasksCsv(any(), any(ExportMode.class), any())).thenAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write(content);
+            return 500L;
+        });
+
+        ExportFile first = service.getFile(await(service.submit("csv", "stream", null).getId()).getId());
+        ExportFile second = service.getFile(await(service.submit("csv", "stream", null).getId()).getId());
+
+        assertThat(first.gzip()).isNotNull();
+        assertThat(first.gzip().length()).isLessThan(first.identity().length());
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(first.gzip().path()))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        assertThat(second.identity().etag()).isEqualTo(first.identity().etag());
+        assertThat(first.gzip().etag()).isNotEqualTo(first.identity().etag());
+    }
+
+    @Test
+    void submit_IncompressibleFile_ShouldSkipGzipVariant() throws Exception {
+        service = create(Duration.ofHours(1), 1, 1);
+        when(taskService.exportTasksCsv(any(), any(ExportMode.class), any())).thenAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("ID\r\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        });
+
+        ExportFile file = service.getFile(await(service.submit("csv", "stream", null).getId()).getId());
+
+        assertThat(file.gzip()).isNull();
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(file.identity().path());
+        }
+    }
+
+    @Test
+    void submit_NdjsonFormat_ShouldStreamJsonLines() throws Exception {
+        service = create(Duration.ofHours(1), 1, 1);
+        when(taskService.streamTasksNdjson(any(), any())).thenAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        ExportJobDto done = await(service.submit("ndjson", null, null).getId());
+
+        assertThat(done.getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+        ExportFile file = service.getFile(done.getId());
+        assertThat(file.fileName()).endsWith(".ndjson");
+        assertThat(file.contentType()).isEqualTo("application/x-ndjson");
+        assertThat(Files.readString(file.identity().path())).isEqualTo("{\"id\":1}\n");
+        verify(taskService, never()).exportTasksCsv(any(), any(ExportMode.class), any());
+    }
+
+    @Test
+    void submit_ExportFailure_ShouldMarkFailedAndRemovePartialFile() throws Exception {
+        service = create(Duration.ofHours(1), 1, 1);
+        when(taskService.exportTasksCsv(any(), any(ExportMode.class), any())).thenThrow(new IOException("disk full"));
+
+        ExportJobDto done = await(service.submit(null, null, null).getId());
+
+        assertThat(done.getStatus()).isEqualTo(ExportJobStatus.FAILED);
+        assertThat(done.getError()).isNotBlank();
+        assertThat(done.getFileUrl()).isNull();
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+        assertThatThrownBy(() -> service.getFile(done.getId())).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void submit_QueueFull_ShouldRejectWithoutKeepingJob() throws Exception {
+        service = create(Duration.ofHours(1), 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.exportTasksCsv(any(), any(ExportMode.class), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+
+        ExportJobDto running = service.submit("csv", "stream", null);
+        ExportJobDto queued = service.submit("csv", "stream", null);
+        assertThatThrownBy(() -> service.submit("csv", "stream", null))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        assertThatThrownBy(() -> service.getFile(queued.getId())).isInstanceOf(ConflictException.class);
+        release.countDown();
+        assertThat(await(running.getId()).getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+        assertThat(await(queued.getId()).getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+    }
+
+    @Test
+    void submit_NulInFilter_ShouldRejectBeforeQueueing() {
+        service = create(Duration.ofHours(1), 1, 1);
+        TaskFilter filter = new TaskFilter();
+        filter.setQ("raport\u0000");
+
+        assertThatThrownBy(() -> service.submit("csv", "copy", filter))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void submit_ParallelMode_ShouldRunAsStreamWithinJobLimit() throws Exception {
+        service = create(Duration.ofHours(1), 2, 1);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.exportTasksCsv(any(), any(ExportMode.class), any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+
+        ExportJobDto first = service.submit("csv", "parallel", null);
+        ExportJobDto second = service.submit("csv", "parallel", null);
+        ExportJobDto queued = service.submit("csv", "parallel", null);
+        assertThatThrownBy(() -> service.submit("csv", "parallel", null))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        // Dwa zadania w toku, każde na jednym połączeniu eksportu strumieniowego
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(taskService, times(2)).exportTasksCsv(any(), eq(ExportMode.STREAM), any());
+        release.countDown();
+        for (ExportJobDto job : List.of(first, second, queued)) {
+            ExportJobDto done = await(job.getId());
+            assertThat(done.getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+            assertThat(done.getMode()).isEqualTo("stream");
+        }
+        verify(taskService, never()).exportTasksCsv(any(), eq(ExportMode.PARALLEL), any());
+        verify(taskService, never()).reserveParallelExport();
+        verify(taskService, never()).exportTasksCsvParallel(any(), any(), any());
+    }
+
+    @Test
+    void submit_UnknownFormat_ShouldThrowBadRequest() {
+        service = create(Duration.ofHours(1), 1, 1);
+
+        assertThatThrownBy(() -> service.submit("xlsx", "stream", null)).isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(taskService);
+    }
+
+    @Test
+    void cleanup_ShouldRemoveExpiredJobsAndFiles() throws Exception {
+        service = create(Duration.ZERO, 1, 1);
+        when(taskService.exportTasksCsv(any(), any(ExportMode.class), any())).thenAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("1,a\r\n".repeat(100).getBytes(StandardCharsets.UTF_8));
+            return 100L;
+        });
+        String id = await(service.submit("csv", "stream", null).getId()).getId();
+        assertThat(service.getFile(id).gzip()).isNotNull();
+
+        service.cleanup();
+
+        assertThatThrownBy(() -> service.getJob(id)).isInstanceOf(ResourceNotFoundException.class);
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void init_ShouldRemoveFilesLeftByPreviousRun() throws Exception {
+        Files.writeString(directory.resolve("old.csv"), "x");
+        Files.writeString(directory.resolve("old.csv.part"), "x");
+        Files.writeString(directory.resolve("old.csv.gz"), "x");
+        Files.writeString(directory.resolve("notes.txt"), "x");
+
+        service = create(Duration.ofHours(1), 1, 1);
+
+        try (var files = Files.list(directory)) {
+            assertThat(files).containsExactly(directory.resolve("notes.txt"));
+        }
+    }
+
+    private ExportJobService create(Duration ttl, int maxConcurrent, int queueCapacity) {
+        ExportJobService created = new ExportJobService(taskService, directory, ttl, maxConcurrent, queueCapacity, true);
+        try {
+            created.init();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return created;
+    }
+
+    private ExportJobDto await(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ExportJobDto job = service.getJob(id);
+        while (job.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = service.getJob(id);
+        }
+        return job;
+    }
+}
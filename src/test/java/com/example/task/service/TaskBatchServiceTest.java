@@ -0,0 +1,450 @@
+package com.example.task.service;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.exception.BatchValidationException;
+import com.example.task.exception.ResourceNotFoundException;
+import com.example.task.model.BatchMode;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskBatchResultDto;
+import com.example.task.model.dto.TaskBulkResultDto;
+import com.example.task.model.dto.TaskBulkUpdateDto;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.model.dto.TaskOperationsResultDto;
+import com.example.task.model.dto.TaskSyncDto;
+import com.example.task.model.dto.TaskSyncResultDto;
+import com.example.task.model.event.TaskCountsChangedEvent;
+import com.example.task.repository.CategoryRepository;
+import com.example.task.repository.jdbc.DatabasePlatform;
+import com.example.task.repository.jdbc.TaskCounterDao;
+import com.example.task.repository.jdbc.TaskJdbcDao;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@DataJpaTest
+@RecordApplicationEvents
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({TaskBatchService.class, TaskFilterResolver.class, TaskJdbcDao.class, TaskCounterDao.class, DatabasePlatform.class})
+@TestPropertySource(properties = {"tasks.batch.batch-size=2", "tasks.batch.max-items=5", "tasks.batch.chunk-size=2",
+        "tasks.batch.max-operations=6"})
+class TaskBatchServiceTest {
+
+    @Autowired
+    private TaskBatchService batchService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TaskJdbcDao taskJdbcDao;
+
+    @Autowired
+    private TaskCounterDao taskCounterDao;
+
+    @SpyBean
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM task_counters");
+        jdbc.update("DELETE FROM tasks");
+        jdbc.update("DELETE FROM categories");
+    }
+
+    @Test
+    void createTasks_ShouldInsertInBatchesAndReturnIdsInOrder() throws Exception {
+        TaskBatchResultDto result = batchService.createTasks(json("""
+                [{"title":"Pierwsze","status":"TODO","categoryId":1,"dueDate":"2026-03-01"},
+                 {"title":"Drugie","status":"DONE"},
+                 {"title":"Trzecie","description":"Opis","status":"IN_PROGRESS"}]"""), BatchMode.ATOMIC);
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getIds()).hasSize(3).doesNotContainNull().doesNotHaveDuplicates();
+        List<String> titles = result.getIds().stream()
+                .map(id -> jdbc.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class, id))
+                .toList();
+        assertThat(titles).containsExactly("Pierwsze", "Drugie", "Trzecie");
+        assertThat(jdbc.queryForObject("SELECT category_id FROM tasks WHERE id = ?", Long.class, result.getIds().get(0)))
+                .isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT SUM(task_count) FROM task_counters", Long.class)).isEqualTo(3L);
+
+        assertThat(events.stream(TaskCountsChangedEvent.class)).singleElement().satisfies(event ->
+                assertThat(event.deltas()).contains(new TaskCountsChangedEvent.Delta(TaskStatus.TODO, 1L, "Praca", 1)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void createTasks_Atomic_InvalidItems_ShouldRejectWholeRequest() {
+        String body = """
+                [{"title":"Dobre","status":"TODO"},
+                 {"title":"Też dobre","status":"TODO"},
+                 {"status":"TODO"},
+                 {"title":"Zły status","status":"LATER"},
+                 {"title":"Zła kategoria","status":"DONE","categoryId":99}]""";
+
+        assertThatThrownBy(() -> batchService.createTasks(json(body), BatchMode.ATOMIC))
+                .isInstanceOfSatisfying(BatchValidationException.class, ex -> {
+                    assertThat(ex.getMessage()).startsWith("Odrzucono 3 z 5");
+                    assertThat(ex.getErrors()).extracting(TaskBatchResultDto.ItemError::getIndex).containsExactly(2, 3, 4);
+                    assertThat(ex.getErrors()).extracting(TaskBatchResultDto.ItemError::getMessage).containsExactly(
+                            "Tytuł jest wymagany",
+                            "Niepoprawna wartość pola status",
+                            "Kategoria o ID 99 nie istnieje");
+                });
+
+        // Pierwsza paczka była już wysłana do bazy, ale transakcja została wycofana
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM task_counters", Long.class)).isZero();
+        assertThat(events.stream(TaskCountsChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void createTasks_BestEffort_ShouldSkipInvalidItems() throws Exception {
+        TaskBatchResultDto result = batchService.createTasks(json("""
+                [{"title":"Dobre","status":"TODO"},
+                 {"title":"","status":"TODO"},
+                 42,
+                 {"title":"Też dobre","status":"DONE","categoryId":1}]"""), BatchMode.BEST_EFFORT);
+
+        assertThat(result.getReceived()).isEqualTo(4);
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getIds()).hasSize(4);
+        assertThat(result.getIds().get(1)).isNull();
+        assertThat(result.getIds().get(2)).isNull();
+        assertThat(result.getErrors()).extracting(TaskBatchResultDto.ItemError::getIndex).containsExactly(1, 2);
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Element nie jest obiektem zadania");
+        Map<String, Object> last = jdbc.queryForMap("SELECT title, category_id FROM tasks WHERE id = ?", result.getIds().get(3));
+        assertThat(last).containsEntry("TITLE", "Też dobre");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    void createTasks_MalformedJson_ShouldThrowBadRequest() {
+        assertThatThrownBy(() -> batchService.createTasks(json("[{\"title\":\"A\",\"status\":\"TODO\"}, {\"title\":"),
+                BatchMode.BEST_EFFORT))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Niepoprawny JSON po elemencie 1");
+        assertThatThrownBy(() -> batchService.createTasks(json("{\"title\":\"A\"}"), BatchMode.ATOMIC))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Oczekiwano tablicy JSON");
+    }
+
+    @Test
+    void createTasks_TooManyItems_ShouldThrowBadRequest() {
+        String body = "[" + "{\"title\":\"A\",\"status\":\"TODO\"},".repeat(5) + "{\"title\":\"A\",\"status\":\"TODO\"}]";
+
+        assertThatThrownBy(() -> batchService.createTasks(json(body), BatchMode.BEST_EFFORT))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("limit 5");
+    }
+
+    @Test
+    void createTasks_ShouldReadCategoriesOnce() throws Exception {
+        String body = "[" + "{\"title\":\"A\",\"status\":\"TODO\",\"categoryId\":1},".repeat(4)
+                + "{\"title\":\"A\",\"status\":\"TODO\",\"categoryId\":1}]";
+
+        TaskBatchResultDto result = batchService.createTasks(json(body), BatchMode.ATOMIC);
+
+        assertThat(result.getCreated()).isEqualTo(5);
+        verify(categoryRepository, times(1)).findAll();
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    @Test
+    void updateTasks_ShouldChangeMatchingTasksInChunks() {
+        insertTasks(TaskStatus.TODO, 1L, 5);
+        insertTasks(TaskStatus.IN_PROGRESS, 1L, 2);
+        insertTasks(TaskStatus.TODO, null, 1);
+        TaskBulkUpdateDto update = new TaskBulkUpdateDto();
+        update.setStatus(TaskStatus.DONE);
+        update.setDueDate(LocalDate.of(2026, 6, 30));
+
+        TaskBulkResultDto result = batchService.updateTasks(filter(TaskStatus.TODO, 1L), update);
+
+        // Zmienione wiersze wypadają z filtra, a kolejne fragmenty i tak ich nie pomijają ani nie powtarzają
+        assertThat(result.getAffected()).isEqualTo(5);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE status = 'DONE' AND due_date = DATE '2026-06-30'",
+                Long.class)).isEqualTo(5L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE status = 'TODO'", Long.class)).isEqualTo(1L);
+        assertThat(taskCounterDao.reconcile()).isZero();
+        assertThat(events.stream(TaskCountsChangedEvent.class)).hasSize(3)
+                .flatExtracting(TaskCountsChangedEvent::deltas)
+                .extracting(TaskCountsChangedEvent.Delta::delta)
+                .containsOnly(-2L, 2L, -1L, 1L);
+    }
+
+    @Test
+    void updateTasks_ShouldMoveToCategoryAndClearDueDate() {
+        jdbc.update("INSERT INTO categories (id, name) VALUES (2, 'Dom')");
+        insertTasks(TaskStatus.TODO, 1L, 3);
+        jdbc.update("UPDATE tasks SET due_date = DATE '2026-01-01'");
+        TaskBulkUpdateDto update = new TaskBulkUpdateDto();
+        update.setCategoryId(2L);
+        update.setClearDueDate(true);
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("prac");
+
+        TaskBulkResultDto result = batchService.updateTasks(filter, update);
+
+        assertThat(result.getAffected()).isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE category_id = 2 AND due_date IS NULL", Long.class))
+                .isEqualTo(3L);
+        assertThat(taskCounterDao.reconcile()).isZero();
+        assertThat(events.stream(TaskCountsChangedEvent.class).flatMap(e -> e.deltas().stream()))
+                .contains(new TaskCountsChangedEvent.Delta(TaskStatus.TODO, 2L, "Dom", 2));
+    }
+
+    @Test
+    void updateTasks_InvalidRequest_ShouldThrow() {
+        TaskBulkUpdateDto noChanges = new TaskBulkUpdateDto();
+        TaskBulkUpdateDto unknownCategory = new TaskBulkUpdateDto();
+        unknownCategory.setCategoryId(99L);
+        TaskBulkUpdateDto status = new TaskBulkUpdateDto();
+        status.setStatus(TaskStatus.DONE);
+
+        assertThatThrownBy(() -> batchService.updateTasks(new TaskFilter(), status))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("co najmniej jednego filtra");
+        assertThatThrownBy(() -> batchService.updateTasks(filter(TaskStatus.TODO, null), noChanges))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> batchService.updateTasks(filter(TaskStatus.TODO, null), unknownCategory))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void deleteTasks_ShouldDeleteMatchingTasksInChunks() {
+        insertTasks(TaskStatus.DONE, 1L, 3);
+        insertTasks(TaskStatus.DONE, null, 2);
+        insertTasks(TaskStatus.TODO, 1L, 1);
+
+        TaskBulkResultDto result = batchService.deleteTasks(filter(TaskStatus.DONE, 1L));
+
+        assertThat(result.getAffected()).isEqualTo(3);
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(3L);
+        assertThat(taskCounterDao.reconcile()).isZero();
+        assertThatThrownBy(() -> batchService.deleteTasks(new TaskFilter())).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void deleteTasks_UnknownCategoryName_ShouldAffectNothing() {
+        insertTasks(TaskStatus.DONE, 1L, 2);
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("nieistniejąca");
+
+        assertThat(batchService.deleteTasks(filter).getAffected()).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(2L);
+    }
+
+    @Test
+    void executeOperations_ShouldApplyOperationsInOrder() throws Exception {
+        insertTasks(TaskStatus.TODO, 1L, 2);
+        List<Long> ids = jdbc.queryForList("SELECT id FROM tasks ORDER BY id", Long.class);
+
+        TaskOperationsResultDto result = batchService.executeOperations(json("""
+                [{"op":"create","task":{"title":"Nowe","status":"TODO"}},
+                 {"op":"create","task":{"title":"Drugie nowe","status":"DONE","categoryId":1}},
+                 {"op":"update","id":%d,"task":{"title":"Zmienione","status":"IN_PROGRESS"}},
+                 {"op":"update","id":%d,"task":{"title":"Zmienione 2","status":"DONE","categoryId":1}},
+                 {"op":"delete","id":%d}]""".formatted(ids.get(0), ids.get(0), ids.get(1))), BatchMode.ATOMIC);
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getSucceeded()).isEqualTo(5);
+        assertThat(result.getFailed()).isZero();
+        assertThat(result.getResults()).extracting(TaskOperationsResultDto.OperationResult::getStatus)
+                .containsExactly(201, 201, 200, 200, 204);
+        assertThat(result.getResults().get(2).getId()).isEqualTo(ids.get(0));
+        assertThat(jdbc.queryForList("SELECT title FROM tasks ORDER BY id", String.class))
+                .containsExactly("Zmienione 2", "Nowe", "Drugie nowe");
+        assertThat(jdbc.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class, result.getResults().get(1).getId()))
+                .isEqualTo("Drugie nowe");
+        // Dwie zmiany tego samego zadania w jednej paczce: liczniki liczone po kolei
+        assertThat(taskCounterDao.reconcile()).isZero();
+    }
+
+    @Test
+    void executeOperations_BestEffort_ShouldReportFailuresAndKeepOthers() throws Exception {
+        insertTasks(TaskStatus.TODO, 1L, 1);
+        Long id = jdbc.queryForObject("SELECT id FROM tasks", Long.class);
+
+        TaskOperationsResultDto result = batchService.executeOperations(json("""
+                [{"op":"update","id":%d,"task":{"title":"Zmienione","status":"DONE","categoryId":1}},
+                 {"op":"update","id":999999,"task":{"title":"Brak","status":"DONE"}},
+                 {"op":"move","id":1},
+                 {"op":"delete"},
+                 {"op":"create","task":{"title":""}},
+                 {"op":"create","task":{"title":"Nowe","status":"TODO"}}]""".formatted(id)), BatchMode.BEST_EFFORT);
+
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getResults()).extracting(TaskOperationsResultDto.OperationResult::getStatus)
+                .containsExactly(200, 404, 400, 400, 400, 201);
+        assertThat(result.getResults().get(2).getError()).startsWith("Nieznana operacja: move");
+        assertThat(result.getResults().get(3).getError()).isEqualTo("Operacja delete wymaga liczbowego pola id");
+        assertThat(jdbc.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class, id)).isEqualTo("Zmienione");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(2L);
+        assertThat(taskCounterDao.reconcile()).isZero();
+        assertThat(events.stream(TaskCountsChangedEvent.class)).singleElement().satisfies(event ->
+                assertThat(event.deltas()).containsExactlyInAnyOrder(
+                        new TaskCountsChangedEvent.Delta(TaskStatus.DONE, 1L, "Praca", 1),
+                        new TaskCountsChangedEvent.Delta(TaskStatus.TODO, 1L, "Praca", -1),
+                        new TaskCountsChangedEvent.Delta(TaskStatus.TODO, null, null, 1)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void executeOperations_Atomic_MissingTask_ShouldRollBackEverything() {
+        String body = """
+                [{"op":"create","task":{"title":"Nowe","status":"TODO"}},
+                 {"op":"delete","id":999999}]""";
+
+        assertThatThrownBy(() -> batchService.executeOperations(json(body), BatchMode.ATOMIC))
+                .isInstanceOfSatisfying(BatchValidationException.class, ex ->
+                        assertThat(ex.getErrors()).singleElement().satisfies(error -> {
+                            assertThat(error.getIndex()).isEqualTo(1);
+                            assertThat(error.getMessage()).isEqualTo("Zadanie o id 999999 nie istnieje");
+                        }));
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM task_counters", Long.class)).isZero();
+    }
+
+    @Test
+    void executeOperations_TooManyOperations_ShouldThrowBadRequest() {
+        String body = "[" + "{\"op\":\"delete\",\"id\":1},".repeat(6) + "{\"op\":\"delete\",\"id\":1}]";
+
+        assertThatThrownBy(() -> batchService.executeOperations(json(body), BatchMode.BEST_EFFORT))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("limit 6");
+    }
+
+    @Test
+    void syncTasks_ShouldInsertUpdateAndSkipUnchanged() {
+        TaskSyncResultDto first = batchService.syncTasks(List.of(
+                sync("ext-1", "Raport", TaskStatus.TODO, 1L),
+                sync("ext-2", "Przegląd", TaskStatus.TODO, null),
+                sync("ext-3", "Plan", TaskStatus.DONE, null)));
+        assertThat(first.getInserted()).isEqualTo(3);
+        jdbc.update("UPDATE tasks SET updated_at = TIMESTAMP '2025-01-01 10:00:00'");
+
+        TaskSyncResultDto second = batchService.syncTasks(List.of(
+                sync("ext-1", "Raport", TaskStatus.TODO, 1L),
+                sync("ext-2", "Przegląd", TaskStatus.DONE, null),
+                sync("ext-3", "Plan", TaskStatus.DONE, null),
+                sync("ext-4", "Nowe", TaskStatus.IN_PROGRESS, 1L)));
+
+        assertThat(second.getReceived()).isEqualTo(4);
+        assertThat(second.getInserted()).isEqualTo(1);
+        assertThat(second.getUpdated()).isEqualTo(1);
+        assertThat(second.getUnchanged()).isEqualTo(2);
+        assertThat(jdbc.queryForList("SELECT external_id FROM tasks WHERE updated_at = TIMESTAMP '2025-01-01 10:00:00'",
+                String.class)).containsExactlyInAnyOrder("ext-1", "ext-3");
+        assertThat(jdbc.queryForObject("SELECT status FROM tasks WHERE external_id = 'ext-2'", String.class)).isEqualTo("DONE");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isEqualTo(4L);
+        assertThat(taskCounterDao.reconcile()).isZero();
+    }
+
+    @Test
+    void syncTasks_SameRequestTwice_ShouldWriteNothing() {
+        List<TaskSyncDto> tasks = List.of(sync("ext-1", "Raport", TaskStatus.TODO, 1L), sync("ext-2", "Plan", TaskStatus.DONE, null));
+        batchService.syncTasks(tasks);
+        events.clear();
+
+        TaskSyncResultDto result = batchService.syncTasks(tasks);
+
+        assertThat(result.getInserted()).isZero();
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getUnchanged()).isEqualTo(2);
+        assertThat(events.stream(TaskCountsChangedEvent.class)).isEmpty();
+    }
+
+    @Test
+    void syncTasks_InvalidItems_ShouldRejectWholeRequest() {
+        List<TaskSyncDto> tasks = List.of(
+                sync("ext-1", "Raport", TaskStatus.TODO, null),
+                sync(null, "Bez id", TaskStatus.TODO, null),
+                sync("ext-1", "Powtórzone", TaskStatus.TODO, 999L));
+
+        assertThatThrownBy(() -> batchService.syncTasks(tasks))
+                .isInstanceOfSatisfying(BatchValidationException.class, ex -> {
+                    assertThat(ex.getErrors()).extracting(TaskBatchResultDto.ItemError::getIndex).containsExactly(1, 2);
+                    assertThat(ex.getErrors().get(0).getMessage()).isEqualTo("Identyfikator zewnętrzny jest wymagany");
+                    assertThat(ex.getErrors().get(1).getMessage())
+                            .isEqualTo("Kategoria o ID 999 nie istnieje; Powtórzony identyfikator zewnętrzny: ext-1");
+                });
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isZero();
+    }
+
+    private static TaskSyncDto sync(String externalId, String title, TaskStatus status, Long categoryId) {
+        TaskSyncDto task = new TaskSyncDto();
+        task.setExternalId(externalId);
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setCategoryId(categoryId);
+        return task;
+    }
+
+    private void insertTasks(TaskStatus status, Long categoryId, int count) {
+        List<TaskDto> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TaskDto task = new TaskDto();
+            task.setTitle(status + " " + i);
+            task.setStatus(status);
+            task.setCategoryId(categoryId);
+            tasks.add(task);
+        }
+        taskJdbcDao.insertAll(tasks, 100);
+    }
+
+    private static TaskFilter filter(TaskStatus status, Long categoryId) {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(status));
+        filter.setCategoryIds(categoryId != null ? List.of(categoryId) : null);
+        return filter;
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
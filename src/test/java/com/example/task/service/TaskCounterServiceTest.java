@@ -0,0 +1,76 @@
+package com.example.task.service;
+
+import com.example.task.repository.jdbc.TaskCounterDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TaskCounterServiceTest {
+
+    private static final Map<TaskCounterDao.CounterKey, Long> DRIFT =
+            Map.of(new TaskCounterDao.CounterKey("TODO", 1L), 2L);
+
+    @Mock
+    private TaskCounterDao taskCounterDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskCounterService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new TaskCounterService(taskCounterDao, transactionManager);
+    }
+
+    @Test
+    void reconcile_NoDrift_ShouldNotLock() {
+        when(taskCounterDao.drift()).thenReturn(Map.of());
+
+        assertThat(service.reconcile()).isZero();
+        verify(taskCounterDao, never()).tryLockReconcile();
+        verify(taskCounterDao, never()).applyDrift(any());
+    }
+
+    @Test
+    void reconcile_ShouldRecomputeDriftUnderLock() {
+        when(taskCounterDao.drift()).thenReturn(DRIFT, Map.of());
+        when(taskCounterDao.tryLockReconcile()).thenReturn(true);
+
+        // Inny węzeł naprawił liczniki między sprawdzeniem a blokadą: nic do dodania
+        assertThat(service.reconcile()).isZero();
+        var order = inOrder(taskCounterDao);
+        order.verify(taskCounterDao).drift();
+        order.verify(taskCounterDao).tryLockReconcile();
+        order.verify(taskCounterDao).drift();
+        order.verify(taskCounterDao).applyDrift(Map.of());
+    }
+
+    @Test
+    void reconcile_LockHeldElsewhere_ShouldSkip() {
+        when(taskCounterDao.drift()).thenReturn(DRIFT);
+        when(taskCounterDao.tryLockReconcile()).thenReturn(false);
+
+        assertThat(service.reconcile()).isZero();
+        verify(taskCounterDao, times(1)).drift();
+        verify(taskCounterDao, never()).applyDrift(any());
+    }
+
+    @Test
+    void reconcile_ShouldApplyDrift() {
+        when(taskCounterDao.drift()).thenReturn(DRIFT);
+        when(taskCounterDao.tryLockReconcile()).thenReturn(true);
+
+        assertThat(service.reconcile()).isEqualTo(1);
+        verify(taskCounterDao).applyDrift(DRIFT);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.task.service;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.model.dto.TaskImportResultDto;
+import com.example.task.model.event.TaskCountsChangedEvent;
+import com.example.task.repository.CategoryRepository;
+import com.example.task.repository.jdbc.DatabasePlatform;
+import com.example.task.repository.jdbc.TaskCounterDao;
+import com.example.task.repository.jdbc.TaskJdbcDao;
+import com.example.task.service.csv.CsvEncoder;
+import com.example.task.service.csv.TaskCsvLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@DataJpaTest
+@RecordApplicationEvents
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskImportService.class, TaskJdbcDao.class, TaskCounterDao.class, DatabasePlatform.class})
+@TestPropertySource(properties = {"tasks.import.batch-size=2", "tasks.import.max-errors=3"})
+class TaskImportServiceTest {
+
+    private static final String HEADER = "ID,Tytuł,Opis,Status,Termin,Kategoria,Utworzono,Zaktualizowano\r\n";
+
+    @Autowired
+    private TaskImportService importService;
+
+    @Autowired
+    private TaskJdbcDao taskJdbcDao;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @SpyBean
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM task_counters");
+        jdbc.update("DELETE FROM tasks");
+        jdbc.update("DELETE FROM categories");
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca')");
+    }
+
+    @Test
+    void importCsv_ShouldInsertValidRowsInBatches() throws Exception {
+        TaskImportResultDto result = importService.importCsv(csv(HEADER
+                + "1,Raport,\"Opis, z przecinkiem\",TODO,2026-03-01,Praca,2025-01-01T10:00,2025-01-01T10:00\r\n"
+                + "2,Przegląd,,done,,Brak,,\r\n"
+                + "3,Plan,,IN_PROGRESS,,,,\r\n"));
+
+        assertThat(result.getRowsRead()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(result.getErrors()).isEmpty();
+
+        List<TaskDto> tasks = taskJdbcDao.findAllAsDtos();
+        assertThat(tasks).extracting(TaskDto::getTitle).containsExactlyInAnyOrder("Raport", "Przegląd", "Plan");
+        assertThat(tasks).filteredOn(t -> t.getTitle().equals("Raport")).singleElement().satisfies(t -> {
+            assertThat(t.getDescription()).isEqualTo("Opis, z przecinkiem");
+            assertThat(t.getCategoryName()).isEqualTo("Praca");
+            assertThat(t.getDueDate()).isEqualTo(LocalDate.of(2026, 3, 1));
+            assertThat(t.getId()).isNotEqualTo(1L);
+        });
+        assertThat(tasks).filteredOn(t -> t.getTitle().equals("Przegląd")).singleElement()
+                .satisfies(t -> assertThat(t.getCategoryId()).isNull());
+        assertThat(jdbc.queryForObject("SELECT SUM(task_count) FROM task_counters", Long.class)).isEqualTo(3L);
+
+        assertThat(events.stream(TaskCountsChangedEvent.class)).singleElement().satisfies(event ->
+                assertThat(event.deltas()).contains(new TaskCountsChangedEvent.Delta(TaskStatus.TODO, 1L, "Praca", 1)));
+    }
+
+    @Test
+    void importCsv_InvalidRows_ShouldBeReportedAndSkipped() throws Exception {
+        TaskImportResultDto result = importService.importCsv(csv(HEADER
+                + "1,Dobry,,TODO,,,,\r\n"
+                + "2,,,TODO,,,,\r\n"
+                + "3,Zły status,,LATER,,,,\r\n"
+                + "4,Zły termin,,TODO,01.03.2026,Nieznana,,\r\n"
+                + "5," + "x".repeat(101) + ",,,,,,\r\n"
+                + "6,Też dobry,,DONE,,Praca,,\r\n"));
+
+        assertThat(result.getRowsRead()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.isErrorsTruncated()).isTrue();
+        assertThat(result.getErrors()).extracting(TaskImportResultDto.RowError::getRow).containsExactly(2L, 3L, 4L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Tytuł jest wymagany");
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Nieznany status: LATER");
+        assertThat(result.getErrors().get(2).getMessage())
+                .isEqualTo("Niepoprawny termin (oczekiwano RRRR-MM-DD): 01.03.2026; Nieznana kategoria: Nieznana");
+        assertThat(taskJdbcDao.findAllAsDtos()).extracting(TaskDto::getTitle).containsExactlyInAnyOrder("Dobry", "Też dobry");
+    }
+
+    @Test
+    void importCsv_ExportedFile_ShouldRoundTrip() throws Exception {
+        jdbc.update("INSERT INTO tasks (title, description, status, due_date, category_id, created_at, updated_at) " +
+                "VALUES ('Raport \"Q1\"', 'Linia 1\nLinia 2', 'TODO', '2026-01-06', 1, NOW(), NOW())");
+        jdbc.update("INSERT INTO tasks (title, status, created_at, updated_at) VALUES (' Spacja', 'DONE', NOW(), NOW())");
+        List<TaskDto> before = taskJdbcDao.findAllAsDtos();
+        ByteArrayOutputStream exported = new ByteArrayOutputStream();
+        CsvEncoder encoder = TaskCsvLayout.API.open(exported);
+        for (TaskDto task : before) {
+            TaskCsvLayout.API.row(encoder, task);
+        }
+        encoder.flush();
+        jdbc.update("DELETE FROM tasks");
+
+        TaskImportResultDto result = importService.importCsv(new ByteArrayInputStream(exported.toByteArray()));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(taskJdbcDao.findAllAsDtos())
+                .usingRecursiveFieldByFieldElementComparatorIgnoringFields("id", "createdAt", "updatedAt")
+                .containsExactlyInAnyOrderElementsOf(before);
+    }
+
+    @Test
+    void importCsv_MissingHeader_ShouldThrowBadRequest() {
+        assertThatThrownBy(() -> importService.importCsv(csv("1,Raport,,TODO\r\n")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Tytuł");
+    }
+
+    @Test
+    void importCsv_MalformedCsv_ShouldThrowBadRequest() {
+        assertThatThrownBy(() -> importService.importCsv(csv(HEADER + "1,\"Niezamknięty,,TODO,,,,\r\n")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Niepoprawny CSV");
+    }
+
+    @Test
+    void importCsv_ShouldReadCategoriesOnce() throws Exception {
+        StringBuilder body = new StringBuilder(HEADER);
+        for (int i = 0; i < 50; i++) {
+            body.append(i).append(",Zadanie ").append(i).append(",,TODO,,Praca,,\r\n");
+        }
+
+        TaskImportResultDto result = importService.importCsv(csv(body.toString()));
+
+        assertThat(result.getImported()).isEqualTo(50);
+        assertThat(result.getBatches()).isEqualTo(25);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE category_id = 1", Long.class)).isEqualTo(50L);
+        verify(categoryRepository, times(1)).findAll();
+        verifyNoMoreInteractions(categoryRepository);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
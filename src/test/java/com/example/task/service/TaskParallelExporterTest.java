@@ -0,0 +1,151 @@
+package com.example.task.service;
+
+import com.example.task.exception.TooManyRequestsException;
+import com.example.task.model.TaskFilter;
+import com.example.task.model.TaskStatus;
+import com.example.task.repository.jdbc.DatabasePlatform;
+import com.example.task.repository.jdbc.TaskSnapshotReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskParallelExporter.class, TaskSnapshotReader.class, DatabasePlatform.class})
+@TestPropertySource(properties = {"tasks.export.parallelism=3", "tasks.export.chunk-size=7",
+        "tasks.export.max-parallel-exports=5"})
+class TaskParallelExporterTest {
+
+    @Autowired
+    private TaskParallelExporter exporter;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        // Luki w id: fragmenty mają różną liczbę wierszy, niektóre są puste
+        for (int id = 1; id <= 200; id++) {
+            if (id % 5 == 0 || id > 60 && id < 120) {
+                continue;
+            }
+            jdbc.update("INSERT INTO tasks (id, title, status, created_at, updated_at) VALUES (?, ?, ?, '2025-01-01 10:00:00', '2025-01-01 10:00:00')",
+                    id, "Zadanie " + id, id % 3 == 0 ? "DONE" : "TODO");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM tasks");
+    }
+
+    @Test
+    void export_ShouldWriteAllChunksInIdOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.export(exporter.reserve(), new TaskFilter(), out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        List<Long> expectedIds = jdbc.queryForList("SELECT id FROM tasks ORDER BY id", Long.class);
+        assertThat(count).isEqualTo(expectedIds.size());
+        assertThat(lines.get(0)).startsWith("ID,Tytuł");
+        assertThat(lines.subList(1, lines.size()))
+                .extracting(line -> Long.parseLong(line.substring(0, line.indexOf(','))))
+                .containsExactlyElementsOf(expectedIds);
+        assertThat(lines.get(1)).isEqualTo("1,Zadanie 1,,TODO,,Brak,2025-01-01T10:00,2025-01-01T10:00");
+    }
+
+    @Test
+    void export_WithFilter_ShouldOnlyWriteMatchingRows() throws Exception {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.DONE));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.export(exporter.reserve(), filter, out);
+
+        assertThat(count).isEqualTo(jdbc.queryForObject("SELECT COUNT(*) FROM tasks WHERE status = 'DONE'", Long.class));
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().skip(1)).allMatch(line -> line.contains(",DONE,"));
+    }
+
+    @Test
+    void export_NoMatches_ShouldWriteHeaderOnly() throws Exception {
+        TaskFilter filter = new TaskFilter();
+        filter.setTitle("brak");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exporter.export(exporter.reserve(), filter, out)).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(1);
+    }
+
+    @Test
+    void export_MoreConcurrentExportsThanWorkers_ShouldFinishAll() throws Exception {
+        // 5 eksportów na 3 wątki puli: fragmenty czekają w kolejce, żaden nie trafia do wątku żądania
+        int exports = 5;
+        long expected = jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class);
+        ExecutorService requests = Executors.newFixedThreadPool(exports);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < exports; i++) {
+                TaskParallelExporter.Reservation reservation = exporter.reserve();
+                results.add(requests.submit(() -> {
+                    start.await();
+                    ByteArrayOutputStream out = new ByteArrayOutputStream();
+                    assertThat(exporter.export(reservation, new TaskFilter(), out)).isEqualTo(expected);
+                    return out.toString(StandardCharsets.UTF_8);
+                }));
+            }
+            start.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).lines()).hasSize((int) expected + 1);
+            }
+        } finally {
+            requests.shutdownNow();
+        }
+        // Wszystkie rezerwacje zwolnione
+        List<TaskParallelExporter.Reservation> again = new ArrayList<>();
+        for (int i = 0; i < exports; i++) {
+            again.add(exporter.reserve());
+        }
+        again.forEach(TaskParallelExporter.Reservation::close);
+    }
+
+    @Test
+    void reserve_OverLimit_ShouldThrowTooManyRequests() {
+        List<TaskParallelExporter.Reservation> held = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            held.add(exporter.reserve());
+        }
+
+        assertThatThrownBy(exporter::reserve).isInstanceOf(TooManyRequestsException.class);
+
+        held.get(0).close();
+        held.get(0).close();
+        TaskParallelExporter.Reservation next = exporter.reserve();
+        assertThatThrownBy(exporter::reserve).isInstanceOf(TooManyRequestsException.class);
+        next.close();
+        held.forEach(TaskParallelExporter.Reservation::close);
+    }
+}
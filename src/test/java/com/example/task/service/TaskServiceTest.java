@@ -1,19 +1,28 @@
 package com.example.task.service;
 
+import com.example.task.exception.BadRequestException;
 import com.example.task.exception.ResourceNotFoundException;
-import com.example.task.mapper.TaskMapper;
+import com.example.task.model.dto.CursorPageDto;
 import com.example.task.model.dto.TaskCreateDto;
 import com.example.task.model.dto.TaskDto;
 import com.example.task.model.dto.StatisticsDto;
-import com.example.task.model.entity.Category;
-import com.example.task.model.entity.Task;
+import com.example.task.model.CountMode;
+import com.example.task.model.ExportMode;
+import com.example.task.model.TaskCursor;
+import com.example.task.model.TaskFilter;
 import com.example.task.model.TaskStatus;
+import com.example.task.model.event.TaskChangedEvent;
 import com.example.task.repository.CategoryRepository;
 import com.example.task.repository.TaskRepository;
+import com.example.task.repository.TaskSpecifications;
+import com.example.task.repository.jdbc.TaskCounterDao;
 import com.example.task.repository.jdbc.TaskJdbcDao;
+import com.example.task.repository.jdbc.TaskRowHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
 import java.time.LocalDate;
@@ -29,141 +38,126 @@ class TaskServiceTest {
 
     @Mock private TaskRepository taskRepository;
     @Mock private CategoryRepository categoryRepository;
-    @Mock private TaskMapper taskMapper;
+    @Mock private TaskCounterDao taskCounterDao;
     @Mock private TaskJdbcDao taskJdbcDao;
+    @Mock private TaskStatisticsAggregator statisticsAggregator;
+    @Mock private TaskParallelExporter parallelExporter;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
-    @InjectMocks private TaskService taskService;
+    private TaskService taskService;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        taskService = new TaskService(taskRepository, new TaskFilterResolver(categoryRepository), taskJdbcDao,
+                taskCounterDao, statisticsAggregator, parallelExporter, eventPublisher, null);
     }
     // ---------------- getTasksWithFilters ----------------
     @Test
     void getTasksWithFilters_ShouldReturnPage() {
-        Task task = new Task();
+        TaskDto task = new TaskDto();
         task.setId(1L);
-        Page<Task> page = new PageImpl<>(List.of(task));
-        when(taskRepository.searchTasks(any(), any(), any(), any(), any(), any(Pageable.class)))
+        Page<TaskDto> page = new PageImpl<>(List.of(task));
+        when(taskRepository.findPage(any(), any(Pageable.class)))
                 .thenReturn(page);
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
-            setId(1L);
-        }});
 
         Page<TaskDto> result = taskService.getTasksWithFilters(null, null, null, null, "", 0, 10, "createdAt,desc");
 
         assertThat(result.getTotalElements()).isEqualTo(1);
         verify(taskRepository, times(1))
-                .searchTasks(any(), any(), any(), any(), any(), any(Pageable.class));
-        verify(taskMapper, times(1)).toDto(task);
+                .findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getTasksWithFilters_InvalidPageSize_ShouldUseDefault() {
-        Task task = new Task();
-        Page<Task> page = new PageImpl<>(List.of(task));
-        when(taskRepository.searchTasks(any(), any(), any(), any(), any(), any(Pageable.class))).thenReturn(page);
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
-            setId(1L);
-        }});
+        TaskDto task = new TaskDto(); task.setId(1L);
+        Page<TaskDto> page = new PageImpl<>(List.of(task));
+        when(taskRepository.findPage(any(), any(Pageable.class))).thenReturn(page);
 
         Page<TaskDto> result = taskService.getTasksWithFilters(null, null, null, null, "", -1, 200, "createdAt");
 
         assertThat(result.getTotalElements()).isEqualTo(1);
-        verify(taskRepository, times(1)).searchTasks(any(), any(), any(), any(), any(), any(Pageable.class));
+        verify(taskRepository, times(1)).findPage(any(), any(Pageable.class));
     }
 
     @Test
     void getTasksWithFilters_SortingEdgeCase_ShouldDefaultToCreatedAt() {
-        Task task = new Task();
-        Page<Task> page = new PageImpl<>(List.of(task));
-        when(taskRepository.searchTasks(any(), any(), any(), any(), any(), any(Pageable.class))).thenReturn(page);
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
-            setId(1L);
-        }});
+        TaskDto task = new TaskDto(); task.setId(1L);
+        Page<TaskDto> page = new PageImpl<>(List.of(task));
+        when(taskRepository.findPage(any(), any(Pageable.class))).thenReturn(page);
 
         Page<TaskDto> result = taskService.getTasksWithFilters(null, null, null, null, "", 0, 10, "invalidField,asc");
 
         assertThat(result.getTotalElements()).isEqualTo(1);
-        verify(taskRepository, times(1)).searchTasks(any(), any(), any(), any(), any(), any(Pageable.class));
+        verify(taskRepository, times(1)).findPage(any(), any(Pageable.class));
     }
 
     // ---------------- getTaskById ----------------
     @Test
     void getTaskById_Found_ShouldReturnDto() {
-        Task task = new Task(); task.setId(1L);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
+        when(taskRepository.findDtoById(1L)).thenReturn(Optional.of(new TaskDto(){{
             setId(1L);
-        }});
+        }}));
 
         TaskDto dto = taskService.getTaskById(1L);
 
         assertThat(dto.getId()).isEqualTo(1L);
-        verify(taskRepository, times(1)).findById(1L);
-        verify(taskMapper, times(1)).toDto(task);
+        verify(taskRepository, times(1)).findDtoById(1L);
     }
 
     @Test
     void getTaskById_NotFound_ShouldThrow() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskRepository.findDtoById(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> taskService.getTaskById(1L));
-        verify(taskRepository, times(1)).findById(1L);
+        verify(taskRepository, times(1)).findDtoById(1L);
     }
 
     @Test
     void getTaskById_MultipleCalls_ShouldVerify() {
-        Task task = new Task(); task.setId(2L);
-        when(taskRepository.findById(2L)).thenReturn(Optional.of(task));
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
+        when(taskRepository.findDtoById(2L)).thenReturn(Optional.of(new TaskDto(){{
             setId(2L);
-        }});
+        }}));
 
         taskService.getTaskById(2L);
         taskService.getTaskById(2L);
 
-        verify(taskRepository, times(2)).findById(2L);
-        verify(taskMapper, times(2)).toDto(task);
+        verify(taskRepository, times(2)).findDtoById(2L);
     }
 
     // ---------------- createTask ----------------
     @Test
-    void createTask_ShouldSaveAndReturnDto() {
+    void createTask_ShouldInsertAndReturnDto() {
         TaskCreateDto createDto = new TaskCreateDto();
         createDto.setTitle("New");
         createDto.setStatus(TaskStatus.TODO);
+        createDto.setCategoryId(1L);
 
-        Category cat = new Category(); cat.setId(1L);
-        Task task = new Task(); task.setId(1L);
-
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(cat));
-        when(taskMapper.toEntity(createDto, cat)).thenReturn(task);
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
-            setId(1L);
-        }});
+        TaskDto saved = new TaskDto();
+        saved.setId(1L); saved.setStatus(TaskStatus.TODO); saved.setCategoryId(1L); saved.setCategoryName("Cat1");
+        ArgumentCaptor<TaskDto> inserted = ArgumentCaptor.forClass(TaskDto.class);
+        when(taskJdbcDao.insertReturning(inserted.capture())).thenReturn(saved);
 
-        createDto.setCategoryId(1L);
         TaskDto dto = taskService.createTask(createDto);
 
-        assertThat(dto.getId()).isEqualTo(1L);
-        verify(categoryRepository).findById(1L);
-        verify(taskMapper).toEntity(createDto, cat);
-        verify(taskRepository).save(task);
-        verify(taskMapper).toDto(task);
+        assertThat(dto).isSameAs(saved);
+        assertThat(inserted.getValue().getId()).isNull();
+        assertThat(inserted.getValue().getTitle()).isEqualTo("New");
+        assertThat(inserted.getValue().getCategoryId()).isEqualTo(1L);
+        verify(taskCounterDao).increment(TaskStatus.TODO, 1L);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(TaskStatus.TODO, 1L, "Cat1"));
+        verifyNoInteractions(categoryRepository, taskRepository);
     }
 
     @Test
     void createTask_CategoryNotFound_ShouldThrow() {
         TaskCreateDto createDto = new TaskCreateDto();
         createDto.setCategoryId(999L);
+        when(taskJdbcDao.insertReturning(any())).thenThrow(new DataIntegrityViolationException("fk"));
 
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
-
-        assertThrows(ResourceNotFoundException.class, () -> taskService.createTask(createDto));
-        verify(categoryRepository).findById(999L);
-        verify(taskRepository, never()).save(any());
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> taskService.createTask(createDto));
+        assertThat(ex.getMessage()).isEqualTo("Kategoria o id 999 nie istnieje");
+        verifyNoInteractions(taskCounterDao, eventPublisher);
     }
 
     @Test
@@ -171,19 +165,26 @@ class TaskServiceTest {
         TaskCreateDto createDto = new TaskCreateDto();
         createDto.setTitle("NoCat"); createDto.setStatus(TaskStatus.TODO);
 
-        Task task = new Task(); task.setId(1L);
-
-        when(taskMapper.toEntity(createDto, null)).thenReturn(task);
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
-            setId(1L);
-        }});
+        TaskDto saved = new TaskDto();
+        saved.setId(1L); saved.setStatus(TaskStatus.TODO);
+        when(taskJdbcDao.insertReturning(any())).thenReturn(saved);
 
         TaskDto dto = taskService.createTask(createDto);
 
         assertThat(dto.getId()).isEqualTo(1L);
-        verify(taskRepository).save(task);
-        verify(taskMapper).toEntity(createDto, null);
+        verify(taskCounterDao).increment(TaskStatus.TODO, null);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.created(TaskStatus.TODO, null, null));
+    }
+
+    @Test
+    void createTask_IntegrityViolationWithoutCategory_ShouldPropagate() {
+        TaskCreateDto createDto = new TaskCreateDto();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null");
+        when(taskJdbcDao.insertReturning(any())).thenThrow(violation);
+
+        DataIntegrityViolationException ex = assertThrows(DataIntegrityViolationException.class,
+                () -> taskService.createTask(createDto));
+        assertThat(ex).isSameAs(violation);
     }
 
     // ---------------- updateTask ----------------
@@ -192,117 +193,253 @@ class TaskServiceTest {
         TaskCreateDto dto = new TaskCreateDto();
         dto.setTitle("Updated"); dto.setCategoryId(1L); dto.setStatus(TaskStatus.IN_PROGRESS);
 
-        Task task = new Task(); task.setId(1L);
-        Category cat = new Category(); cat.setId(1L);
-
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(cat));
-        when(taskRepository.save(task)).thenReturn(task);
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
-            setId(1L);
-        }});
+        TaskDto saved = new TaskDto();
+        saved.setId(1L); saved.setStatus(TaskStatus.IN_PROGRESS); saved.setCategoryId(1L); saved.setCategoryName("Cat1");
+        ArgumentCaptor<TaskDto> updated = ArgumentCaptor.forClass(TaskDto.class);
+        when(taskJdbcDao.updateReturning(updated.capture()))
+                .thenReturn(Optional.of(new TaskJdbcDao.UpdatedTask(saved, TaskStatus.TODO, null)));
 
         TaskDto result = taskService.updateTask(1L, dto);
 
-        assertThat(result.getId()).isEqualTo(1L);
-        verify(taskRepository).findById(1L);
-        verify(categoryRepository).findById(1L);
-        verify(taskRepository).save(task);
-        verify(taskMapper).updateEntityFromDto(dto, task, cat);
+        assertThat(result).isSameAs(saved);
+        assertThat(updated.getValue().getId()).isEqualTo(1L);
+        assertThat(updated.getValue().getTitle()).isEqualTo("Updated");
+        verify(taskCounterDao).move(TaskStatus.TODO, null, TaskStatus.IN_PROGRESS, 1L);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.updated(TaskStatus.TODO, null, TaskStatus.IN_PROGRESS, 1L, "Cat1"));
+        verifyNoInteractions(categoryRepository, taskRepository);
     }
 
     @Test
     void updateTask_TaskNotFound_ShouldThrow() {
-        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+        when(taskJdbcDao.updateReturning(any())).thenReturn(Optional.empty());
         TaskCreateDto dto = new TaskCreateDto();
 
-        assertThrows(ResourceNotFoundException.class, () -> taskService.updateTask(1L, dto));
-        verify(taskRepository).findById(1L);
-        verify(categoryRepository, never()).findById(any());
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> taskService.updateTask(1L, dto));
+        assertThat(ex.getMessage()).isEqualTo("Zadanie o id 1 nie istnieje");
+        verifyNoInteractions(taskCounterDao, eventPublisher);
     }
 
     @Test
     void updateTask_CategoryNotFound_ShouldThrow() {
         TaskCreateDto dto = new TaskCreateDto(); dto.setCategoryId(999L);
-        Task task = new Task();
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(taskJdbcDao.updateReturning(any())).thenThrow(new DataIntegrityViolationException("fk"));
 
-        assertThrows(ResourceNotFoundException.class, () -> taskService.updateTask(1L, dto));
-        verify(taskRepository).findById(1L);
-        verify(categoryRepository).findById(999L);
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class, () -> taskService.updateTask(1L, dto));
+        assertThat(ex.getMessage()).isEqualTo("Kategoria o id 999 nie istnieje");
+        verifyNoInteractions(taskCounterDao, eventPublisher);
     }
 
     // ---------------- deleteTask ----------------
     @Test
-    void deleteTask_Exists_ShouldDelete() {
-        when(taskRepository.existsById(1L)).thenReturn(true);
+    void deleteTask_Exists_ShouldDeleteAndDecrementCounter() {
+        TaskDto deleted = new TaskDto(); deleted.setId(1L); deleted.setStatus(TaskStatus.DONE); deleted.setCategoryId(4L);
+        when(taskJdbcDao.deleteReturning(1L)).thenReturn(Optional.of(deleted));
 
         taskService.deleteTask(1L);
 
-        verify(taskRepository).existsById(1L);
-        verify(taskRepository).deleteById(1L);
+        verify(taskJdbcDao).deleteReturning(1L);
+        verify(taskCounterDao).decrement(TaskStatus.DONE, 4L);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(TaskStatus.DONE, 4L));
+        verifyNoInteractions(taskRepository);
     }
 
     @Test
     void deleteTask_NotExists_ShouldThrow() {
-        when(taskRepository.existsById(1L)).thenReturn(false);
+        when(taskJdbcDao.deleteReturning(1L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(1L));
-        verify(taskRepository).existsById(1L);
-        verify(taskRepository, never()).deleteById(any());
+        verify(taskJdbcDao).deleteReturning(1L);
+        verifyNoInteractions(taskCounterDao, eventPublisher);
     }
 
     @Test
     void deleteTask_MultipleCalls_ShouldVerify() {
-        when(taskRepository.existsById(1L)).thenReturn(true);
+        TaskDto deleted = new TaskDto(); deleted.setId(1L);
+        when(taskJdbcDao.deleteReturning(1L)).thenReturn(Optional.of(deleted), Optional.empty());
 
         taskService.deleteTask(1L);
-        taskService.deleteTask(1L);
+        assertThrows(ResourceNotFoundException.class, () -> taskService.deleteTask(1L));
 
-        verify(taskRepository, times(2)).existsById(1L);
-        verify(taskRepository, times(2)).deleteById(1L);
+        verify(taskJdbcDao, times(2)).deleteReturning(1L);
     }
 
     // ---------------- getTaskStatistics ----------------
     @Test
-    void getTaskStatistics_ShouldReturnCorrectCounts() {
-        Task t1 = new Task(); t1.setStatus(TaskStatus.TODO); t1.setCategory(new Category(){{
-            setName("Cat1");
-        }});
-        Task t2 = new Task(); t2.setStatus(TaskStatus.DONE); t2.setCategory(null);
-
-        when(taskRepository.findAll()).thenReturn(List.of(t1, t2));
+    void getTaskStatistics_WithoutFilters_ShouldReadAggregator() {
+        StatisticsDto expected = new StatisticsDto(2, Map.of("TODO", 1L, "DONE", 1L),
+                Map.of("Cat1", 1L, "Uncategorized", 1L),
+                Map.of("TODO", Map.of("Cat1", 1L), "DONE", Map.of("Uncategorized", 1L)));
+        when(statisticsAggregator.statistics()).thenReturn(expected);
 
         StatisticsDto stats = taskService.getTaskStatistics();
 
-        assertThat(stats.getTotalTasks()).isEqualTo(2);
-        assertThat(stats.getTasksByStatus().get("TODO")).isEqualTo(1);
-        assertThat(stats.getTasksByCategory().get("Cat1")).isEqualTo(1);
-        assertThat(stats.getTasksByCategory().get("Uncategorized")).isEqualTo(1);
+        assertThat(stats).isSameAs(expected);
+        verifyNoInteractions(taskRepository, taskJdbcDao, taskCounterDao);
     }
 
     @Test
-    void getTaskStatistics_Empty_ShouldReturnZero() {
-        when(taskRepository.findAll()).thenReturn(List.of());
+    void getTaskStatistics_WithFilters_ShouldGroupByInDatabase() {
+        StatisticsDto expected = new StatisticsDto(1, Map.of("TODO", 1L), Map.of("Cat1", 1L), Map.of("TODO", Map.of("Cat1", 1L)));
+        when(taskJdbcDao.statistics(any(TaskFilter.class))).thenReturn(expected);
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(List.of(TaskStatus.TODO));
+
+        assertThat(taskService.getTaskStatistics(filter)).isSameAs(expected);
+        verifyNoInteractions(statisticsAggregator);
+    }
 
-        StatisticsDto stats = taskService.getTaskStatistics();
+    @Test
+    void getTaskStatistics_CategoryNameWithoutMatch_ShouldReturnZero() {
+        when(categoryRepository.findIdsByNameLike("%brak%")).thenReturn(List.of());
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("brak");
+
+        StatisticsDto stats = taskService.getTaskStatistics(filter);
 
         assertThat(stats.getTotalTasks()).isZero();
         assertThat(stats.getTasksByStatus()).isEmpty();
         assertThat(stats.getTasksByCategory()).isEmpty();
+        verifyNoInteractions(taskJdbcDao);
     }
 
     @Test
     void getStatisticsForCsv_ShouldReturnRows() {
-        Task t = new Task(); t.setStatus(TaskStatus.TODO); t.setCategory(new Category(){{
-            setName("Cat1");
-        }});
-        when(taskRepository.findAll()).thenReturn(List.of(t));
+        when(statisticsAggregator.statistics()).thenReturn(new StatisticsDto(1, Map.of("TODO", 1L),
+                Map.of("Cat1", 1L), Map.of("TODO", Map.of("Cat1", 1L))));
 
         List<String[]> rows = taskService.getStatisticsForCsv();
 
         assertThat(rows).isNotEmpty();
+        assertThat(rows).anySatisfy(row -> assertThat(row).containsExactly("Status/kategoria: TODO / Cat1", "1"));
+    }
+
+    // ---------------- exportTasksCsv ----------------
+    @Test
+    void exportTasksCsv_ShouldWriteHeaderAndStreamedRows() throws Exception {
+        doAnswer(invocation -> {
+            TaskRowHandler handler = invocation.getArgument(1);
+            TaskDto dto = new TaskDto(); dto.setId(7L); dto.setTitle("Raport, \"Q1\""); dto.setStatus(TaskStatus.TODO);
+            handler.handle(dto);
+            return null;
+        }).when(taskJdbcDao).streamTasks(any(TaskFilter.class), any(TaskRowHandler.class));
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+
+        long count = taskService.exportTasksCsv(new TaskFilter(), out);
+
+        assertThat(count).isEqualTo(1);
+        assertThat(out.toString(java.nio.charset.StandardCharsets.UTF_8))
+                .startsWith("ID,Tytuł,Opis,Status,Termin,Kategoria,Utworzono,Zaktualizowano")
+                .contains("7,\"Raport, \"\"Q1\"\"\",,TODO,,Brak");
+        verify(taskJdbcDao, never()).findAllAsDtos();
+    }
+
+    @Test
+    void exportTasksCsv_CategoryNameWithoutMatch_ShouldWriteOnlyHeader() throws Exception {
+        when(categoryRepository.findIdsByNameLike("%brak%")).thenReturn(List.of());
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("brak");
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+
+        assertThat(taskService.exportTasksCsv(filter, out)).isZero();
+        assertThat(out.toString(java.nio.charset.StandardCharsets.UTF_8)).startsWith("ID,").doesNotContain("Brak");
+        verifyNoInteractions(taskJdbcDao);
+    }
+
+    @Test
+    void exportTasksCsv_CopyModeOnPostgres_ShouldUseCopy() throws Exception {
+        when(taskJdbcDao.supportsCopy()).thenReturn(true);
+        when(taskJdbcDao.copyCsv(any(TaskFilter.class), any())).thenReturn(42L);
+
+        long count = taskService.exportTasksCsv(new TaskFilter(), ExportMode.COPY, new java.io.ByteArrayOutputStream());
+
+        assertThat(count).isEqualTo(42);
+        verify(taskJdbcDao, never()).streamTasks(any(), any());
+    }
+
+    @Test
+    void exportTasksCsv_CopyModeWithoutPostgres_ShouldFallBackToStreaming() throws Exception {
+        when(taskJdbcDao.supportsCopy()).thenReturn(false);
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+
+        taskService.exportTasksCsv(new TaskFilter(), ExportMode.COPY, out);
+
+        verify(taskJdbcDao).streamTasks(any(TaskFilter.class), any(TaskRowHandler.class));
+        verify(taskJdbcDao, never()).copyCsv(any(), any());
+        assertThat(out.toString(java.nio.charset.StandardCharsets.UTF_8)).startsWith("ID,Tytuł");
+    }
+
+    @Test
+    void exportTasksCsvParallel_ShouldDelegateWithResolvedFilter() throws Exception {
+        TaskParallelExporter.Reservation reservation = mock(TaskParallelExporter.Reservation.class);
+        when(categoryRepository.findIdsByNameLike("%pra%")).thenReturn(List.of(3L));
+        when(parallelExporter.export(any(), any(TaskFilter.class), any())).thenReturn(5L);
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("pra");
+
+        long count = taskService.exportTasksCsvParallel(filter, reservation, new java.io.ByteArrayOutputStream());
+
+        assertThat(count).isEqualTo(5);
+        ArgumentCaptor<TaskFilter> captor = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(parallelExporter).export(eq(reservation), captor.capture(), any());
+        assertThat(captor.getValue().getCategoryIds()).containsExactly(3L);
+        verify(reservation).close();
+        verifyNoInteractions(taskJdbcDao);
+    }
+
+    @Test
+    void exportTasksCsvParallel_NoMatchingCategory_ShouldReleaseReservation() throws Exception {
+        TaskParallelExporter.Reservation reservation = mock(TaskParallelExporter.Reservation.class);
+        when(categoryRepository.findIdsByNameLike("%brak%")).thenReturn(List.of());
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("brak");
+
+        assertThat(taskService.exportTasksCsvParallel(filter, reservation, new java.io.ByteArrayOutputStream())).isZero();
+
+        verify(reservation).close();
+        verify(parallelExporter, never()).export(any(), any(), any());
+    }
+
+    @Test
+    void exportTasksCsv_ParallelMode_ShouldStreamInsideTransaction() throws Exception {
+        taskService.exportTasksCsv(new TaskFilter(), ExportMode.PARALLEL, new java.io.ByteArrayOutputStream());
+
+        verify(taskJdbcDao).streamTasks(any(TaskFilter.class), any(TaskRowHandler.class));
+        verifyNoInteractions(parallelExporter);
+    }
+
+    // ---------------- streamTasksNdjson ----------------
+    @Test
+    void streamTasksNdjson_ShouldDelegateWithResolvedFilter() throws Exception {
+        when(categoryRepository.findIdsByNameLike("%pra%")).thenReturn(List.of(3L));
+        when(taskJdbcDao.writeNdjson(any(TaskFilter.class), any())).thenReturn(5L);
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("pra");
+
+        assertThat(taskService.streamTasksNdjson(filter, new java.io.ByteArrayOutputStream())).isEqualTo(5);
+
+        verify(taskJdbcDao).writeNdjson(argThat(f -> f.getCategoryIds().equals(List.of(3L)) && f.getCategoryName() == null), any());
+    }
+
+    @Test
+    void streamTasksNdjson_CategoryNameWithoutMatch_ShouldWriteNothing() throws Exception {
+        when(categoryRepository.findIdsByNameLike("%brak%")).thenReturn(List.of());
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("brak");
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+
+        assertThat(taskService.streamTasksNdjson(filter, out)).isZero();
+        assertThat(out.size()).isZero();
+        verifyNoInteractions(taskJdbcDao);
+    }
+
+    @Test
+    void streamTasksNdjson_WriteFailure_ShouldRethrowIOException() {
+        java.io.IOException broken = new java.io.IOException("Broken pipe");
+        when(taskJdbcDao.writeNdjson(any(TaskFilter.class), any())).thenThrow(new java.io.UncheckedIOException(broken));
+
+        java.io.IOException thrown = assertThrows(java.io.IOException.class,
+                () -> taskService.streamTasksNdjson(new TaskFilter(), new java.io.ByteArrayOutputStream()));
+        assertThat(thrown).isSameAs(broken);
     }
 
     // ---------------- JDBC ----------------
@@ -317,19 +454,16 @@ class TaskServiceTest {
     }
     @Test
     void getTasksWithFilters_AllSortingOptions_ShouldUseJavaField() {
-        Task task = new Task(); task.setId(1L);
-        Page<Task> page = new PageImpl<>(List.of(task));
-        when(taskRepository.searchTasks(any(), any(), any(), any(), any(), any(Pageable.class))).thenReturn(page);
-        when(taskMapper.toDto(task)).thenReturn(new TaskDto(){{
-            setId(1L);
-        }});
+        TaskDto task = new TaskDto(); task.setId(1L);
+        Page<TaskDto> page = new PageImpl<>(List.of(task));
+        when(taskRepository.findPage(any(), any(Pageable.class))).thenReturn(page);
 
         String[] sorts = {"dueDate,asc", "due_date,desc", "createdAt,asc", "updatedAt,desc", "invalidField,asc"};
         for (String s : sorts) {
             taskService.getTasksWithFilters(null, null, null, null, "", 0, 10, s);
         }
 
-        verify(taskRepository, times(sorts.length)).searchTasks(any(), any(), any(), any(), any(), any(Pageable.class));
+        verify(taskRepository, times(sorts.length)).findPage(any(), any(Pageable.class));
     }
 
     @Test
@@ -390,9 +524,9 @@ class TaskServiceTest {
 
     @Test
     void getStatisticsForCsv_ShouldHandleEmptyMaps() {
-        StatisticsDto stats = new StatisticsDto(0L, Map.of(), Map.of());
+        StatisticsDto stats = new StatisticsDto(0L, Map.of(), Map.of(), Map.of());
         TaskService spyService = spy(taskService);
-        doReturn(stats).when(spyService).getTaskStatistics();
+        doReturn(stats).when(spyService).getTaskStatistics(any(TaskFilter.class));
 
         List<String[]> rows = spyService.getStatisticsForCsv();
 
@@ -418,4 +552,144 @@ class TaskServiceTest {
         assertThat(createDto.getCategoryId()).isEqualTo(1L);
     }
 
+
+    // ---------------- getTasksAfter ----------------
+    @Test
+    void getTasksAfter_MoreRowsThanSize_ShouldReturnNextCursor() {
+        when(taskRepository.findAfter(any(), isNull(), any(), eq(3))).thenReturn(List.of(
+                new TaskDto(){{ setId(1L); }}, new TaskDto(){{ setId(2L); }}, new TaskDto(){{ setId(3L); }}));
+
+        CursorPageDto<TaskDto> result = taskService.getTasksAfter(new TaskFilter(), "", 2, "id,asc");
+
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.isHasNext()).isTrue();
+        TaskCursor cursor = TaskCursor.decode(result.getNextCursor());
+        assertThat(cursor.id()).isEqualTo(2L);
+        assertThat(cursor.property()).isEqualTo("id");
+    }
+
+    @Test
+    void getTasksAfter_CursorForDifferentSort_ShouldThrow() {
+        String token = new TaskCursor("title", Sort.Direction.ASC, "abc", 5L).encode();
+
+        assertThrows(BadRequestException.class,
+                () -> taskService.getTasksAfter(new TaskFilter(), token, 10, "createdAt,desc"));
+        verify(taskRepository, never()).findAfter(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getTasksAfter_MalformedCursor_ShouldThrow() {
+        assertThrows(BadRequestException.class,
+                () -> taskService.getTasksAfter(new TaskFilter(), "%%%", 10, "createdAt,desc"));
+    }
+
+    // ---------------- count modes ----------------
+    @Test
+    void getTasksWithFilters_CountNone_ShouldNotCount() {
+        when(taskRepository.findSlice(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new TaskDto()), PageRequest.of(0, 10), true));
+
+        Slice<TaskDto> result = taskService.getTasksWithFilters(null, null, null, null, null, 0, 10, "createdAt,desc", CountMode.NONE);
+
+        assertThat(result).isNotInstanceOf(Page.class);
+        assertThat(result.hasNext()).isTrue();
+        verify(taskRepository, never()).findPage(any(), any());
+        verifyNoInteractions(taskJdbcDao);
+    }
+
+    @Test
+    void getTasksWithFilters_CountEstimate_ShouldUsePlannerEstimate() {
+        List<TaskDto> tasks = List.of(new TaskDto(), new TaskDto());
+        when(taskRepository.findSlice(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(tasks, PageRequest.of(1, 2), true));
+        when(taskJdbcDao.estimateCount(any())).thenReturn(1000L);
+
+        Slice<TaskDto> result = taskService.getTasksWithFilters(null, null, null, null, null, 1, 2, "createdAt,desc", CountMode.ESTIMATE);
+
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<TaskDto>) result).getTotalElements()).isEqualTo(1000L);
+    }
+
+    @Test
+    void getTasksWithFilters_CountEstimateOnLastPage_ShouldUseKnownTotal() {
+        when(taskRepository.findSlice(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(new TaskDto()), PageRequest.of(2, 5), false));
+
+        Slice<TaskDto> result = taskService.getTasksWithFilters(null, null, null, null, null, 2, 5, "createdAt,desc", CountMode.ESTIMATE);
+
+        assertThat(((Page<TaskDto>) result).getTotalElements()).isEqualTo(11L);
+        verify(taskJdbcDao, never()).estimateCount(any());
+    }
+
+    @Test
+    void getTasksWithFilters_CountExact_ShouldUseFindPage() {
+        when(taskRepository.findPage(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        taskService.getTasksWithFilters(null, null, null, null, null, 0, 10, "createdAt,desc", CountMode.EXACT);
+
+        verify(taskRepository).findPage(any(), any(Pageable.class));
+        verify(taskRepository, never()).findSlice(any(), any());
+    }
+
+    @Test
+    void getTasksWithFilters_WithTitle_ShouldUseIndexFriendlyQuery() {
+        when(taskRepository.findPage(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(new TaskDto())));
+
+        Page<TaskDto> result = taskService.getTasksWithFilters(null, null, null, null, "raport", 0, 10, "relevance");
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(taskRepository).findPage(any(), pageable.capture());
+        assertThat(pageable.getValue().getSort().getOrderFor(TaskSpecifications.RELEVANCE)).isNotNull();
+    }
+
+    @Test
+    void getTasksAfter_RelevanceSort_ShouldThrow() {
+        assertThrows(BadRequestException.class,
+                () -> taskService.getTasksAfter(new TaskFilter(), "", 10, "relevance"));
+    }
+
+    @Test
+    void getTasksWithFilters_WithFullTextQuery_ShouldUseJdbcSearch() {
+        TaskFilter filter = new TaskFilter();
+        filter.setQ("raport");
+        filter.setStatuses(List.of(TaskStatus.TODO));
+        when(taskJdbcDao.searchFullText(eq(filter), any(), eq(0L), eq(11))).thenReturn(List.of(new TaskDto()));
+
+        Slice<TaskDto> result = taskService.getTasksWithFilters(filter, 0, 10, "createdAt,desc", CountMode.EXACT);
+
+        assertThat(((Page<TaskDto>) result).getTotalElements()).isEqualTo(1);
+        verify(taskJdbcDao, never()).count(any());
+        verifyNoInteractions(taskRepository);
+    }
+
+    // ---------------- category name ----------------
+    @Test
+    void getTasksWithFilters_CategoryName_ShouldResolveToIdsIntersectedWithCategoryIds() {
+        when(categoryRepository.findIdsByNameLike("%dom%")).thenReturn(List.of(1L, 2L, 5L));
+        when(taskRepository.findPage(any(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("dom");
+        filter.setCategoryIds(List.of(2L, 5L, 7L));
+        taskService.getTasksWithFilters(filter, 0, 10, "createdAt,desc", CountMode.EXACT);
+
+        ArgumentCaptor<TaskFilter> resolved = ArgumentCaptor.forClass(TaskFilter.class);
+        verify(taskRepository).findPage(resolved.capture(), any(Pageable.class));
+        assertThat(resolved.getValue().getCategoryIds()).containsExactly(2L, 5L);
+        assertThat(resolved.getValue().getCategoryName()).isNull();
+        assertThat(filter.getCategoryName()).isEqualTo("dom");
+    }
+
+    @Test
+    void getTasksWithFilters_CategoryNameWithoutMatch_ShouldSkipTaskQuery() {
+        when(categoryRepository.findIdsByNameLike("%brak%")).thenReturn(List.of());
+
+        TaskFilter filter = new TaskFilter();
+        filter.setCategoryName("brak");
+        Slice<TaskDto> result = taskService.getTasksWithFilters(filter, 0, 10, "createdAt,desc", CountMode.EXACT);
+
+        assertThat(((Page<TaskDto>) result).getTotalElements()).isZero();
+        verifyNoInteractions(taskRepository, taskJdbcDao);
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.task.service;
+
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.StatisticsDto;
+import com.example.task.model.event.CategoryChangedEvent;
+import com.example.task.model.event.TaskChangedEvent;
+import com.example.task.model.event.TaskCountsChangedEvent;
+import com.example.task.repository.jdbc.TaskCounterDao;
+import com.example.task.repository.jdbc.TaskJdbcDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class TaskStatisticsAggregatorTest {
+
+    @Mock
+    private TaskCounterDao taskCounterDao;
+
+    @InjectMocks
+    private TaskStatisticsAggregator aggregator;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(taskCounterDao.buckets()).thenReturn(List.of(
+                new TaskCounterDao.Bucket(TaskStatus.TODO, 1L, "Praca", 2),
+                new TaskCounterDao.Bucket(TaskStatus.DONE, null, null, 1)));
+        aggregator.seed();
+    }
+
+    @Test
+    void seed_ShouldLoadCountersOnce() {
+        StatisticsDto stats = aggregator.statistics();
+        aggregator.statistics();
+
+        assertThat(stats.getTotalTasks()).isEqualTo(3);
+        assertThat(stats.getTasksByStatus()).containsExactly(Map.entry("TODO", 2L), Map.entry("DONE", 1L));
+        assertThat(stats.getTasksByCategory())
+                .containsExactly(Map.entry("Praca", 2L), Map.entry(TaskJdbcDao.UNCATEGORIZED, 1L));
+        verify(taskCounterDao, times(1)).buckets();
+    }
+
+    @Test
+    void taskEvents_ShouldMoveBuckets() {
+        aggregator.onTaskChanged(TaskChangedEvent.created(TaskStatus.IN_PROGRESS, 2L, "Dom"));
+        aggregator.onTaskChanged(TaskChangedEvent.updated(TaskStatus.TODO, 1L, TaskStatus.DONE, 1L, "Praca"));
+        aggregator.onTaskChanged(TaskChangedEvent.deleted(TaskStatus.DONE, null));
+
+        StatisticsDto stats = aggregator.statistics();
+
+        assertThat(stats.getTotalTasks()).isEqualTo(3);
+        assertThat(stats.getTasksByStatusAndCategory()).isEqualTo(Map.of(
+                "TODO", Map.of("Praca", 1L),
+                "IN_PROGRESS", Map.of("Dom", 1L),
+                "DONE", Map.of("Praca", 1L)));
+    }
+
+    @Test
+    void countsEvent_ShouldApplyBulkDeltas() {
+        aggregator.onTaskCountsChanged(new TaskCountsChangedEvent(List.of(
+                new TaskCountsChangedEvent.Delta(TaskStatus.TODO, 1L, "Praca", 1000),
+                new TaskCountsChangedEvent.Delta(TaskStatus.DONE, 4L, "Nowa", 5))));
+
+        StatisticsDto stats = aggregator.statistics();
+
+        assertThat(stats.getTotalTasks()).isEqualTo(1008);
+        assertThat(stats.getTasksByStatusAndCategory().get("TODO")).containsEntry("Praca", 1002L);
+        assertThat(stats.getTasksByStatusAndCategory().get("DONE")).containsEntry("Nowa", 5L);
+    }
+
+    @Test
+    void categoryEvents_ShouldRenameAndMoveToUncategorized() {
+        aggregator.onCategoryChanged(CategoryChangedEvent.renamed(1L, "Biuro"));
+        assertThat(aggregator.statistics().getTasksByCategory()).containsKey("Biuro");
+
+        aggregator.onCategoryChanged(CategoryChangedEvent.deleted(1L));
+
+        assertThat(aggregator.statistics().getTasksByCategory())
+                .isEqualTo(Map.of(TaskJdbcDao.UNCATEGORIZED, 3L));
+    }
+
+    @Test
+    void resync_ShouldReplaceDriftedState() {
+        aggregator.onTaskChanged(TaskChangedEvent.created(TaskStatus.TODO, null, null));
+        when(taskCounterDao.buckets()).thenReturn(List.of(new TaskCounterDao.Bucket(TaskStatus.TODO, 1L, "Praca", 5)));
+
+        aggregator.resync();
+
+        assertThat(aggregator.statistics().getTasksByStatusAndCategory()).isEqualTo(Map.of("TODO", Map.of("Praca", 5L)));
+    }
+
+    @Test
+    void concurrentEvents_ShouldNotLoseUpdates() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            executor.execute(() -> aggregator.onTaskChanged(TaskChangedEvent.created(TaskStatus.TODO, 1L, "Praca")));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(aggregator.statistics().getTotalTasks()).isEqualTo(8_003);
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.task.service;
+
+import com.example.task.exception.BadRequestException;
+import com.example.task.exception.PreconditionFailedException;
+import com.example.task.exception.ResourceNotFoundException;
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskCreateDto;
+import com.example.task.model.dto.TaskDto;
+import com.example.task.repository.jdbc.DatabasePlatform;
+import com.example.task.repository.jdbc.TaskCounterDao;
+import com.example.task.repository.jdbc.TaskJdbcDao;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Liczba instrukcji SQL na ścieżkach zapisu pojedynczego zadania, liczona na połączeniach z puli.
+ * Zmiana zadania to jedna instrukcja na tasks; osobno liczone są tylko zapisy do task_counters.
+ */
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskService.class, TaskFilterResolver.class, TaskJdbcDao.class, TaskCounterDao.class, DatabasePlatform.class,
+        TaskWriteStatementCountTest.StatementLog.class})
+class TaskWriteStatementCountTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterDao taskCounterDao;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private StatementLog log;
+
+    @MockBean
+    private TaskStatisticsAggregator statisticsAggregator;
+
+    @MockBean
+    private TaskParallelExporter parallelExporter;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM task_counters");
+        jdbc.update("DELETE FROM tasks");
+        jdbc.update("DELETE FROM categories");
+        jdbc.update("INSERT INTO categories (id, name) VALUES (1, 'Praca'), (2, 'Dom')");
+        log.statements.clear();
+    }
+
+    @Test
+    void createTask_ShouldInsertWithOneStatement() {
+        TaskDto task = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+
+        assertThat(task.getId()).isNotNull();
+        assertThat(task.getCategoryName()).isEqualTo("Praca");
+        assertThat(task.getCreatedAt()).isNotNull();
+        assertThat(log.taskStatements()).singleElement().satisfies(sql -> assertThat(sql).contains("INSERT INTO tasks"));
+        assertThat(taskCounterDao.reconcile()).isZero();
+    }
+
+    @Test
+    void createTask_MissingCategory_ShouldThrowNotFoundAfterOneStatement() {
+        assertThatThrownBy(() -> taskService.createTask(dto("Raport", TaskStatus.TODO, 99L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Kategoria o id 99 nie istnieje");
+
+        assertThat(log.statements).hasSize(1);
+    }
+
+    @Test
+    void updateTask_ShouldUpdateWithOneStatementAndMoveCounters() {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+        log.statements.clear();
+
+        TaskDto updated = taskService.updateTask(created.getId(), dto("Raport v2", TaskStatus.DONE, 2L));
+
+        assertThat(updated.getTitle()).isEqualTo("Raport v2");
+        assertThat(updated.getCategoryName()).isEqualTo("Dom");
+        assertThat(updated.getCreatedAt()).isEqualTo(created.getCreatedAt());
+        assertThat(updated.getUpdatedAt()).isNotNull();
+        assertThat(log.taskStatements()).singleElement().satisfies(sql -> assertThat(sql).contains("UPDATE tasks"));
+        assertThat(jdbc.queryForObject("SELECT title FROM tasks WHERE id = ?", String.class, created.getId())).isEqualTo("Raport v2");
+        assertThat(taskCounterDao.reconcile()).isZero();
+    }
+
+    @Test
+    void updateTask_MissingTask_ShouldThrowNotFoundAfterOneStatement() {
+        assertThatThrownBy(() -> taskService.updateTask(12345L, dto("Raport", TaskStatus.TODO, 99L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Zadanie o id 12345 nie istnieje");
+
+        assertThat(log.statements).hasSize(1);
+    }
+
+    @Test
+    void updateTask_MissingCategory_ShouldThrowNotFound() {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+        log.statements.clear();
+
+        assertThatThrownBy(() -> taskService.updateTask(created.getId(), dto("Raport", TaskStatus.TODO, 99L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Kategoria o id 99 nie istnieje");
+        assertThat(log.statements).hasSize(1);
+    }
+
+    @Test
+    void deleteTask_ShouldDeleteWithOneStatement() {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+        log.statements.clear();
+
+        taskService.deleteTask(created.getId());
+
+        assertThat(log.taskStatements()).singleElement().satisfies(sql -> assertThat(sql).contains("DELETE FROM tasks"));
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class)).isZero();
+        assertThat(taskCounterDao.reconcile()).isZero();
+    }
+
+    @Test
+    void deleteTask_MissingTask_ShouldThrowNotFoundAfterOneStatement() {
+        assertThatThrownBy(() -> taskService.deleteTask(12345L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Zadanie o id 12345 nie istnieje");
+
+        assertThat(log.statements).hasSize(1);
+    }
+
+    @Test
+    void patchTask_ShouldUpdateOnlyPresentColumnsWithOneStatement() throws Exception {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+        jdbc.update("UPDATE tasks SET description = 'Opis', due_date = DATE '2026-03-01' WHERE id = ?", created.getId());
+        log.statements.clear();
+
+        TaskDto patched = taskService.patchTask(created.getId(), json("{\"status\":\"DONE\",\"dueDate\":null}"), Set.of(0L));
+
+        assertThat(log.taskStatements()).singleElement().satisfies(sql -> assertThat(sql)
+                .contains("status = ?", "due_date = ?", "version = ?")
+                .doesNotContain("title = ?", "description = ?", "category_id = ?"));
+        assertThat(patched.getTitle()).isEqualTo("Raport");
+        assertThat(patched.getDescription()).isEqualTo("Opis");
+        assertThat(patched.getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(patched.getDueDate()).isNull();
+        assertThat(patched.getCategoryName()).isEqualTo("Praca");
+        assertThat(patched.getVersion()).isEqualTo(1L);
+        assertThat(jdbc.queryForObject("SELECT version FROM tasks WHERE id = ?", Long.class, created.getId())).isEqualTo(1L);
+        // Czas zmiany z zegara bazy, ten sam co zapisany w wierszu
+        assertThat(patched.getUpdatedAt()).isEqualTo(jdbc.queryForObject("SELECT updated_at FROM tasks WHERE id = ?",
+                java.time.LocalDateTime.class, created.getId()));
+        assertThat(taskCounterDao.reconcile()).isZero();
+    }
+
+    @Test
+    void patchTask_AnyOfListedVersions_ShouldMatch() throws Exception {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+        taskService.updateTask(created.getId(), dto("Raport v2", TaskStatus.TODO, 1L));
+        log.statements.clear();
+
+        TaskDto patched = taskService.patchTask(created.getId(), json("{\"status\":\"DONE\"}"), Set.of(0L, 1L, 7L));
+
+        assertThat(patched.getVersion()).isEqualTo(2L);
+        assertThat(log.taskStatements()).singleElement().satisfies(sql -> assertThat(sql).contains("version IN (?, ?, ?)"));
+    }
+
+    @Test
+    void patchTask_NoMatchableVersion_ShouldThrowPreconditionFailedWithoutWrite() throws Exception {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+        log.statements.clear();
+
+        assertThatThrownBy(() -> taskService.patchTask(created.getId(), json("{\"status\":\"DONE\"}"), Set.of()))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> taskService.patchTask(12345L, json("{\"status\":\"DONE\"}"), Set.of()))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        // tylko odczyty wersji, bez UPDATE
+        assertThat(log.statements).hasSize(2).noneMatch(sql -> sql.contains("UPDATE"));
+    }
+
+    @Test
+    void patchTask_StaleVersion_ShouldThrowPreconditionFailedWithoutWrite() throws Exception {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+        taskService.updateTask(created.getId(), dto("Raport v2", TaskStatus.TODO, 1L));
+        log.statements.clear();
+
+        assertThatThrownBy(() -> taskService.patchTask(created.getId(), json("{\"status\":\"DONE\"}"), Set.of(0L)))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessageContaining("wersję 1, a nie 0");
+
+        // warunkowy UPDATE i odczyt wersji dopiero po niepowodzeniu
+        assertThat(log.statements).hasSize(2);
+        assertThat(jdbc.queryForObject("SELECT status FROM tasks WHERE id = ?", String.class, created.getId())).isEqualTo("TODO");
+    }
+
+    @Test
+    void patchTask_MissingTask_ShouldThrowNotFound() {
+        assertThatThrownBy(() -> taskService.patchTask(12345L, json("{\"status\":\"DONE\"}"), Set.of(3L)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Zadanie o id 12345 nie istnieje");
+        assertThatThrownBy(() -> taskService.patchTask(12345L, json("{\"status\":\"DONE\"}"), null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void patchTask_ClearCategory_ShouldMoveCounters() throws Exception {
+        TaskDto created = taskService.createTask(dto("Raport", TaskStatus.TODO, 1L));
+
+        TaskDto patched = taskService.patchTask(created.getId(), json("{\"categoryId\":null}"), null);
+
+        assertThat(patched.getCategoryId()).isNull();
+        assertThat(patched.getCategoryName()).isNull();
+        assertThat(taskCounterDao.reconcile()).isZero();
+        assertThatThrownBy(() -> taskService.patchTask(created.getId(), json("{\"categoryId\":99}"), null))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Kategoria o id 99 nie istnieje");
+    }
+
+    @Test
+    void patchTask_InvalidDocument_ShouldThrowBadRequestWithoutStatements() {
+        assertThatThrownBy(() -> taskService.patchTask(1L, json("{\"title\":null,\"status\":\"LATER\",\"id\":5,\"owner\":\"x\"}"), null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Nieznany status: LATER; Pole id nie może być zmieniane; Nieznane pole: owner; Tytuł jest wymagany");
+        assertThatThrownBy(() -> taskService.patchTask(1L, json("[]"), null))
+                .isInstanceOf(BadRequestException.class);
+
+        assertThat(log.statements).isEmpty();
+    }
+
+    private static JsonNode json(String content) {
+        try {
+            return new ObjectMapper().readTree(content);
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    private static TaskCreateDto dto(String title, TaskStatus status, Long categoryId) {
+        TaskCreateDto dto = new TaskCreateDto();
+        dto.setTitle(title);
+        dto.setStatus(status);
+        dto.setCategoryId(categoryId);
+        return dto;
+    }
+
+    // Zapisuje SQL każdej instrukcji przygotowanej na połączeniach z puli
+    @TestConfiguration
+    static class StatementLog {
+
+        final List<String> statements = new ArrayList<>();
+
+        // Instrukcje poza task_counters
+        List<String> taskStatements() {
+            return statements.stream()
+                    .filter(sql -> !sql.toLowerCase(Locale.ROOT).contains("task_counters"))
+                    .toList();
+        }
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource(StatementLog log) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? log.wrap(dataSource) : bean;
+                }
+            };
+        }
+
+        private DataSource wrap(DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return counting(super.getConnection());
+                }
+            };
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement") || method.getName().equals("prepareCall")) {
+                            statements.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.task.service.csv;
+
+import com.example.task.model.TaskStatus;
+import com.example.task.model.dto.TaskDto;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvEncoderTest {
+
+    private static final List<String> TEXTS = List.of(
+            "Zwykły tekst", "Zażółć gęślą jaźń", "przecinek, w środku", "cudzysłów \"w\" środku",
+            "dwie\nlinie", "spacja na końcu ", " spacja na początku", "emoji 😀 i 中文",
+            "#1 priority", "!bang", "\tna początku tabulator", "x\u0001", "\u0001x", "$dolar", "");
+
+    @Test
+    void apiLayout_ShouldMatchCommonsCsvOutput() throws IOException {
+        List<TaskDto> tasks = tasks();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(expected, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.withHeader("ID", "Tytuł", "Opis", "Status", "Termin", "Kategoria", "Utworzono", "Zaktualizowano"))) {
+            for (TaskDto t : tasks) {
+                printer.printRecord(t.getId(), t.getTitle(),
+                        t.getDescription() != null ? t.getDescription() : "",
+                        t.getStatus() != null ? t.getStatus().name() : "",
+                        t.getDueDate() != null ? t.getDueDate() : "",
+                        t.getCategoryName() != null ? t.getCategoryName() : "Brak",
+                        t.getCreatedAt(), t.getUpdatedAt());
+            }
+        }
+
+        assertThat(encode(TaskCsvLayout.API, tasks, 64)).isEqualTo(expected.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void webLayout_ShouldMatchPreviousPrintfOutput() throws IOException {
+        List<TaskDto> tasks = tasks();
+
+        StringBuilder expected = new StringBuilder("ID;Tytuł;Opis;Status;Kategoria;Termin").append(System.lineSeparator());
+        for (TaskDto t : tasks) {
+            expected.append(String.format("%d;%s;%s;%s;%s;%s%n", t.getId(), quote(t.getTitle()), quote(t.getDescription()),
+                    t.getStatus(), quote(t.getCategoryName()), t.getDueDate() != null ? t.getDueDate() : ""));
+        }
+
+        assertThat(encode(TaskCsvLayout.WEB, tasks, 64)).isEqualTo(expected.toString());
+    }
+
+    @Test
+    void record_ShouldQuoteLikeCommonsCsvMinimal() throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvEncoder csv = new CsvEncoder(out, ',', "\r\n", false);
+        try (CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(expected, StandardCharsets.UTF_8), CSVFormat.DEFAULT)) {
+            for (String text : TEXTS) {
+                printer.printRecord(text, text);
+                csv.record(text, text);
+            }
+        }
+        csv.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expected.toString(StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, 7, -7, 1_000_000, Long.MAX_VALUE, Long.MIN_VALUE})
+    void number_ShouldMatchLongToString(long value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvEncoder csv = new CsvEncoder(out, ',', "\n", false);
+        csv.number(value).endRecord().flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(value + "\n");
+    }
+
+    @Test
+    void dates_ShouldMatchToString() throws IOException {
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(2024, 1, 5, 9, 7),
+                LocalDateTime.of(2024, 1, 5, 9, 7, 3),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59, 120_000_000),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 0, 123_456_000),
+                LocalDateTime.of(2024, 12, 31, 0, 0, 0, 1),
+                LocalDateTime.of(12024, 2, 29, 0, 0),
+                LocalDateTime.of(-5, 2, 1, 0, 0));
+        for (LocalDateTime value : values) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new CsvEncoder(out, ',', "\n", false).dateTime(value).date(value.toLocalDate()).flush();
+
+            assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(value + "," + value.toLocalDate());
+        }
+    }
+
+    private static String encode(TaskCsvLayout layout, List<TaskDto> tasks, int bufferSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Mały bufor: wiele opróżnień, także w środku znaków wielobajtowych
+        CsvEncoder csv = layout.open(out, bufferSize);
+        for (TaskDto task : tasks) {
+            layout.row(csv, task);
+        }
+        csv.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        return value == null ? "" : "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static List<TaskDto> tasks() {
+        List<TaskDto> tasks = new java.util.ArrayList<>();
+        long id = 1;
+        for (String text : TEXTS) {
+            TaskDto dto = new TaskDto();
+            dto.setId(id++);
+            dto.setTitle(text.isEmpty() ? "Pusty opis" : text);
+            dto.setDescription(text.isEmpty() ? null : text + " opis");
+            dto.setStatus(TaskStatus.values()[(int) (id % 3)]);
+            dto.setDueDate(id % 2 == 0 ? LocalDate.of(2026, 1, (int) id) : null);
+            dto.setCategoryName(id % 3 == 0 ? null : text + " kat");
+            dto.setCreatedAt(LocalDateTime.of(2025, 3, 1, 12, 30, (int) id, (int) id * 1_000_000));
+            dto.setUpdatedAt(id % 2 == 0 ? LocalDateTime.of(2025, 3, 2, 8, 0) : null);
+            tasks.add(dto);
+        }
+        return tasks;
+    }
+}
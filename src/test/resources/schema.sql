@@ -1,3 +1,4 @@
+DROP TABLE IF EXISTS task_counters;
 DROP TABLE IF EXISTS tasks;
 DROP TABLE IF EXISTS categories;
 
@@ -16,6 +17,16 @@ CREATE TABLE tasks (
     category_id BIGINT,
     created_at TIMESTAMP,
     updated_at TIMESTAMP,
+    external_id VARCHAR(100),
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_task_category
-        FOREIGN KEY (category_id) REFERENCES categories(id)
-);
\ No newline at end of file
+        FOREIGN KEY (category_id) REFERENCES categories(id),
+    CONSTRAINT uk_tasks_external_id UNIQUE (external_id)
+);
+
+CREATE TABLE task_counters (
+    status VARCHAR(50) NOT NULL,
+    category_id BIGINT NOT NULL DEFAULT 0,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (status, category_id)
+);